@@ -0,0 +1,88 @@
+package demo.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text and binary forms of the same documents. Throughput is counted in bytes of the UTF-8 text for
+ * every benchmark, so the numbers compare work done per document.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryBenchmark {
+    @Param({Payloads.RPC, Payloads.ARRAYS, Payloads.TELEMETRY, Payloads.STRINGS})
+    public String payload;
+
+    private static final EncoderOptions KEY_DICTIONARY = new EncoderOptions().keyDictionary(true);
+
+    private Map<String, Object> document;
+    private CharBuffer text;
+    private ByteBuffer binary;
+    private ByteBuffer dictionary;
+    private int utf8Length;
+
+    @Setup
+    public void setup() throws IOException {
+        final String json = Payloads.generate(this.payload);
+
+        this.document = Decoder.decode(json);
+        this.text = CharBuffer.wrap(json.toCharArray());
+        this.binary = ByteBuffer.wrap(Encoder.encodeBinary(this.document));
+        this.dictionary = ByteBuffer.wrap(Encoder.encodeBinary(this.document, KEY_DICTIONARY));
+        this.utf8Length = Payloads.utf8Length(json);
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeText(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.text.duplicate());
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeBinary(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decodeBinary(this.binary.duplicate());
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeBinaryKeyDictionary(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decodeBinary(this.dictionary.duplicate());
+    }
+
+    @Benchmark
+    public String encodeText(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Encoder.encode(this.document);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Encoder.encodeBinary(this.document);
+    }
+}
@@ -0,0 +1,106 @@
+package demo.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BindingBenchmark {
+    public static final class Params {
+        String from;
+        String to;
+        double amount;
+        String currency;
+        boolean dryRun;
+        String memo;
+        List<String> tags;
+    }
+
+    public static final class Meta {
+        String requestId;
+        int retries;
+        boolean traced;
+    }
+
+    public static final class Request {
+        String jsonrpc;
+        long id;
+        String method;
+        Params params;
+        Meta meta;
+    }
+
+    private CharBuffer data;
+    private Request request;
+    private int utf8Length;
+
+    @Setup
+    public void setup() throws IOException {
+        final String json = Payloads.generate(Payloads.RPC);
+
+        this.data = CharBuffer.wrap(json.toCharArray());
+        this.request = Decoder.decode(json, Request.class);
+        this.utf8Length = Payloads.utf8Length(json);
+    }
+
+    @Benchmark
+    public Request decodeBound(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.data.duplicate(), Request.class);
+    }
+
+    @Benchmark
+    public Request decodeAndCopy(final ByteCounter counter) throws IOException {
+        // baseline: decode to maps, then copy into the same classes by hand
+        counter.bytes += this.utf8Length;
+
+        final Map<String, Object> document = Decoder.decode(this.data.duplicate());
+        final Map<String, Object> params = (Map<String, Object>) document.get("params");
+        final Map<String, Object> meta = (Map<String, Object>) document.get("meta");
+        final Request out = new Request();
+
+        out.jsonrpc = (String) document.get("jsonrpc");
+        out.id = ((Number) document.get("id")).longValue();
+        out.method = (String) document.get("method");
+        out.params = new Params();
+        out.params.from = (String) params.get("from");
+        out.params.to = (String) params.get("to");
+        out.params.amount = ((Number) params.get("amount")).doubleValue();
+        out.params.currency = (String) params.get("currency");
+        out.params.dryRun = (Boolean) params.get("dryRun");
+        out.params.memo = (String) params.get("memo");
+        out.params.tags = (List<String>) params.get("tags");
+        out.meta = new Meta();
+        out.meta.requestId = (String) meta.get("requestId");
+        out.meta.retries = ((Number) meta.get("retries")).intValue();
+        out.meta.traced = (Boolean) meta.get("traced");
+
+        return out;
+    }
+
+    @Benchmark
+    public String encodeBound(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Encoder.encode(this.request);
+    }
+}
@@ -0,0 +1,175 @@
+package demo.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecoderBenchmark {
+    @Param({Payloads.RPC, Payloads.ARRAYS, Payloads.ESCAPES, Payloads.TELEMETRY, Payloads.SERIES, Payloads.STRINGS})
+    public String payload;
+
+    private String json;
+    private CharBuffer data;
+    private ByteBuffer bytes;
+    private int utf8Length;
+    private ReusableDecoder reusable;
+    private IncrementalDecoder incremental;
+
+    @Setup
+    public void setup() {
+        final String json = Payloads.generate(this.payload);
+
+        this.json = json;
+        this.data = CharBuffer.wrap(json.toCharArray());
+        this.bytes = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+        this.utf8Length = this.bytes.remaining();
+        this.reusable = new ReusableDecoder();
+        this.incremental = new IncrementalDecoder();
+    }
+
+    @Benchmark
+    public Map<String, Object> decode(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.data.duplicate());
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeText(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.json);
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeReusable(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return this.reusable.decode(this.data.duplicate());
+    }
+
+    private static final DecoderOptions INTERN_KEYS = new DecoderOptions().internKeys(true);
+
+    @Benchmark
+    public Map<String, Object> decodeInternKeys(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.data.duplicate(), INTERN_KEYS);
+    }
+
+    private static final DecoderOptions COMPACT_OBJECTS = new DecoderOptions().compactObjects(true);
+
+    @Benchmark
+    public Map<String, Object> decodeCompactObjects(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.data.duplicate(), COMPACT_OBJECTS);
+    }
+
+    private static final DecoderOptions METRICS = new DecoderOptions().metrics(new JsonMetricsRecorder());
+
+    @Benchmark
+    public Map<String, Object> decodeMeasured(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.data.duplicate(), METRICS);
+    }
+
+    private static final DecoderOptions PRIMITIVE_ARRAYS = new DecoderOptions().primitiveArrays(true);
+
+    @Benchmark
+    public Map<String, Object> decodePrimitiveArrays(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.data.duplicate(), PRIMITIVE_ARRAYS);
+    }
+
+    private static final DecoderOptions LIMITED = new DecoderOptions()
+            .maxDepth(512)
+            .maxStringLength(1 << 20)
+            .maxEntries(1 << 20)
+            .maxLength(1 << 28);
+
+    @Benchmark
+    public Map<String, Object> decodeLimited(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.data.duplicate(), LIMITED);
+    }
+
+    private static final DecoderOptions ITERATIVE = new DecoderOptions().iterative(true);
+
+    @Benchmark
+    public Map<String, Object> decodeIterative(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.data.duplicate(), ITERATIVE);
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeUtf8(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decode(this.bytes.duplicate());
+    }
+
+    private static final int PACKET_SIZE = 1460;
+
+    @Benchmark
+    public Map<String, Object> decodeIncremental(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        // fed one TCP-sized chunk at a time
+        final ByteBuffer chunk = this.bytes.duplicate();
+        final int limit = chunk.limit();
+
+        do {
+            chunk.limit(Math.min(chunk.position() + PACKET_SIZE, limit));
+        } while (!this.incremental.feed(chunk));
+
+        return this.incremental.take();
+    }
+
+    @Benchmark
+    public int decodeLazy(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        // index only; no member is materialized
+        return Decoder.decodeLazy(this.data.duplicate()).size();
+    }
+
+    @Benchmark
+    public int pullTokens(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        final JsonReader reader = new JsonReader(this.data.duplicate());
+        int tokens = 0;
+
+        while (reader.nextToken() != JsonToken.END_DOCUMENT) {
+            tokens++;
+        }
+
+        return tokens;
+    }
+}
@@ -0,0 +1,84 @@
+package demo.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EncoderBenchmark {
+    @Param({Payloads.RPC, Payloads.ARRAYS, Payloads.ESCAPES, Payloads.TELEMETRY, Payloads.SERIES, Payloads.STRINGS})
+    public String payload;
+
+    private Map<String, Object> document;
+    private final EncoderOptions plainDecimals = new EncoderOptions().plainDecimals(true);
+    private final EncoderOptions cached = new EncoderOptions().cache(new EncodeCache(64L << 20));
+    private final EncoderOptions measured = new EncoderOptions().metrics(new JsonMetricsRecorder());
+    private int utf8Length;
+    private ByteBuffer target;
+
+    @Setup
+    public void setup() throws IOException {
+        this.document = Decoder.decode(Payloads.generate(this.payload));
+        this.utf8Length = Payloads.utf8Length(Encoder.encode(this.document));
+        this.target = ByteBuffer.allocate(this.utf8Length * 2);
+    }
+
+    @Benchmark
+    public String encode(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Encoder.encode(this.document);
+    }
+
+    @Benchmark
+    public String encodePlainDecimals(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Encoder.encode(this.document, this.plainDecimals);
+    }
+
+    @Benchmark
+    public String encodeCached(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Encoder.encode(this.document, this.cached);
+    }
+
+    @Benchmark
+    public String encodeMeasured(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Encoder.encode(this.document, this.measured);
+    }
+
+    @Benchmark
+    public ByteBuffer writeUtf8(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+        this.target.clear();
+
+        final JsonWriter writer = new JsonWriter(this.target);
+
+        writer.value(this.document);
+        writer.flush();
+
+        return this.target;
+    }
+}
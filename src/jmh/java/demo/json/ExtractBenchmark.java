@@ -0,0 +1,52 @@
+package demo.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExtractBenchmark {
+    private CharBuffer data;
+    private int utf8Length;
+
+    @Setup
+    public void setup() {
+        // the wanted value follows a large unrelated subtree
+        final String telemetry = Payloads.generate(Payloads.TELEMETRY);
+        final String json = telemetry.substring(0, telemetry.length() - 1) + ",\"meta\":{\"requestId\":\"r-42\"}}";
+
+        this.data = CharBuffer.wrap(json.toCharArray());
+        this.utf8Length = Payloads.utf8Length(json);
+    }
+
+    @Benchmark
+    public Object decodeAndGet(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return ((Map<String, Object>) Decoder.decode(this.data.duplicate()).get("meta")).get("requestId");
+    }
+
+    @Benchmark
+    public Object extract(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.extract(this.data.duplicate(), "/meta/requestId");
+    }
+}
@@ -0,0 +1,88 @@
+package demo.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FixedBenchmark {
+    private static final int COUNT = 1024;
+
+    @Param({"integer", "decimal", "exponent"})
+    public String shape;
+
+    private CharBuffer[] numbers;
+    private ByteBuffer[] utf8Numbers;
+    private int utf8Length;
+
+    @Setup
+    public void setup() {
+        final Random rng = new Random(0x5EED);
+
+        this.numbers = new CharBuffer[COUNT];
+        this.utf8Numbers = new ByteBuffer[COUNT];
+        this.utf8Length = 0;
+
+        for (int i = 0; i < COUNT; i++) {
+            final String number;
+
+            switch (this.shape) {
+                case "integer":
+                    number = Long.toString(rng.nextLong() >> rng.nextInt(48));
+                    break;
+                case "decimal":
+                    number = rng.nextInt(1_000_000) + "." + rng.nextInt(1_000_000);
+                    break;
+                default:
+                    number = (rng.nextInt(9) + 1) + "." + rng.nextInt(1000) + "e-" + rng.nextInt(12);
+                    break;
+            }
+
+            // trailing delimiter, as decodeFixed sees inside a document
+            this.numbers[i] = CharBuffer.wrap((number + ",").toCharArray());
+            this.utf8Numbers[i] = ByteBuffer.wrap((number + ",").getBytes(StandardCharsets.US_ASCII));
+            this.utf8Length += number.length();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void decodeFixed(final ByteCounter counter, final Blackhole bh) {
+        counter.bytes += this.utf8Length;
+
+        for (CharBuffer number : this.numbers) {
+            bh.consume(Fixed.decodeFixed(number.duplicate()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void decodeFixedUtf8(final ByteCounter counter, final Blackhole bh) {
+        counter.bytes += this.utf8Length;
+
+        for (ByteBuffer number : this.utf8Numbers) {
+            bh.consume(Fixed.decodeFixed(number.duplicate()));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package demo.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinesBenchmark {
+    private byte[] bytes;
+    private final List<ByteBuffer> records = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        final String text = Payloads.generate(Payloads.LINES);
+
+        this.bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        for (String line : text.split("\n")) {
+            this.records.add(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Benchmark
+    public int decodeLines(final ByteCounter counter) {
+        counter.bytes += this.bytes.length;
+
+        final Iterator<Map<String, Object>> records = Decoder.decodeLines(new ByteArrayInputStream(this.bytes));
+        int count = 0;
+
+        while (records.hasNext()) {
+            count += records.next().size();
+        }
+
+        return count;
+    }
+
+    @Benchmark
+    public int decodeEach(final ByteCounter counter) throws IOException {
+        // baseline: one plain decode call per pre-split record
+        counter.bytes += this.bytes.length;
+
+        int count = 0;
+
+        for (ByteBuffer record : this.records) {
+            count += Decoder.decode(record.duplicate()).size();
+        }
+
+        return count;
+    }
+}
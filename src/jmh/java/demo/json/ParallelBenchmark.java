@@ -0,0 +1,66 @@
+package demo.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelBenchmark {
+    @Param({Payloads.RECORDS, Payloads.LINES})
+    public String payload;
+
+    @Param({"1", "4", "16"})
+    public int threads;
+
+    private ByteBuffer bytes;
+    private int utf8Length;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        this.bytes = ByteBuffer.wrap(Payloads.generate(this.payload).getBytes(StandardCharsets.UTF_8));
+        this.utf8Length = this.bytes.remaining();
+        this.pool = new ForkJoinPool(this.threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.pool.shutdown();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> decodeParallel(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decodeParallel(this.bytes.duplicate(), this.pool);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> decodeSequential(final ByteCounter counter) throws IOException {
+        counter.bytes += this.utf8Length;
+
+        return Decoder.decodeParallel(this.bytes.duplicate(), Runnable::run);
+    }
+}
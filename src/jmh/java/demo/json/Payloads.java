@@ -0,0 +1,231 @@
+package demo.json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+final class Payloads {
+    private Payloads() {}
+
+    static final String RPC = "rpc";
+    static final String ARRAYS = "arrays";
+    static final String ESCAPES = "escapes";
+    static final String TELEMETRY = "telemetry";
+    static final String SERIES = "series";
+    static final String STRINGS = "strings";
+    static final String RECORDS = "records";
+    static final String LINES = "lines";
+
+    private static final int ARRAYS_TARGET_SIZE = 10 * 1024 * 1024;
+    private static final int ESCAPES_TARGET_SIZE = 256 * 1024;
+    private static final int TELEMETRY_TARGET_SIZE = 1024 * 1024;
+    private static final int SERIES_LENGTH = 16 * 1024;
+    private static final int STRINGS_TARGET_SIZE = 1024 * 1024;
+    private static final int RECORDS_TARGET_SIZE = 64 * 1024 * 1024;
+
+    static String generate(final String name) {
+        final Random rng = new Random(0x5EED);
+
+        switch (name) {
+            case RPC:
+                return rpc(rng);
+            case ARRAYS:
+                return arrays(rng);
+            case ESCAPES:
+                return escapes(rng);
+            case TELEMETRY:
+                return telemetry(rng);
+            case SERIES:
+                return series(rng);
+            case STRINGS:
+                return strings(rng);
+            case RECORDS:
+                return records(rng, ",\n", "[", "]");
+            case LINES:
+                return records(rng, "\n", "", "\n");
+            default:
+                throw new IllegalArgumentException("Unknown payload: " + name);
+        }
+    }
+
+    static int utf8Length(final String json) {
+        return json.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static String rpc(final Random rng) {
+        final StringBuilder out = new StringBuilder(512);
+
+        out.append("{\"jsonrpc\":\"2.0\",\"id\":").append(rng.nextInt(1_000_000))
+                .append(",\"method\":\"account.transfer\",\"params\":{")
+                .append("\"from\":\"acct-").append(rng.nextInt(100_000)).append("\",")
+                .append("\"to\":\"acct-").append(rng.nextInt(100_000)).append("\",")
+                .append("\"amount\":").append(rng.nextInt(100_000)).append('.').append(rng.nextInt(90) + 10).append(',')
+                .append("\"currency\":\"EUR\",\"dryRun\":false,\"memo\":null,")
+                .append("\"tags\":[\"web\",\"priority\",\"eu-west\"]},")
+                .append("\"meta\":{\"requestId\":\"").append(Long.toHexString(rng.nextLong())).append("\",")
+                .append("\"retries\":0,\"traced\":true}}");
+
+        return out.toString();
+    }
+
+    private static String arrays(final Random rng) {
+        final StringBuilder out = new StringBuilder(ARRAYS_TARGET_SIZE + 1024);
+
+        out.append("{\"rows\":[");
+
+        boolean first = true;
+
+        while (out.length() < ARRAYS_TARGET_SIZE) {
+            if (!first) {
+                out.append(',');
+            }
+
+            first = false;
+            out.append('[');
+
+            for (int i = 0; i < 16; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+
+                out.append(rng.nextInt(1_000_000));
+            }
+
+            out.append(",[true,false,null],\"r\"]");
+        }
+
+        out.append("]}");
+
+        return out.toString();
+    }
+
+    private static final String[] ESCAPE_FRAGMENTS = {
+        "\\\"", "\\\\", "\\/", "\\b", "\\f", "\\n", "\\r", "\\t", "\\u00e9", "\\u2603", "\\ud83d\\ude00"
+    };
+
+    private static String escapes(final Random rng) {
+        final StringBuilder out = new StringBuilder(ESCAPES_TARGET_SIZE + 1024);
+
+        out.append("{\"lines\":[");
+
+        boolean first = true;
+
+        while (out.length() < ESCAPES_TARGET_SIZE) {
+            if (!first) {
+                out.append(',');
+            }
+
+            first = false;
+            out.append('\"');
+
+            for (int i = 0; i < 12; i++) {
+                out.append("level=INFO msg=");
+                out.append(ESCAPE_FRAGMENTS[rng.nextInt(ESCAPE_FRAGMENTS.length)]);
+            }
+
+            out.append('\"');
+        }
+
+        out.append("]}");
+
+        return out.toString();
+    }
+
+    private static String telemetry(final Random rng) {
+        final StringBuilder out = new StringBuilder(TELEMETRY_TARGET_SIZE + 1024);
+
+        out.append("{\"samples\":[");
+
+        boolean first = true;
+        long timestamp = 1_500_000_000_000L;
+
+        while (out.length() < TELEMETRY_TARGET_SIZE) {
+            if (!first) {
+                out.append(',');
+            }
+
+            first = false;
+            timestamp += rng.nextInt(1000);
+
+            out.append("{\"t\":").append(timestamp)
+                    .append(",\"cpu\":").append(rng.nextInt(100)).append('.').append(rng.nextInt(1000))
+                    .append(",\"mem\":").append(rng.nextInt(1 << 20))
+                    .append(",\"temp\":-").append(rng.nextInt(40)).append('.').append(rng.nextInt(10))
+                    .append(",\"rate\":").append(rng.nextInt(9) + 1).append('.').append(rng.nextInt(100)).append("e-3")
+                    .append('}');
+        }
+
+        out.append("]}");
+
+        return out.toString();
+    }
+
+    private static String series(final Random rng) {
+        final StringBuilder out = new StringBuilder(SERIES_LENGTH * 24);
+
+        out.append("{\"timestamps\":[");
+
+        long timestamp = 1_500_000_000_000L;
+
+        for (int i = 0; i < SERIES_LENGTH; i++) {
+            timestamp += rng.nextInt(1000);
+            out.append(i == 0 ? "" : ",").append(timestamp);
+        }
+
+        out.append("],\"values\":[");
+
+        for (int i = 0; i < SERIES_LENGTH; i++) {
+            out.append(i == 0 ? "" : ",").append(rng.nextInt(10_000)).append('.').append(rng.nextInt(10)).append(rng.nextInt(10));
+        }
+
+        out.append("]}");
+
+        return out.toString();
+    }
+
+    private static final String[] WORDS = {
+        "request", "served", "from", "cache", "upstream", "latency", "exceeded", "budget", "retrying", "connection",
+        "caf\u00e9", "na\u00efve", "\u00fcber", "\u65e5\u672c"
+    };
+
+    private static String strings(final Random rng) {
+        final StringBuilder out = new StringBuilder(STRINGS_TARGET_SIZE + 1024);
+
+        // pretty-printed, long unescaped values
+        out.append("{\n    \"messages\": [");
+
+        boolean first = true;
+
+        while (out.length() < STRINGS_TARGET_SIZE) {
+            out.append(first ? "\n" : ",\n").append("        {\n            \"level\": \"INFO\",\n            \"text\": \"");
+            first = false;
+
+            for (int i = 0; i < 24; i++) {
+                out.append(i == 0 ? "" : " ").append(WORDS[rng.nextInt(WORDS.length)]);
+            }
+
+            out.append("\"\n        }");
+        }
+
+        out.append("\n    ]\n}");
+
+        return out.toString();
+    }
+
+    private static String records(final Random rng, final String separator, final String prefix, final String suffix) {
+        final StringBuilder out = new StringBuilder(RECORDS_TARGET_SIZE + 1024);
+
+        out.append(prefix);
+
+        while (out.length() < RECORDS_TARGET_SIZE) {
+            if (out.length() > prefix.length()) {
+                out.append(separator);
+            }
+
+            out.append(rpc(rng));
+        }
+
+        out.append(suffix);
+
+        return out.toString();
+    }
+}
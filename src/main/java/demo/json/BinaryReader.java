@@ -0,0 +1,325 @@
+package demo.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads documents written by {@link BinaryWriter} into the same {@code Map}/{@code List}/{@link Fixed}
+ * model that {@link Decoder} produces. Every length is known up front, so containers are presized and
+ * strings are copied rather than decoded.
+ *
+ * <p>The reader is recursive, so nesting is capped at {@link #DEFAULT_MAX_DEPTH} unless the options set a
+ * depth limit of their own. The other limits of {@link DecoderOptions} apply as in the text decoders.
+ */
+final class BinaryReader {
+    static final int DEFAULT_MAX_DEPTH = 1024;
+
+    private final ByteBuffer source;
+    private final byte[] data;
+    private final int offset;
+    private final int limit;
+    private int pos;
+    private String[] keys;
+    private int keyCount;
+    private final int maxDepth;
+    private final int maxStringLength;
+    private final int maxEntries;
+    private int depth;
+
+    BinaryReader(final ByteBuffer source, final DecodeContext ctx) throws IOException {
+        if (source.remaining() > ctx.maxLength) {
+            throw new IOException("Maximum length exceeded!");
+        }
+
+        this.source = source;
+        this.maxDepth = (ctx.maxDepth == Integer.MAX_VALUE) ? DEFAULT_MAX_DEPTH : ctx.maxDepth;
+        this.maxStringLength = ctx.maxStringLength;
+        this.maxEntries = ctx.maxEntries;
+
+        if (source.hasArray()) {
+            this.data = source.array();
+            this.offset = source.arrayOffset();
+        } else {
+            this.data = new byte[source.remaining()];
+            this.offset = -source.position();
+            source.duplicate().get(this.data);
+        }
+
+        this.pos = this.offset + source.position();
+        this.limit = this.offset + source.limit();
+    }
+
+    Map<String, Object> read() throws IOException {
+        if (readByte() != BinaryWriter.MAGIC) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        if ((readByte() & BinaryWriter.FLAG_KEY_DICTIONARY) != 0) {
+            this.keys = new String[16];
+        }
+
+        if (readByte() != BinaryWriter.OBJECT) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        final Map<String, Object> out = readObject();
+
+        this.source.position(this.pos - this.offset);
+
+        return out;
+    }
+
+    private void enter() throws IOException {
+        if (++this.depth > this.maxDepth) {
+            throw new IOException("Maximum depth exceeded!");
+        }
+    }
+
+    private int readEntries() throws IOException {
+        final int count = readLength();
+
+        if (count > this.maxEntries) {
+            throw new IOException("Maximum entries exceeded!");
+        }
+
+        return count;
+    }
+
+    private byte readByte() throws IOException {
+        if (this.pos >= this.limit) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return this.data[this.pos++];
+    }
+
+    private long readVarint() throws IOException {
+        final byte[] data = this.data;
+        long out = 0L;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (this.pos >= this.limit) {
+                throw new IOException("Malformed JSON!");
+            }
+
+            final byte lookup = data[this.pos++];
+
+            out |= (long) (lookup & 0x7F) << shift;
+
+            if (lookup >= 0) {
+                return out;
+            }
+        }
+
+        throw new IOException("Malformed JSON!");
+    }
+
+    private long readSigned() throws IOException {
+        final long raw = readVarint();
+
+        return (raw >>> 1) ^ -(raw & 1L);
+    }
+
+    /*
+     * Reads a length or count; every element takes at least one byte, so anything larger than the rest
+     * of the input is malformed and is rejected before it is allocated.
+     */
+    private int readLength() throws IOException {
+        final long out = readVarint();
+
+        if (out < 0L || out > this.limit - this.pos) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return (int) out;
+    }
+
+    private long readBits(final int count) throws IOException {
+        if (this.limit - this.pos < count) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        long out = 0L;
+
+        for (int i = 0; i < count; i++) {
+            out = (out << 8) | (this.data[this.pos++] & 0xFF);
+        }
+
+        return out;
+    }
+
+    private String readChars(final long length, final boolean isLatin1) throws IOException {
+        final int remaining = this.limit - this.pos;
+
+        if (length < 0L || length > remaining || (!isLatin1 && length * 2 > remaining)) {
+            throw new IOException("Malformed JSON!");
+        } else if (length > this.maxStringLength) {
+            throw new IOException("Maximum string length exceeded!");
+        }
+
+        final int start = this.pos;
+
+        this.pos += isLatin1 ? (int) length : (int) length * 2;
+
+        if (isLatin1) {
+            return new String(this.data, start, (int) length, StandardCharsets.ISO_8859_1);
+        }
+
+        final byte[] data = this.data;
+        final char[] chars = new char[(int) length];
+
+        for (int i = 0, at = start; i < chars.length; i++, at += 2) {
+            chars[i] = (char) ((data[at] << 8) | (data[at + 1] & 0xFF));
+        }
+
+        return new String(chars);
+    }
+
+    private String readKey() throws IOException {
+        final long marker = readVarint();
+
+        if ((marker & 1L) == 0L) {
+            final String key = readChars(marker >>> 2, (marker & 2L) == 0L);
+
+            if (this.keys != null) {
+                if (this.keyCount == this.keys.length) {
+                    this.keys = Arrays.copyOf(this.keys, this.keyCount * 2);
+                }
+
+                this.keys[this.keyCount++] = key;
+            }
+
+            return key;
+        }
+
+        final long index = marker >>> 1;
+
+        if (this.keys == null || index >= this.keyCount) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return this.keys[(int) index];
+    }
+
+    private String readString() throws IOException {
+        switch (readByte()) {
+            case BinaryWriter.STRING:
+                return readChars(readVarint(), true);
+            case BinaryWriter.UTF16_STRING:
+                return readChars(readVarint(), false);
+            default:
+                throw new IOException("Malformed JSON!");
+        }
+    }
+
+    private Map<String, Object> readObject() throws IOException {
+        enter();
+
+        final int count = readEntries();
+        final Map<String, Object> out = new HashMap<>((int) (count / 0.75F) + 1);
+
+        for (int i = 0; i < count; i++) {
+            final String key = readKey();
+
+            out.put(key, readAny());
+        }
+
+        this.depth--;
+
+        return out;
+    }
+
+    private Object readAny() throws IOException {
+        switch (readByte()) {
+            case BinaryWriter.NULL:
+                return null;
+            case BinaryWriter.FALSE:
+                return false;
+            case BinaryWriter.TRUE:
+                return true;
+            case BinaryWriter.LONG:
+                return readSigned();
+            case BinaryWriter.FIXED: {
+                final long value = readSigned();
+
+                return new Fixed(value, readVarint());
+            }
+            case BinaryWriter.DOUBLE:
+                return Double.longBitsToDouble(readBits(8));
+            case BinaryWriter.FLOAT:
+                return Float.intBitsToFloat((int) readBits(4));
+            case BinaryWriter.STRING:
+                return readChars(readVarint(), true);
+            case BinaryWriter.UTF16_STRING:
+                return readChars(readVarint(), false);
+            case BinaryWriter.ARRAY: {
+                enter();
+
+                final int count = readEntries();
+                final List<Object> out = new ArrayList<>(count);
+
+                for (int i = 0; i < count; i++) {
+                    out.add(readAny());
+                }
+
+                this.depth--;
+
+                return out;
+            }
+            case BinaryWriter.OBJECT:
+                return readObject();
+            case BinaryWriter.LONG_ARRAY: {
+                enter();
+
+                final int count = readEntries();
+                final long[] values = new long[count];
+
+                for (int i = 0; i < count; i++) {
+                    values[i] = readSigned();
+                }
+
+                this.depth--;
+
+                return new LongList(values);
+            }
+            case BinaryWriter.FIXED_ARRAY: {
+                enter();
+
+                final int count = readEntries();
+                final long[] values = new long[count];
+                final long[] scales = new long[count];
+
+                for (int i = 0; i < count; i++) {
+                    values[i] = readSigned();
+                    scales[i] = readVarint();
+                }
+
+                this.depth--;
+
+                return new FixedList(values, scales);
+            }
+            case BinaryWriter.BIG_INTEGER:
+                try {
+                    return new BigInteger(readString());
+                } catch (NumberFormatException ex) {
+                    throw new IOException("Malformed JSON!", ex);
+                }
+            case BinaryWriter.BIG_DECIMAL:
+                try {
+                    return new BigDecimal(readString());
+                } catch (NumberFormatException ex) {
+                    throw new IOException("Malformed JSON!", ex);
+                }
+            default:
+                throw new IOException("Malformed JSON!");
+        }
+    }
+}
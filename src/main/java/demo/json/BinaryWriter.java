@@ -0,0 +1,259 @@
+package demo.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the binary form of the decoded document model. A document is a magic byte, a flags byte and one
+ * tagged object. Each value starts with a one byte tag; integers are zigzag varints, {@link Fixed} values
+ * are a value varint and a scale varint, strings are a char count and then Latin-1 or UTF-16 chars, and
+ * containers carry their element count up front. With the key dictionary enabled, each distinct key is
+ * written once and later occurrences refer to it by index.
+ */
+final class BinaryWriter {
+    static final byte MAGIC = (byte) 0xB7;
+    static final int FLAG_KEY_DICTIONARY = 1;
+
+    static final byte NULL = 0;
+    static final byte FALSE = 1;
+    static final byte TRUE = 2;
+    static final byte LONG = 3;
+    static final byte FIXED = 4;
+    static final byte DOUBLE = 5;
+    static final byte FLOAT = 6;
+    static final byte STRING = 7;
+    static final byte ARRAY = 8;
+    static final byte OBJECT = 9;
+    static final byte LONG_ARRAY = 10;
+    static final byte FIXED_ARRAY = 11;
+    static final byte BIG_INTEGER = 12;
+    static final byte BIG_DECIMAL = 13;
+    static final byte UTF16_STRING = 14;
+
+    private final Map<String, Integer> keys;
+    private byte[] buffer = new byte[256];
+    private int length;
+
+    private BinaryWriter(final boolean keyDictionary) {
+        this.keys = keyDictionary ? new HashMap<>() : null;
+    }
+
+    static byte[] write(final Map<String, Object> data, final boolean keyDictionary) throws IOException {
+        final BinaryWriter writer = new BinaryWriter(keyDictionary);
+
+        writer.require(2);
+        writer.buffer[writer.length++] = MAGIC;
+        writer.buffer[writer.length++] = (byte) (keyDictionary ? FLAG_KEY_DICTIONARY : 0);
+        writer.writeObject(data);
+
+        return Arrays.copyOf(writer.buffer, writer.length);
+    }
+
+    private void require(final int count) {
+        if (this.buffer.length - this.length < count) {
+            final int required = this.length + count;
+
+            if (required < 0) {
+                throw new OutOfMemoryError("Binary JSON output exceeds maximum array size");
+            }
+
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length << 1, required));
+        }
+    }
+
+    private void writeTag(final byte tag) {
+        require(1);
+        this.buffer[this.length++] = tag;
+    }
+
+    private void writeVarint(long value) {
+        require(10);
+
+        final byte[] buffer = this.buffer;
+        int at = this.length;
+
+        while ((value & ~0x7FL) != 0L) {
+            buffer[at++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        buffer[at++] = (byte) value;
+        this.length = at;
+    }
+
+    private void writeSigned(final long value) {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    private void writeBits(final long bits, final int count) {
+        require(count);
+
+        for (int shift = (count - 1) * 8; shift >= 0; shift -= 8) {
+            this.buffer[this.length++] = (byte) (bits >>> shift);
+        }
+    }
+
+    private static boolean isLatin1(final String str) {
+        final int chars = str.length();
+        int bits = 0;
+
+        for (int i = 0; i < chars; i++) {
+            bits |= str.charAt(i);
+        }
+
+        return bits < 0x100;
+    }
+
+    /*
+     * Writes the chars of str: one byte each when every char fits in Latin-1, otherwise two. These are the
+     * two layouts a String keeps internally, so reading back is a copy rather than a UTF-8 decode.
+     */
+    private void writeChars(final String str, final boolean isLatin1) {
+        final int chars = str.length();
+
+        require(isLatin1 ? chars : chars * 2);
+
+        final byte[] buffer = this.buffer;
+        int at = this.length;
+
+        if (isLatin1) {
+            for (int i = 0; i < chars; i++) {
+                buffer[at++] = (byte) str.charAt(i);
+            }
+        } else {
+            for (int i = 0; i < chars; i++) {
+                final char c = str.charAt(i);
+
+                buffer[at++] = (byte) (c >> 8);
+                buffer[at++] = (byte) c;
+            }
+        }
+
+        this.length = at;
+    }
+
+    private void writeString(final String str) {
+        final boolean isLatin1 = isLatin1(str);
+
+        writeTag(isLatin1 ? STRING : UTF16_STRING);
+        writeVarint(str.length());
+        writeChars(str, isLatin1);
+    }
+
+    private void writeKey(final String key) {
+        final Integer index = (this.keys == null) ? null : this.keys.get(key);
+
+        if (index != null) {
+            writeVarint(((long) index << 1) | 1L);
+            return;
+        }
+
+        // a literal key: its length and layout, then its chars; in a dictionary it takes the next index
+        final boolean isLatin1 = isLatin1(key);
+
+        if (this.keys != null) {
+            this.keys.put(key, this.keys.size());
+        }
+
+        writeVarint(((long) key.length() << 2) | (isLatin1 ? 0L : 2L));
+        writeChars(key, isLatin1);
+    }
+
+    private void writeObject(final Map<String, Object> obj) throws IOException {
+        writeTag(OBJECT);
+        writeVarint(obj.size());
+
+        for (Map.Entry<String, Object> pair : obj.entrySet()) {
+            writeKey(pair.getKey());
+            writeAny(pair.getValue());
+        }
+    }
+
+    private void writeArray(final List<?> arr) throws IOException {
+        if (arr instanceof LongList) {
+            final LongList list = (LongList) arr;
+
+            writeTag(LONG_ARRAY);
+            writeVarint(list.size());
+
+            for (int i = 0; i < list.size(); i++) {
+                writeSigned(list.getLong(i));
+            }
+        } else if (arr instanceof FixedList) {
+            final FixedList list = (FixedList) arr;
+
+            writeTag(FIXED_ARRAY);
+            writeVarint(list.size());
+
+            for (int i = 0; i < list.size(); i++) {
+                writeSigned(list.getValue(i));
+                writeVarint(list.getScale(i));
+            }
+        } else {
+            writeTag(ARRAY);
+            writeVarint(arr.size());
+
+            for (Object element : arr) {
+                writeAny(element);
+            }
+        }
+    }
+
+    private void writeAny(final Object obj) throws IOException {
+        if (obj == null) {
+            writeTag(NULL);
+        } else if (obj instanceof Map) {
+            writeObject(Decoder.cast(obj));
+        } else if (obj instanceof List) {
+            writeArray((List<?>) obj);
+        } else if (obj instanceof String) {
+            writeString((String) obj);
+        } else if (obj instanceof Fixed) {
+            final Fixed value = (Fixed) obj;
+
+            writeTag(FIXED);
+            writeSigned(value.value);
+            writeVarint(value.scale);
+        } else if (obj instanceof Double) {
+            final double value = (double) obj;
+
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new IOException("Unsupported number: " + value);
+            }
+
+            writeTag(DOUBLE);
+            writeBits(Double.doubleToRawLongBits(value), 8);
+        } else if (obj instanceof Float) {
+            final float value = (float) obj;
+
+            if (Float.isNaN(value) || Float.isInfinite(value)) {
+                throw new IOException("Unsupported number: " + value);
+            }
+
+            writeTag(FLOAT);
+            writeBits(Float.floatToRawIntBits(value), 4);
+        } else if (obj instanceof Long || obj instanceof Integer || obj instanceof Short || obj instanceof Byte) {
+            writeTag(LONG);
+            writeSigned(((Number) obj).longValue());
+        } else if (obj instanceof Boolean) {
+            writeTag(((boolean) obj) ? TRUE : FALSE);
+        } else if (obj instanceof BigInteger) {
+            writeTag(BIG_INTEGER);
+            writeString(obj.toString());
+        } else if (obj instanceof BigDecimal) {
+            writeTag(BIG_DECIMAL);
+            writeString(obj.toString());
+        } else if (obj instanceof RawJson) {
+            // fragments are stored as the values they represent
+            writeAny(new CharArrayDecoder(CharBuffer.wrap(((RawJson) obj).json.toCharArray()), new DecodeContext()).decode());
+        } else {
+            throw new IOException("Unsupported Object type: " + obj.getClass().getSimpleName());
+        }
+    }
+}
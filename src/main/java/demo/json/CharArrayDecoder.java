@@ -0,0 +1,788 @@
+package demo.json;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decoder core for heap {@link CharBuffer}s. It works on the backing {@code char[]} with a local cursor,
+ * dispatches on a char-class table, and writes the buffer position back once when done.
+ */
+final class CharArrayDecoder {
+    private static final byte OTHER = 0;
+    private static final byte WHITESPACE = 1;
+    private static final byte STRING = 2;
+    private static final byte NUMBER = 3;
+    private static final byte ARRAY = 4;
+    private static final byte OBJECT = 5;
+    private static final byte TRUE = 6;
+    private static final byte FALSE = 7;
+    private static final byte NULL = 8;
+
+    private static final byte[] CLASSES = new byte[128];
+
+    static {
+        CLASSES[' '] = WHITESPACE;
+        CLASSES['\t'] = WHITESPACE;
+        CLASSES['\r'] = WHITESPACE;
+        CLASSES['\n'] = WHITESPACE;
+        CLASSES['\"'] = STRING;
+        CLASSES['-'] = NUMBER;
+
+        for (char c = '0'; c <= '9'; c++) {
+            CLASSES[c] = NUMBER;
+        }
+
+        CLASSES['['] = ARRAY;
+        CLASSES['{'] = OBJECT;
+        CLASSES['t'] = TRUE;
+        CLASSES['T'] = TRUE;
+        CLASSES['f'] = FALSE;
+        CLASSES['F'] = FALSE;
+        CLASSES['n'] = NULL;
+        CLASSES['N'] = NULL;
+    }
+
+    private static int classOf(final char lookup) {
+        return (lookup < 128) ? CLASSES[lookup] : OTHER;
+    }
+
+    private final CharBuffer source;
+    private final char[] data;
+    private final int offset;
+    private final int limit;
+    private final DecodeContext ctx;
+    private final int maxDepth;
+    private final int maxStringLength;
+    private final int maxEntries;
+    private int pos;
+    private int depth;
+
+    // reported to ctx.metrics; plain increments, so they cost next to nothing when no one reads them
+    private int deepest;
+    private int strings;
+    private int numbers;
+    private int escapes;
+    private int escapedStrings;
+    private int numberFallbacks;
+
+    CharArrayDecoder(final CharBuffer source, final DecodeContext ctx) {
+        this.source = source;
+        this.data = source.array();
+        this.offset = source.arrayOffset();
+        this.limit = this.offset + source.limit();
+        this.ctx = ctx;
+        this.maxDepth = ctx.maxDepth;
+        this.maxStringLength = ctx.maxStringLength;
+        this.maxEntries = ctx.maxEntries;
+        this.pos = this.offset + source.position();
+    }
+
+    /**
+     * Decodes one value and moves the source buffer past it.
+     */
+    Object decode() throws IOException {
+        if (this.limit - this.pos > this.ctx.maxLength) {
+            throw new IOException("Maximum length exceeded!");
+        }
+
+        final JsonMetrics metrics = this.ctx.metrics;
+        final long started = (metrics == null) ? 0L : System.nanoTime();
+        final int start = this.pos;
+        final Object out = (this.ctx.iterative) ? this.decodeIterative() : this.decodeAny();
+
+        this.source.position(this.pos - this.offset);
+
+        if (metrics != null) {
+            final JsonStats stats = new JsonStats();
+
+            stats.nanos = System.nanoTime() - started;
+            stats.length = this.pos - start;
+            stats.maxDepth = this.deepest;
+            stats.strings = this.strings;
+            stats.numbers = this.numbers;
+            stats.escapes = this.escapes;
+            stats.escapedStrings = this.escapedStrings;
+            stats.numberFallbacks = this.numberFallbacks;
+            metrics.decoded(stats);
+        }
+
+        return out;
+    }
+
+    private void skipWhitespace() {
+        while (this.pos < this.limit && classOf(this.data[this.pos]) == WHITESPACE) {
+            this.pos++;
+        }
+    }
+
+    /*
+     * Skips whitespace and commas before an array element. Like the buffer decoders, separators in arrays
+     * are optional and may repeat; a strict context skips whitespace only.
+     */
+    private void skipSeparators() {
+        if (this.ctx.strict) {
+            this.skipWhitespace();
+            return;
+        }
+
+        while (this.pos < this.limit) {
+            final char lookup = this.data[this.pos];
+
+            if (lookup != ',' && classOf(lookup) != WHITESPACE) {
+                return;
+            }
+
+            this.pos++;
+        }
+    }
+
+    /*
+     * Consumes the separators after an array element, and the closing bracket if it follows. Returns true
+     * if the array is closed.
+     */
+    private boolean endElement() throws IOException {
+        if (this.ctx.strict) {
+            this.skipWhitespace();
+
+            switch (this.next()) {
+                case ']':
+                    return true;
+                case ',':
+                    return false;
+                default:
+                    throw new IOException("Malformed Array!");
+            }
+        }
+
+        this.skipSeparators();
+
+        if (this.peek() == ']') {
+            this.pos++;
+            return true;
+        }
+
+        return false;
+    }
+
+    /*
+     * Consumes the comma after an object member, and the closing brace too if the comma was trailing.
+     * Returns true if the object is closed.
+     */
+    private boolean endMember() throws IOException {
+        this.skipWhitespace();
+
+        switch (this.next()) {
+            case '}':
+                return true;
+            case ',':
+                this.skipWhitespace();
+
+                if (this.peek() == '}' && !this.ctx.strict) {
+                    this.pos++;
+                    return true;
+                }
+
+                return false;
+            default:
+                throw new IOException("Malformed Object!");
+        }
+    }
+
+    private char next() throws IOException {
+        if (this.pos >= this.limit) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return this.data[this.pos++];
+    }
+
+    private char peek() throws IOException {
+        if (this.pos >= this.limit) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return this.data[this.pos];
+    }
+
+    private Object decodeAny() throws IOException {
+        this.skipWhitespace();
+
+        switch (classOf(this.peek())) {
+            case STRING:
+                return this.decodeString();
+            case NUMBER:
+                return this.decodeNumber();
+            case ARRAY: {
+                this.enter();
+
+                final List<?> out = this.decodeArray();
+
+                this.ctx.arrayDone(this.depth--, out.size());
+
+                return out;
+            }
+            case OBJECT: {
+                this.enter();
+
+                final Map<String, Object> out = this.decodeObject();
+
+                this.ctx.objectDone(this.depth--, out);
+
+                return out;
+            }
+            case TRUE:
+                this.literal("true");
+                return true;
+            case FALSE:
+                this.literal("false");
+                return false;
+            case NULL:
+                this.literal("null");
+                return null;
+            default:
+                throw new IOException("Malformed JSON!");
+        }
+    }
+
+    private void enter() throws IOException {
+        if (++this.depth > this.maxDepth) {
+            throw new IOException("Maximum depth exceeded!");
+        } else if (this.depth > this.deepest) {
+            this.deepest = this.depth;
+        }
+    }
+
+    private void checkStringLength(final int length) throws IOException {
+        if (length > this.maxStringLength) {
+            throw new IOException("Maximum string length exceeded!");
+        }
+    }
+
+    private void checkEntries(final int count) throws IOException {
+        if (count > this.maxEntries) {
+            throw new IOException("Maximum entries exceeded!");
+        }
+    }
+
+    private void literal(final String word) throws IOException {
+        final int length = word.length();
+
+        if (this.pos + length > this.limit) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        // literals are matched case-insensitively, like the buffer decoder
+        for (int i = 1; i < length; i++) {
+            if ((this.data[this.pos + i] | 0x20) != word.charAt(i)) {
+                throw new IOException("Malformed JSON!");
+            }
+        }
+
+        this.pos += length;
+    }
+
+    private int indexOfQuoteOrBackslash(int i) {
+        for (; i < this.limit; i++) {
+            final char lookup = this.data[i];
+
+            if (lookup == '\"' || lookup == '\\') {
+                return i;
+            }
+        }
+
+        return this.limit;
+    }
+
+    private String decodeString() throws IOException {
+        this.strings++;
+
+        final int start = ++this.pos;
+        final int end = this.indexOfQuoteOrBackslash(start);
+
+        if (end == this.limit) {
+            throw new IOException("Unclosed String!");
+        } else if (this.data[end] == '\\') {
+            return this.decodeEscapeString(start, end);
+        }
+
+        this.checkStringLength(end - start);
+        this.pos = end + 1;
+
+        return new String(this.data, start, end - start);
+    }
+
+    private String decodeEscapeString(final int start, int end) throws IOException {
+        final StringBuilder out = Decoder.scratch();
+        int runStart = start;
+
+        this.escapedStrings++;
+
+        while (true) {
+            out.append(this.data, runStart, end - runStart);
+            this.checkStringLength(out.length());
+            this.pos = end + 1;
+
+            if (this.data[end] == '\"') {
+                return out.toString();
+            }
+
+            this.decodeEscape(out);
+            runStart = this.pos;
+            end = this.indexOfQuoteOrBackslash(runStart);
+
+            if (end == this.limit) {
+                throw new IOException("Unclosed String!");
+            }
+        }
+    }
+
+    private void decodeEscape(final StringBuilder out) throws IOException {
+        final char lookup = this.next();
+
+        this.escapes++;
+
+        switch (lookup) {
+            case '\"':
+                out.append('\"');
+                break;
+            case '\\':
+                out.append('\\');
+                break;
+            case '/':
+                out.append('/');
+                break;
+            case 'b':
+                out.append('\b');
+                break;
+            case 'f':
+                out.append('\f');
+                break;
+            case 'n':
+                out.append('\n');
+                break;
+            case 'r':
+                out.append('\r');
+                break;
+            case 't':
+                out.append('\t');
+                break;
+            case 'u':
+                // surrogate pairs arrive as two consecutive escapes and are appended unit by unit
+                out.append((char) ((Decoder.decodeHex(this.next()) << 12)
+                        | (Decoder.decodeHex(this.next()) << 8)
+                        | (Decoder.decodeHex(this.next()) << 4)
+                        | Decoder.decodeHex(this.next())));
+                break;
+            default:
+                throw new IOException("Unexpected escaped character: " + lookup);
+        }
+    }
+
+    private String decodeKey() throws IOException {
+        if (this.peek() != '\"') {
+            throw new IOException("Malformed Object!");
+        } else if (this.ctx.keys == null) {
+            return this.decodeString();
+        }
+
+        final int start = this.pos + 1;
+        int hash = 0;
+
+        this.strings++;
+
+        for (int i = start; i < this.limit; i++) {
+            final char lookup = this.data[i];
+
+            if (lookup == '\"') {
+                this.checkStringLength(i - start);
+                this.pos = i + 1;
+                return this.ctx.keys.intern(this.source, start - this.offset, i - this.offset, hash);
+            } else if (lookup == '\\') {
+                this.pos = start;
+                return this.ctx.keys.intern(this.decodeEscapeString(start, i));
+            }
+
+            hash = 31 * hash + lookup;
+        }
+
+        throw new IOException("Unclosed String!");
+    }
+
+    /*
+     * Decodes a member name and the colon after it.
+     */
+    private String decodeMember() throws IOException {
+        final String key = this.decodeKey();
+
+        this.skipWhitespace();
+
+        if (this.next() != ':') {
+            throw new IOException("Malformed Object!");
+        }
+
+        return key;
+    }
+
+    /*
+     * Array twin of Fixed.decodeFixed(CharBuffer, long[], int): returns the value, stores its scale at
+     * scales[index] and advances the cursor, or stores 0 and leaves the cursor at the start when the number
+     * does not fit or has a zero scale.
+     */
+    private long decodeFixed(final long[] scales, final int index) {
+        final char[] data = this.data;
+        final int limit = this.limit;
+        int pos = this.pos;
+        boolean isNegative = false;
+        long negated = 0L;
+        int dot = -1;
+
+        if (pos < limit && data[pos] == '-') {
+            isNegative = true;
+            pos++;
+        }
+
+        final int lastDigit = (isNegative) ? 8 : 7;
+
+        while (pos < limit) {
+            final char lookup = data[pos];
+
+            if (lookup >= '0' && lookup <= '9') {
+                final int digit = lookup - '0';
+
+                if (negated <= -Fixed.OVERFLOW_GUARD && (negated < -Fixed.OVERFLOW_GUARD || digit > lastDigit)) {
+                    scales[index] = 0L;
+                    return 0L;
+                }
+
+                negated = negated * 10L - digit;
+                pos++;
+            } else if (lookup == '.' && dot < 0) {
+                dot = pos++;
+            } else {
+                break;
+            }
+        }
+
+        int k = (dot < 0) ? 0 : pos - dot - 1;
+
+        if (pos < limit) {
+            switch (data[pos]) {
+                case '/': {
+                    if (dot >= 0) {
+                        break;
+                    }
+
+                    long scale = 0L;
+
+                    while (++pos < limit) {
+                        final int digit = data[pos] - '0';
+
+                        if (digit < 0 || digit > 9) {
+                            break;
+                        } else if (scale >= Fixed.OVERFLOW_GUARD) {
+                            scales[index] = 0L;
+                            return 0L;
+                        }
+
+                        scale = scale * 10L + digit;
+                    }
+
+                    if (scale == 0L) {
+                        scales[index] = 0L;
+                        return 0L;
+                    }
+
+                    this.pos = pos;
+                    scales[index] = scale;
+                    return (isNegative) ? negated : -negated;
+                }
+                case 'e':
+                case 'E': {
+                    boolean isNegativeExponent = false;
+                    int exponent = 0;
+
+                    if (++pos < limit) {
+                        final char sign = data[pos];
+
+                        if (sign == '-' || sign == '+') {
+                            isNegativeExponent = (sign == '-');
+                            pos++;
+                        }
+                    }
+
+                    while (pos < limit) {
+                        final int digit = data[pos] - '0';
+
+                        if (digit < 0 || digit > 9) {
+                            break;
+                        } else if (exponent > Fixed.MAX_EXPONENT) {
+                            scales[index] = 0L;
+                            return 0L;
+                        }
+
+                        exponent = exponent * 10 + digit;
+                        pos++;
+                    }
+
+                    k += (isNegativeExponent) ? exponent : -exponent;
+                    break;
+                }
+                default:
+                    break;
+            }
+        }
+
+        final long result = Fixed.scale(negated, isNegative, k, scales, index);
+
+        if (scales[index] != 0L) {
+            this.pos = pos;
+        }
+
+        return result;
+    }
+
+    private Number decodeNumber() throws IOException {
+        final long[] scratch = this.ctx.number;
+        final long value = this.decodeFixed(scratch, 0);
+
+        this.numbers++;
+
+        if (scratch[0] != 0L) {
+            return new Fixed(value, scratch[0]);
+        }
+
+        // out of long range; take the buffer path once
+        this.numberFallbacks++;
+        this.source.position(this.pos - this.offset);
+
+        final Number out = Fixed.decodeNumber(this.source, scratch);
+
+        this.pos = this.offset + this.source.position();
+
+        return out;
+    }
+
+    private List<?> decodeArray() throws IOException {
+        this.pos++;
+        this.skipSeparators();
+
+        if (this.peek() == ']') {
+            this.pos++;
+            return this.ctx.emptyArray();
+        } else if (this.ctx.primitiveArrays && classOf(this.data[this.pos]) == NUMBER) {
+            final List<?> numbers = this.decodeNumberArray(this.depth);
+
+            return (numbers instanceof LongList || numbers instanceof FixedList) ? numbers : this.decodeElements(Decoder.cast(numbers));
+        }
+
+        return this.decodeElements(this.ctx.newArray(this.depth, 0));
+    }
+
+    /*
+     * Decodes the remaining elements; the cursor is at the start of an element.
+     */
+    private List<Object> decodeElements(final List<Object> out) throws IOException {
+        while (true) {
+            out.add(this.decodeAny());
+            this.checkEntries(out.size());
+
+            if (this.endElement()) {
+                return out;
+            }
+        }
+    }
+
+    /*
+     * Returns a LongList or FixedList for a homogeneous array. Otherwise the numbers read so far are boxed
+     * into a new list and the cursor is left at the first element that is not one; the caller decodes the
+     * rest.
+     */
+    private List<?> decodeNumberArray(final int depth) throws IOException {
+        final DecodeContext ctx = this.ctx;
+        int count = 0;
+        boolean isInteger = true;
+
+        while (true) {
+            this.skipWhitespace();
+
+            ctx.ensureNumbers(count + 1);
+
+            if (classOf(this.peek()) == NUMBER) {
+                ctx.values[count] = this.decodeFixed(ctx.scales, count);
+            } else {
+                ctx.scales[count] = 0L;
+            }
+
+            if (ctx.scales[count] == 0L) {
+                // not homogeneous (or out of long range) after all; box what we have
+                final List<Object> out = ctx.newArray(depth, count + 8);
+
+                for (int i = 0; i < count; i++) {
+                    out.add(new Fixed(ctx.values[i], ctx.scales[i]));
+                }
+
+                return out;
+            }
+
+            isInteger &= (ctx.scales[count] == 1L);
+            this.numbers++;
+            this.checkEntries(++count);
+
+            if (this.endElement()) {
+                if (isInteger) {
+                    return new LongList(Arrays.copyOf(ctx.values, count), count);
+                } else {
+                    return new FixedList(Arrays.copyOf(ctx.values, count), Arrays.copyOf(ctx.scales, count), count);
+                }
+            }
+        }
+    }
+
+    private Map<String, Object> decodeObject() throws IOException {
+        this.pos++;
+        this.skipWhitespace();
+
+        if (this.peek() == '}') {
+            this.pos++;
+            return this.ctx.emptyObject();
+        }
+
+        final Map<String, Object> out = this.ctx.newObject(this.depth);
+
+        while (true) {
+            this.skipWhitespace();
+
+            final String key = this.decodeMember();
+
+            out.put(key, this.decodeAny());
+            this.checkEntries(out.size());
+
+            if (this.endMember()) {
+                return out;
+            }
+        }
+    }
+
+    /*
+     * Explicit-stack twin of decodeAny. Open containers and their pending member names are kept in heap
+     * arrays, so nesting depth is bounded by maxDepth and memory rather than by the thread stack.
+     */
+    private Object decodeIterative() throws IOException {
+        Object[] containers = new Object[16];
+        String[] keys = new String[16];
+        int depth = 0;
+
+        while (true) {
+            this.skipWhitespace();
+
+            Object value;
+
+            switch (classOf(this.peek())) {
+                case ARRAY: {
+                    if (depth >= this.maxDepth) {
+                        throw new IOException("Maximum depth exceeded!");
+                    }
+
+                    this.deepest = Math.max(this.deepest, depth + 1);
+
+                    this.pos++;
+                    this.skipSeparators();
+
+                    final List<?> list;
+
+                    if (this.peek() == ']') {
+                        this.pos++;
+                        value = this.ctx.emptyArray();
+                        break;
+                    } else if (this.ctx.primitiveArrays && classOf(this.data[this.pos]) == NUMBER) {
+                        list = this.decodeNumberArray(depth + 1);
+
+                        if (list instanceof LongList || list instanceof FixedList) {
+                            value = list;
+                            break;
+                        }
+                    } else {
+                        list = this.ctx.newArray(depth + 1, 0);
+                    }
+
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                        keys = Arrays.copyOf(keys, depth * 2);
+                    }
+
+                    containers[depth++] = list;
+                    continue;
+                }
+                case OBJECT: {
+                    if (depth >= this.maxDepth) {
+                        throw new IOException("Maximum depth exceeded!");
+                    }
+
+                    this.deepest = Math.max(this.deepest, depth + 1);
+
+                    this.pos++;
+                    this.skipWhitespace();
+
+                    if (this.peek() == '}') {
+                        this.pos++;
+                        value = this.ctx.emptyObject();
+                        break;
+                    }
+
+                    if (depth == containers.length) {
+                        containers = Arrays.copyOf(containers, depth * 2);
+                        keys = Arrays.copyOf(keys, depth * 2);
+                    }
+
+                    keys[depth] = this.decodeMember();
+                    containers[depth] = this.ctx.newObject(depth + 1);
+                    depth++;
+                    continue;
+                }
+                default:
+                    value = this.decodeAny();
+                    break;
+            }
+
+            // attach the finished value, closing every container that it completes
+            while (depth > 0) {
+                final Object parent = containers[depth - 1];
+
+                if (parent instanceof Map) {
+                    final Map<String, Object> map = Decoder.cast(parent);
+
+                    map.put(keys[depth - 1], value);
+                    this.checkEntries(map.size());
+
+                    if (!this.endMember()) {
+                        keys[depth - 1] = this.decodeMember();
+                        break;
+                    }
+
+                    this.ctx.objectDone(depth, map);
+                } else {
+                    final List<Object> list = Decoder.cast(parent);
+
+                    list.add(value);
+                    this.checkEntries(list.size());
+
+                    if (!this.endElement()) {
+                        break;
+                    }
+
+                    this.ctx.arrayDone(depth, list.size());
+                }
+
+                value = parent;
+                containers[--depth] = null;
+            }
+
+            if (depth == 0) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package demo.json;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-only object produced by {@link Decoder} when {@link DecoderOptions#compactObjects(boolean)} is
+ * enabled. Keys and values alternate in one flat {@code Object[]} in document order; objects with more
+ * than {@value #SCAN_LIMIT} members add an open-addressed {@code int[]} index, smaller ones are scanned.
+ * Like {@code HashMap}, a duplicated key keeps its first position and its last value.
+ */
+final class CompactObject extends AbstractMap<String, Object> {
+    static final CompactObject EMPTY = new CompactObject(0).freeze();
+
+    private static final int SCAN_LIMIT = 8;
+
+    private Object[] table;
+    private int[] index;
+    private int size;
+    private boolean frozen;
+    private Set<Map.Entry<String, Object>> entries;
+
+    CompactObject(final int expectedSize) {
+        this.table = new Object[Math.max(expectedSize, 0) * 2];
+    }
+
+    /*
+     * Trims the table to the members decoded and makes the object read-only.
+     */
+    CompactObject freeze() {
+        if (!this.frozen) {
+            if (this.table.length != this.size * 2) {
+                this.table = Arrays.copyOf(this.table, this.size * 2);
+            }
+
+            this.frozen = true;
+        }
+
+        return this;
+    }
+
+    private static int slot(final Object key, final int mask) {
+        final int hash = key.hashCode();
+
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private int indexOf(final Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+
+        final Object[] table = this.table;
+
+        if (this.index == null) {
+            for (int i = 0; i < this.size; i++) {
+                final Object k = table[i << 1];
+
+                if (k == key || k.equals(key)) {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+        final int[] index = this.index;
+        final int mask = index.length - 1;
+
+        for (int slot = slot(key, mask); index[slot] != 0; slot = (slot + 1) & mask) {
+            final Object k = table[(index[slot] - 1) << 1];
+
+            if (k == key || k.equals(key)) {
+                return index[slot] - 1;
+            }
+        }
+
+        return -1;
+    }
+
+    private void reindex(final int capacity) {
+        final int[] index = new int[capacity];
+        final int mask = capacity - 1;
+
+        for (int i = 0; i < this.size; i++) {
+            int slot = slot(this.table[i << 1], mask);
+
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            index[slot] = i + 1;
+        }
+
+        this.index = index;
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        if (this.frozen) {
+            throw new UnsupportedOperationException();
+        }
+
+        final int found = indexOf(key);
+
+        if (found >= 0) {
+            final Object old = this.table[(found << 1) + 1];
+
+            this.table[(found << 1) + 1] = value;
+
+            return old;
+        }
+
+        final int at = this.size << 1;
+
+        if (at == this.table.length) {
+            this.table = Arrays.copyOf(this.table, Math.max(at * 2, 8));
+        }
+
+        this.table[at] = key;
+        this.table[at + 1] = value;
+        this.size++;
+
+        if (this.index != null ? this.size * 2 > this.index.length : this.size > SCAN_LIMIT) {
+            reindex(Integer.highestOneBit(this.size) << 2);
+        } else if (this.index != null) {
+            final int mask = this.index.length - 1;
+            int slot = slot(key, mask);
+
+            while (this.index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+
+            this.index[slot] = this.size;
+        }
+
+        return null;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        final int i = indexOf(key);
+
+        return (i < 0) ? null : this.table[(i << 1) + 1];
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super String, ? super Object> action) {
+        for (int i = 0; i < this.size; i++) {
+            action.accept((String) this.table[i << 1], this.table[(i << 1) + 1]);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (this.entries == null) {
+            this.entries = new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new Iterator<Map.Entry<String, Object>>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.next < CompactObject.this.size;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+
+                            final int at = this.next++ << 1;
+
+                            return new AbstractMap.SimpleImmutableEntry<>((String) CompactObject.this.table[at], CompactObject.this.table[at + 1]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return CompactObject.this.size;
+                }
+            };
+        }
+
+        return this.entries;
+    }
+}
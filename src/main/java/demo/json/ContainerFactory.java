@@ -0,0 +1,21 @@
+package demo.json;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the containers that decoded objects and arrays are stored in, for example to keep members in
+ * insertion order or to use a specialized map. Set through {@link DecoderOptions#containerFactory}.
+ * Homogeneous number arrays decoded with {@link DecoderOptions#primitiveArrays(boolean)} do not use it.
+ */
+public interface ContainerFactory {
+    /**
+     * Returns an empty, mutable map. {@code expectedSize} is a hint and may be zero.
+     */
+    Map<String, Object> newObject(int expectedSize);
+
+    /**
+     * Returns an empty, mutable list. {@code expectedSize} is a hint and may be zero.
+     */
+    List<Object> newArray(int expectedSize);
+}
@@ -0,0 +1,153 @@
+package demo.json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-call decoding state threaded through the {@link Decoder} internals.
+ */
+final class DecodeContext {
+    private static final ThreadLocal<KeyTable> KEYS = ThreadLocal.withInitial(KeyTable::new);
+    private static final int MAX_TRACKED_DEPTH = 15;
+    private static final int MAX_PRESIZE = 4096;
+
+    final KeyTable keys;
+    final boolean primitiveArrays;
+    final boolean needsArrayCore;
+    final boolean iterative;
+    final int maxDepth;
+    final int maxStringLength;
+    final int maxEntries;
+    final int maxLength;
+    final ContainerFactory containers;
+    final boolean compactObjects;
+    final JsonMetrics metrics;
+    // standard JSON only: no repeated or trailing commas; used to validate RawJson text
+    final boolean strict;
+
+    // typical container sizes by nesting depth; only a ReusableDecoder learns them
+    private int[] objectSizes;
+    private int[] arraySizes;
+
+    long[] values;
+    long[] scales;
+    final long[] number = new long[1];
+
+    DecodeContext() {
+        this(false);
+    }
+
+    DecodeContext(final boolean strict) {
+        this.keys = null;
+        this.primitiveArrays = false;
+        this.needsArrayCore = false;
+        this.iterative = false;
+        this.maxDepth = Integer.MAX_VALUE;
+        this.maxStringLength = Integer.MAX_VALUE;
+        this.maxEntries = Integer.MAX_VALUE;
+        this.maxLength = Integer.MAX_VALUE;
+        this.containers = null;
+        this.compactObjects = false;
+        this.metrics = null;
+        this.strict = strict;
+    }
+
+    DecodeContext(final DecoderOptions options) {
+        this.keys = options.isInternKeys() ? KEYS.get() : null;
+        this.primitiveArrays = options.isPrimitiveArrays();
+        this.needsArrayCore = options.needsArrayCore();
+        this.iterative = options.isIterative();
+        this.maxDepth = options.getMaxDepth();
+        this.maxStringLength = options.getMaxStringLength();
+        this.maxEntries = options.getMaxEntries();
+        this.maxLength = options.getMaxLength();
+        this.containers = options.getContainerFactory();
+        this.compactObjects = options.isCompactObjects();
+        this.metrics = options.getMetrics();
+        this.strict = false;
+    }
+
+    void learnSizes() {
+        this.objectSizes = new int[MAX_TRACKED_DEPTH + 1];
+        this.arraySizes = new int[MAX_TRACKED_DEPTH + 1];
+    }
+
+    private static int expected(final int[] sizes, final int depth) {
+        return (sizes == null) ? 0 : sizes[Math.min(depth, MAX_TRACKED_DEPTH)];
+    }
+
+    /*
+     * Follows larger sizes at once and decays toward smaller ones, so one small container does not undo
+     * the presizing of the next typical one.
+     */
+    private static void learn(final int[] sizes, final int depth, final int size) {
+        if (sizes != null) {
+            final int slot = Math.min(depth, MAX_TRACKED_DEPTH);
+            final int hint = sizes[slot];
+            final int observed = Math.min(size, MAX_PRESIZE);
+
+            sizes[slot] = (observed >= hint) ? observed : hint - ((hint - observed + 7) >> 3);
+        }
+    }
+
+    Map<String, Object> newObject(final int depth) {
+        final int expected = expected(this.objectSizes, depth);
+
+        if (this.compactObjects) {
+            return new CompactObject(expected);
+        } else if (this.containers != null) {
+            return this.containers.newObject(expected);
+        }
+
+        return (expected == 0) ? new HashMap<>() : new HashMap<>(expected * 4 / 3 + 1);
+    }
+
+    Map<String, Object> emptyObject() {
+        if (this.compactObjects) {
+            return CompactObject.EMPTY;
+        }
+
+        return (this.containers == null) ? new HashMap<>() : this.containers.newObject(0);
+    }
+
+    List<Object> newArray(final int depth, final int minimum) {
+        final int expected = Math.max(expected(this.arraySizes, depth), minimum);
+
+        if (this.containers != null) {
+            return this.containers.newArray(expected);
+        }
+
+        return (expected == 0) ? new ArrayList<>() : new ArrayList<>(expected);
+    }
+
+    List<Object> emptyArray() {
+        return (this.containers == null) ? new ArrayList<>() : this.containers.newArray(0);
+    }
+
+    void objectDone(final int depth, final Map<String, Object> out) {
+        learn(this.objectSizes, depth, out.size());
+
+        if (this.compactObjects) {
+            ((CompactObject) out).freeze();
+        }
+    }
+
+    void arrayDone(final int depth, final int size) {
+        learn(this.arraySizes, depth, size);
+    }
+
+    void ensureNumbers(final int count) {
+        if (this.values == null) {
+            this.values = new long[Math.max(16, count)];
+            this.scales = new long[this.values.length];
+        } else if (count > this.values.length) {
+            final int capacity = Math.max(count, this.values.length * 2);
+
+            this.values = Arrays.copyOf(this.values, capacity);
+            this.scales = Arrays.copyOf(this.scales, capacity);
+        }
+    }
+}
@@ -1,64 +1,185 @@
 package demo.json;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public final class Decoder {
     private Decoder() {}
 
-    private static String decodeEscapeString(final CharBuffer data) throws IOException {
-        final StringBuilder out = new StringBuilder(8 * 1024);
+    private static final int MAX_SCRATCH_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> SCRATCH = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    static StringBuilder scratch() {
+        StringBuilder out = SCRATCH.get();
+
+        if (out.capacity() > MAX_SCRATCH_CAPACITY) {
+            // don't pin a buffer sized for one huge string to this thread
+            out = new StringBuilder(256);
+            SCRATCH.set(out);
+        }
+
+        out.setLength(0);
+
+        return out;
+    }
+
+    static int decodeHex(final char lookup) throws IOException {
+        if (lookup >= '0' && lookup <= '9') {
+            return lookup - '0';
+        } else if (lookup >= 'a' && lookup <= 'f') {
+            return lookup - 'a' + 10;
+        } else if (lookup >= 'A' && lookup <= 'F') {
+            return lookup - 'A' + 10;
+        } else {
+            throw new IOException("Invalid unicode escape!");
+        }
+    }
+
+    private static void appendRun(final StringBuilder out, final CharBuffer data, final int start, final int end) {
+        if (data.hasArray()) {
+            out.append(data.array(), data.arrayOffset() + start, end - start);
+        } else {
+            for (int i = start; i < end; i++) {
+                out.append(data.get(i));
+            }
+        }
+    }
+
+    private static void decodeEscape(final StringBuilder out, final CharBuffer data) throws IOException {
+        switch (next(data)) {
+            case '\"':
+                out.append('\"');
+                break;
+            case '\\':
+                out.append('\\');
+                break;
+            case '/':
+                out.append('/');
+                break;
+            case 'b':
+                out.append('\b');
+                break;
+            case 'f':
+                out.append('\f');
+                break;
+            case 'n':
+                out.append('\n');
+                break;
+            case 'r':
+                out.append('\r');
+                break;
+            case 't':
+                out.append('\t');
+                break;
+            case 'u':
+                // surrogate pairs arrive as two consecutive escapes and are appended unit by unit
+                out.append((char) ((decodeHex(next(data)) << 12)
+                        | (decodeHex(next(data)) << 8)
+                        | (decodeHex(next(data)) << 4)
+                        | decodeHex(next(data))));
+                break;
+            default:
+                throw new IOException("Unexpected escaped character: " + data.get(data.position() - 1));
+        }
+    }
+
+    private static String decodeEscapeString(final CharBuffer data, final int start) throws IOException {
+        // data is positioned just past the first backslash; [start, backslash) needs no unescaping
+        final StringBuilder out = scratch();
+
+        appendRun(out, data, start, data.position() - 1);
+        decodeEscape(out, data);
+
+        final int limit = data.limit();
+
+        while (true) {
+            final int runStart = data.position();
+            final int end = Scan.indexOfQuoteOrBackslash(data, runStart, limit);
+
+            if (end == limit) {
+                throw new IOException("Unclosed String!");
+            }
+
+            appendRun(out, data, runStart, end);
+            data.position(end + 1);
+
+            if (data.get(end) == '\"') {
+                return out.toString();
+            }
+
+            decodeEscape(out, data);
+        }
+    }
+
+    static String decodeString(final CharBuffer data) throws IOException {
+        data.get();
+
+        final int start = data.position();
+        final int end = Scan.indexOfQuoteOrBackslash(data, start, data.limit());
+
+        if (end == data.limit()) {
+            throw new IOException("Unclosed String!");
+        }
+
+        data.position(end + 1);
+
+        if (data.get(end) == '\\') {
+            return decodeEscapeString(data, start);
+        }
+
+        if (data.hasArray()) {
+            return new String(data.array(), data.arrayOffset() + start, end - start);
+        }
+
+        final CharBuffer subBuffer = data.duplicate();
+
+        subBuffer.position(start);
+        subBuffer.limit(end);
+
+        return subBuffer.toString();
+    }
+
+    private static String decodeKey(final CharBuffer data, final KeyTable keys) throws IOException {
+        data.get();
+
+        final int start = data.position();
+        int hash = 0;
 
         while (data.hasRemaining()) {
             final char lookup = data.get();
 
             switch (lookup) {
                 case '\\':
-                    switch (data.get()) {
-                        case '\"':
-                            out.append('\"');
-                            break;
-                        case '\\':
-                            out.append('\\');
-                            break;
-                        case '/':
-                            out.append('/');
-                            break;
-                        case 'b':
-                            out.append('\b');
-                            break;
-                        case 'f':
-                            out.append('\f');
-                            break;
-                        case 'n':
-                            out.append('\n');
-                            break;
-                        case 'r':
-                            out.append('\r');
-                            break;
-                        case 't':
-                            out.append('\t');
-                            break;
-                        case 'u': {
-                            final char[] uHex = new char[4];
-
-                            data.get(uHex);
-
-                            final int uVal = Integer.parseInt(new String(uHex), 16);
-
-                            out.append(Integer.toString(uVal));
-                        } break;
-                        default:
-                            throw new IOException("Unexpected escaped character: " + data.get(data.position() - 1));
-                    } break;
+                    return keys.intern(decodeEscapeString(data, start));
                 case '\"':
-                    return out.toString();
+                    return keys.intern(data, start, data.position() - 1, hash);
                 default:
-                    out.append(lookup);
+                    hash = 31 * hash + lookup;
                     break;
             }
         }
@@ -66,35 +187,161 @@ public final class Decoder {
         throw new IOException("Unclosed String!");
     }
 
-    private static String decodeString(final CharBuffer data) throws IOException {
-        data.get();
-        data.mark();
+    static void skipString(final CharBuffer data) throws IOException {
+        final int limit = data.limit();
+        int pos = data.position() + 1;
 
-        int offset = 0;
+        while (true) {
+            pos = Scan.indexOfQuoteOrBackslash(data, pos, limit);
 
+            if (pos >= limit) {
+                throw new IOException("Unclosed String!");
+            } else if (data.get(pos) == '\"') {
+                data.position(pos + 1);
+                return;
+            }
+
+            // skip the escaped character
+            pos += 2;
+        }
+    }
+
+    static void skipNumber(final CharBuffer data) {
         while (data.hasRemaining()) {
-            switch (data.get()) {
-                case '\\':
-                    data.reset();
-                    return decodeEscapeString(data);
-                case '\"': {
-                    data.reset();
+            switch (data.get(data.position())) {
+                case '0':
+                case '1':
+                case '2':
+                case '3':
+                case '4':
+                case '5':
+                case '6':
+                case '7':
+                case '8':
+                case '9':
+                case '-':
+                case '+':
+                case '.':
+                case '/':
+                case 'e':
+                case 'E':
+                    data.get();
+                    break;
+                default:
+                    return;
+            }
+        }
+    }
+
+    /**
+     * Skips one value without building or validating it; containers are skipped by counting brackets outside
+     * of strings.
+     */
+    static void skipValue(final CharBuffer data) throws IOException {
+        final int limit = data.limit();
+        int pos = data.position();
+
+        if (pos == limit) {
+            throw new IOException("Malformed JSON!");
+        }
 
-                    final CharBuffer subBuffer = data.slice();
+        final char first = data.get(pos);
 
-                    data.position(data.position() + offset + 1);
-                    subBuffer.limit(offset);
+        if (first == '\"') {
+            skipString(data);
+            return;
+        } else if (first != '[' && first != '{') {
+            // number or literal
+            while (pos < limit) {
+                final char lookup = data.get(pos);
 
-                    return subBuffer.toString();
+                if (lookup == ',' || lookup == ']' || lookup == '}' || isWhitespace(lookup)) {
+                    break;
                 }
+
+                pos++;
+            }
+
+            data.position(pos);
+            return;
+        }
+
+        if (data.hasArray()) {
+            final int offset = data.arrayOffset();
+
+            data.position(skipContainer(data.array(), offset + pos, offset + limit) - offset);
+            return;
+        }
+
+        int depth = 0;
+
+        for (; pos < limit; pos++) {
+            switch (data.get(pos)) {
+                case '\"':
+                    while (true) {
+                        if (++pos >= limit) {
+                            throw new IOException("Unclosed String!");
+                        }
+
+                        final char lookup = data.get(pos);
+
+                        if (lookup == '\\') {
+                            pos++;
+                        } else if (lookup == '\"') {
+                            break;
+                        }
+                    }
+                    break;
+                case '[':
+                case '{':
+                    depth++;
+                    break;
+                case ']':
+                case '}':
+                    if (--depth == 0) {
+                        data.position(pos + 1);
+                        return;
+                    }
+                    break;
                 default:
-                    offset++;
-                    // nothing to do
                     break;
             }
         }
 
-        throw new IOException("Unclosed String!");
+        throw new IOException("Malformed JSON!");
+    }
+
+    /*
+     * Array twin of the container loop in skipValue; returns the index after the closing bracket.
+     */
+    private static int skipContainer(final char[] data, int pos, final int limit) throws IOException {
+        int depth = 0;
+
+        for (; pos < limit; pos++) {
+            final char lookup = data[pos];
+
+            if (lookup == '\"') {
+                while (true) {
+                    if (++pos >= limit) {
+                        throw new IOException("Unclosed String!");
+                    }
+
+                    final char inner = data[pos];
+
+                    if (inner == '\\') {
+                        pos++;
+                    } else if (inner == '\"') {
+                        break;
+                    }
+                }
+            } else if (lookup == '[' || lookup == '{') {
+                depth++;
+            } else if ((lookup == ']' || lookup == '}') && --depth == 0) {
+                return pos + 1;
+            }
+        }
+
+        throw new IOException("Malformed JSON!");
     }
 
     private static boolean isWhitespace(final char lookup) {
@@ -109,12 +356,12 @@ public final class Decoder {
         }
     }
 
-    private static boolean decodeFalse(final CharBuffer data) {
-        final char f = data.get();
-        final char a = data.get();
-        final char l = data.get();
-        final char s = data.get();
-        final char e = data.get();
+    static boolean decodeFalse(final CharBuffer data) throws IOException {
+        final char f = next(data);
+        final char a = next(data);
+        final char l = next(data);
+        final char s = next(data);
+        final char e = next(data);
 
         assert (f == 'f' || f == 'F');
         assert (a == 'a' || a == 'A');
@@ -125,11 +372,11 @@ public final class Decoder {
         return false;
     }
 
-    private static boolean decodeTrue(final CharBuffer data) {
-        final char t = data.get();
-        final char r = data.get();
-        final char u = data.get();
-        final char e = data.get();
+    static boolean decodeTrue(final CharBuffer data) throws IOException {
+        final char t = next(data);
+        final char r = next(data);
+        final char u = next(data);
+        final char e = next(data);
 
         assert (t == 't' || t == 'T');
         assert (r == 'r' || r == 'R');
@@ -139,43 +386,129 @@ public final class Decoder {
         return true;
     }
 
-    private static void skipWhitespace(final CharBuffer data) {
-        while (data.hasRemaining()) {
-            if (!isWhitespace(data.get(data.position()))) {
-                return;
-            }
+    private static char peek(final CharBuffer data) throws IOException {
+        if (!data.hasRemaining()) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return data.get(data.position());
+    }
+
+    private static char next(final CharBuffer data) throws IOException {
+        if (!data.hasRemaining()) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return data.get();
+    }
 
-            //dispose of character
-            data.get();
+    /**
+     * The package's one unchecked cast. Decoded containers travel as {@code Object} and are always a
+     * {@code Map<String, Object>} or a {@code List<Object>}; callers check which before casting.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T cast(final Object value) {
+        return (T) value;
+    }
+
+    static void skipWhitespace(final CharBuffer data) {
+        final int position = data.position();
+
+        // every whitespace character sorts at or below ' '
+        if (position < data.limit() && data.get(position) > ' ') {
+            return;
         }
+
+        data.position(Scan.skipWhitespace(data, position, data.limit()));
     }
 
-    private static List decodeArray(final CharBuffer data) throws IOException {
+    private static List<?> decodeArray(final CharBuffer data, final DecodeContext ctx) throws IOException {
         data.get();
 
-        final List<Object> out = new ArrayList<>();
+        if (ctx.primitiveArrays) {
+            skipWhitespace(data);
+
+            if (data.hasRemaining() && isNumberStart(data.get(data.position()))) {
+                return decodeNumberArray(data, ctx);
+            }
+        }
 
+        return decodeElements(data, ctx, new ArrayList<>());
+    }
+
+    private static List<Object> decodeElements(final CharBuffer data, final DecodeContext ctx, final List<Object> out) throws IOException {
         while (data.hasRemaining()) {
             skipWhitespace(data);
 
             data.mark();
 
-            switch (data.get()) {
+            switch (next(data)) {
                 case ']':
                     return out;
                 case ',':
                     break;
                 default:
                     data.reset();
-                    out.add(decodeAny(data));
+                    out.add(decodeAny(data, ctx));
+                    break;
+            }
+        }
+
+        throw new IOException("Malformed Array!");
+    }
+
+    private static boolean isNumberStart(final char lookup) {
+        return (lookup >= '0' && lookup <= '9') || lookup == '-';
+    }
+
+    private static List<?> decodeNumberArray(final CharBuffer data, final DecodeContext ctx) throws IOException {
+        int count = 0;
+        boolean isInteger = true;
+
+        while (data.hasRemaining()) {
+            skipWhitespace(data);
+
+            final char lookup = peek(data);
+
+            switch (lookup) {
+                case ']':
+                    data.get();
+
+                    if (isInteger) {
+                        return new LongList(Arrays.copyOf(ctx.values, count), count);
+                    } else {
+                        return new FixedList(Arrays.copyOf(ctx.values, count), Arrays.copyOf(ctx.scales, count), count);
+                    }
+                case ',':
+                    data.get();
                     break;
+                default:
+                    if (isNumberStart(lookup)) {
+                        ctx.ensureNumbers(count + 1);
+                        ctx.values[count] = Fixed.decodeFixed(data, ctx.scales, count);
+
+                        if (ctx.scales[count] != 0L) {
+                            isInteger &= (ctx.scales[count] == 1L);
+                            count++;
+                            break;
+                        }
+                    }
+
+                    // not homogeneous (or out of long range) after all; box what we have and continue generically
+                    final List<Object> out = new ArrayList<>(count + 8);
+
+                    for (int i = 0; i < count; i++) {
+                        out.add(new Fixed(ctx.values[i], ctx.scales[i]));
+                    }
+
+                    return decodeElements(data, ctx, out);
             }
         }
 
         throw new IOException("Malformed Array!");
     }
 
-    private static Map<String, Object> decodeObject(final CharBuffer data) throws IOException {
+    private static Map<String, Object> decodeObject(final CharBuffer data, final DecodeContext ctx) throws IOException {
         data.get();
 
         final Map<String, Object> out = new HashMap<>();
@@ -183,29 +516,30 @@ public final class Decoder {
         while (data.hasRemaining()) {
             skipWhitespace(data);
 
-            if (data.get(data.position()) == '}') {
+            if (peek(data) == '}') {
+                data.get();
                 return out;
             }
 
             skipWhitespace(data);
 
-            final String key = decodeString(data);
+            final String key = (ctx.keys != null) ? decodeKey(data, ctx.keys) : decodeString(data);
 
             skipWhitespace(data);
 
-            final char sep = data.get();
+            final char sep = next(data);
 
             assert(sep == ':');
 
             skipWhitespace(data);
 
-            final Object value = decodeAny(data);
+            final Object value = decodeAny(data, ctx);
 
             out.put(key, value);
 
             skipWhitespace(data);
 
-            switch (data.get()) {
+            switch (next(data)) {
                 case '}':
                     return out;
                 case ',':
@@ -218,9 +552,13 @@ public final class Decoder {
         throw new IOException("Malformed Object!");
     }
 
-    private static Object decodeNull(final CharBuffer data) {
+    static Object decodeNull(final CharBuffer data) throws IOException {
         final char[] value = new char[4];
 
+        if (data.remaining() < value.length) {
+            throw new IOException("Malformed JSON!");
+        }
+
         data.get(value);
 
         assert (value[0] == 'n' || value[0] == 'N');
@@ -231,8 +569,8 @@ public final class Decoder {
         return null;
     }
 
-    private static Object decodeAny(final CharBuffer data) throws IOException {
-        final char lookup = data.get(data.position());
+    static Object decodeAny(final CharBuffer data, final DecodeContext ctx) throws IOException {
+        final char lookup = peek(data);
 
         switch (lookup) {
             case '\"':
@@ -248,11 +586,11 @@ public final class Decoder {
             case '8':
             case '9':
             case '-':
-                return Fixed.decodeFixed(data);
+                return Fixed.decodeNumber(data, ctx.number);
             case '[':
-                return decodeArray(data);
+                return decodeArray(data, ctx);
             case '{':
-                return decodeObject(data);
+                return decodeObject(data, ctx);
             case 't':
             case 'T':
                 return decodeTrue(data);
@@ -267,14 +605,30 @@ public final class Decoder {
             case '\n':
             case '\r':
                 skipWhitespace(data);
-                return decodeAny(data);
+                return decodeAny(data, ctx);
             default:
                 throw new IOException("Malformed JSON!");
         }
     }
 
-    public static Map<String, Object> decode(final CharBuffer data) throws IOException {
-        final Object out = decodeAny(data);
+    static Map<String, Object> decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+        final Object out;
+
+        if (data.hasArray()) {
+            out = new CharArrayDecoder(data, ctx).decode();
+        } else if (ctx.needsArrayCore) {
+            if (data.remaining() > ctx.maxLength) {
+                throw new IOException("Maximum length exceeded!");
+            }
+
+            final CharBuffer copy = CharBuffer.allocate(data.remaining());
+
+            copy.put(data.duplicate()).flip();
+            out = new CharArrayDecoder(copy, ctx).decode();
+            data.position(data.position() + copy.position());
+        } else {
+            out = decodeAny(data, ctx);
+        }
 
         if (out instanceof Map) {
             return (Map<String, Object>) out;
@@ -283,7 +637,237 @@ public final class Decoder {
         }
     }
 
+    public static Map<String, Object> decode(final CharBuffer data) throws IOException {
+        return decode(data, new DecodeContext());
+    }
+
+    public static Map<String, Object> decode(final CharBuffer data, final DecoderOptions options) throws IOException {
+        return decode(data, new DecodeContext(options));
+    }
+
     public static Map<String, Object> decode(final String strval) throws IOException {
-        return decode(CharBuffer.wrap(strval));
+        return decode(CharBuffer.wrap(strval.toCharArray()));
+    }
+
+    public static Map<String, Object> decode(final String strval, final DecoderOptions options) throws IOException {
+        return decode(CharBuffer.wrap(strval.toCharArray()), options);
+    }
+
+    /**
+     * Decodes an object straight into a new instance of {@code type}, binding JSON members to its
+     * non-static, non-transient fields by name. Unknown members are skipped. {@code type} needs a no-arg
+     * constructor; codecs are built on first use and cached per class.
+     *
+     * @throws IllegalArgumentException if {@code type} or one of its field types cannot be bound
+     */
+    public static <T> T decode(final CharBuffer data, final Class<T> type) throws IOException {
+        skipWhitespace(data);
+
+        if (!data.hasRemaining()) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        final char lookup = data.get(data.position());
+
+        if (lookup == 'n' || lookup == 'N') {
+            decodeNull(data);
+            return null;
+        }
+
+        return type.cast(ObjectCodec.of(type).decode(data, new DecodeContext()));
+    }
+
+    public static <T> T decode(final String strval, final Class<T> type) throws IOException {
+        return decode(CharBuffer.wrap(strval), type);
+    }
+
+    /*
+     * The array core works on chars, so with options that need it the UTF-8 input is transcoded first, into
+     * a buffer of at most maxLength + 1 chars.
+     */
+    private static Map<String, Object> decode(final ByteBuffer data, final DecodeContext ctx) throws IOException {
+        Utf8Decoder.skipByteOrderMark(data);
+
+        final Object out;
+
+        if (ctx.needsArrayCore) {
+            final ByteBuffer source = data.duplicate();
+            final CharBuffer chars = CharBuffer.allocate((int) Math.min(data.remaining(), ctx.maxLength + 1L));
+            final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder();
+
+            if (utf8.decode(source, chars, true).isError() || utf8.flush(chars).isError()) {
+                throw new IOException("Malformed UTF-8!");
+            } else if (source.hasRemaining()) {
+                throw new IOException("Maximum length exceeded!");
+            }
+
+            chars.flip();
+            out = new CharArrayDecoder(chars, ctx).decode();
+            data.position(data.position() + IncrementalDecoder.utf8Length(chars.array(), 0, chars.position()));
+        } else {
+            out = Utf8Decoder.decodeAny(data, ctx);
+        }
+
+        if (out instanceof Map) {
+            return cast(out);
+        } else {
+            throw new IOException("Malformed JSON!");
+        }
+    }
+
+    public static Map<String, Object> decode(final ByteBuffer data) throws IOException {
+        return decode(data, new DecodeContext());
+    }
+
+    public static Map<String, Object> decode(final ByteBuffer data, final DecoderOptions options) throws IOException {
+        return decode(data, new DecodeContext(options));
+    }
+
+    /**
+     * Decodes a document written by {@link Encoder#encodeBinary(Map)} into the same model as the text form.
+     * Nesting deeper than {@value BinaryReader#DEFAULT_MAX_DEPTH} levels is rejected unless
+     * {@link DecoderOptions#maxDepth(int)} allows it.
+     */
+    public static Map<String, Object> decodeBinary(final ByteBuffer data) throws IOException {
+        return new BinaryReader(data, new DecodeContext()).read();
+    }
+
+    public static Map<String, Object> decodeBinary(final byte[] data) throws IOException {
+        return decodeBinary(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Decodes a binary document under the depth, entry, string length and length limits of
+     * {@code options}; its other settings do not apply to the binary form.
+     */
+    public static Map<String, Object> decodeBinary(final ByteBuffer data, final DecoderOptions options) throws IOException {
+        return new BinaryReader(data, new DecodeContext(options)).read();
+    }
+
+    public static Map<String, Object> decodeBinary(final byte[] data, final DecoderOptions options) throws IOException {
+        return decodeBinary(ByteBuffer.wrap(data), options);
+    }
+
+    public static Map<String, Object> decode(final Path path) throws IOException {
+        return decode(path, new DecodeContext());
+    }
+
+    public static Map<String, Object> decode(final Path path, final DecoderOptions options) throws IOException {
+        return decode(path, new DecodeContext(options));
+    }
+
+    private static Map<String, Object> decode(final Path path, final DecodeContext ctx) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("JSON file too large to map: " + size + " bytes");
+            }
+
+            final MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+
+            return decode(data, ctx);
+        }
+    }
+
+    /**
+     * Decodes a UTF-8 input of many records, either a top-level array of objects or newline-delimited JSON
+     * objects, on the common {@link ForkJoinPool}. Records are returned in input order.
+     */
+    public static List<Map<String, Object>> decodeParallel(final ByteBuffer data) throws IOException {
+        return decodeParallel(data, ForkJoinPool.commonPool());
+    }
+
+    public static List<Map<String, Object>> decodeParallel(final ByteBuffer data, final Executor executor) throws IOException {
+        final ParallelDecoder.Input input = new ParallelDecoder.BufferInput(data);
+
+        return ParallelDecoder.decode(input, executor, ParallelDecoder.chunkSize(input.size(), executor));
+    }
+
+    /**
+     * Like {@link #decodeParallel(ByteBuffer)}, mapping the file chunk by chunk so inputs may exceed 2 GB;
+     * only a single record is limited to 2 GB.
+     */
+    public static List<Map<String, Object>> decodeParallel(final Path path) throws IOException {
+        return decodeParallel(path, ForkJoinPool.commonPool());
+    }
+
+    public static List<Map<String, Object>> decodeParallel(final Path path, final Executor executor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ParallelDecoder.Input input = new ParallelDecoder.ChannelInput(channel);
+
+            return ParallelDecoder.decode(input, executor, ParallelDecoder.chunkSize(input.size(), executor));
+        }
+    }
+
+    /**
+     * Iterates over the newline-delimited JSON objects read from {@code channel}, decoding one record per
+     * call to {@code next()}. Blank lines are skipped. The channel is not closed; decoding and read errors
+     * are thrown as {@link java.io.UncheckedIOException}.
+     */
+    public static Iterator<Map<String, Object>> decodeLines(final ReadableByteChannel channel) {
+        return new LineReader(channel, new DecodeContext(), LineReader.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Like {@link #decodeLines(ReadableByteChannel)}, applying {@code options} to each record. Limits apply
+     * per record; {@link DecoderOptions#maxLength(int)} counts the chars of one line.
+     */
+    public static Iterator<Map<String, Object>> decodeLines(final ReadableByteChannel channel, final DecoderOptions options) {
+        return new LineReader(channel, new DecodeContext(options), LineReader.DEFAULT_BUFFER_SIZE);
+    }
+
+    public static Iterator<Map<String, Object>> decodeLines(final InputStream input) {
+        return decodeLines(Channels.newChannel(input));
+    }
+
+    public static Iterator<Map<String, Object>> decodeLines(final InputStream input, final DecoderOptions options) {
+        return decodeLines(Channels.newChannel(input), options);
+    }
+
+    /**
+     * Sequential, ordered stream over {@link #decodeLines(ReadableByteChannel)}.
+     */
+    public static Stream<Map<String, Object>> streamLines(final ReadableByteChannel channel) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(decodeLines(channel),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public static Stream<Map<String, Object>> streamLines(final InputStream input) {
+        return streamLines(Channels.newChannel(input));
+    }
+
+    /**
+     * Returns the value a JSON Pointer (RFC 6901) refers to, or {@code null} if it does not resolve. Only
+     * that value is decoded; unrelated members and elements are skipped without being built, and the input
+     * after the value is not read.
+     *
+     * @throws IllegalArgumentException if {@code pointer} is not a valid JSON Pointer
+     */
+    public static Object extract(final CharBuffer data, final String pointer) throws IOException {
+        return new PointerExtractor(Collections.singleton(pointer)).extract(data).get(pointer);
+    }
+
+    /**
+     * Resolves several pointers in one pass. The result maps each pointer that resolves to its value, so a
+     * missing pointer is absent while a JSON {@code null} maps to {@code null}.
+     */
+    public static Map<String, Object> extract(final CharBuffer data, final Collection<String> pointers) throws IOException {
+        return new PointerExtractor(pointers).extract(data);
+    }
+
+    /**
+     * Indexes {@code data} with a single structural scan and returns a read-only view that decodes keys,
+     * strings, numbers and nested containers only when they are accessed. The view reads from
+     * {@code data}, which must not be modified while the view is in use, and is not thread-safe.
+     */
+    public static Map<String, Object> decodeLazy(final CharBuffer data) throws IOException {
+        final LazyDocument document = new LazyDocument(data);
+
+        return new LazyObject(document, document.root());
+    }
+
+    public static Map<String, Object> decodeLazy(final String strval) throws IOException {
+        return decodeLazy(CharBuffer.wrap(strval));
     }
 }
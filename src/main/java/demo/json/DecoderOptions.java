@@ -0,0 +1,164 @@
+package demo.json;
+
+/**
+ * Optional decoding behaviour for {@link Decoder}. Setters return {@code this} so options can be chained.
+ */
+public final class DecoderOptions {
+    private boolean internKeys;
+    private boolean primitiveArrays;
+    private boolean iterative;
+    private int maxDepth = Integer.MAX_VALUE;
+    private int maxStringLength = Integer.MAX_VALUE;
+    private int maxEntries = Integer.MAX_VALUE;
+    private int maxLength = Integer.MAX_VALUE;
+    private ContainerFactory containerFactory;
+    private boolean compactObjects;
+    private JsonMetrics metrics;
+
+    /**
+     * Canonicalizes object keys through a bounded per-thread symbol table, so documents sharing a schema
+     * share key {@code String} instances and repeated keys are decoded without allocating.
+     */
+    public DecoderOptions internKeys(final boolean internKeys) {
+        this.internKeys = internKeys;
+
+        return this;
+    }
+
+    public boolean isInternKeys() {
+        return this.internKeys;
+    }
+
+    /**
+     * Decodes arrays whose elements are all numbers into a compact {@link LongList} (all integers) or
+     * {@link FixedList} instead of an {@code ArrayList} of boxed {@link Fixed}.
+     */
+    public DecoderOptions primitiveArrays(final boolean primitiveArrays) {
+        this.primitiveArrays = primitiveArrays;
+
+        return this;
+    }
+
+    public boolean isPrimitiveArrays() {
+        return this.primitiveArrays;
+    }
+
+    /**
+     * Parses with an explicit heap stack instead of recursion, so nesting depth is bounded by
+     * {@link #maxDepth(int)} rather than by the thread's stack size.
+     */
+    public DecoderOptions iterative(final boolean iterative) {
+        this.iterative = iterative;
+
+        return this;
+    }
+
+    public boolean isIterative() {
+        return this.iterative;
+    }
+
+    /**
+     * Maximum nesting depth of arrays and objects. The recursive decoder needs stack proportional to the
+     * depth, so untrusted input should set this or {@link #iterative(boolean)}.
+     */
+    public DecoderOptions maxDepth(final int maxDepth) {
+        this.maxDepth = maxDepth;
+
+        return this;
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * Maximum decoded length of any string, including object keys.
+     */
+    public DecoderOptions maxStringLength(final int maxStringLength) {
+        this.maxStringLength = maxStringLength;
+
+        return this;
+    }
+
+    public int getMaxStringLength() {
+        return this.maxStringLength;
+    }
+
+    /**
+     * Maximum number of elements in one array or members in one object.
+     */
+    public DecoderOptions maxEntries(final int maxEntries) {
+        this.maxEntries = maxEntries;
+
+        return this;
+    }
+
+    public int getMaxEntries() {
+        return this.maxEntries;
+    }
+
+    /**
+     * Maximum number of chars remaining in the input when decoding starts.
+     */
+    public DecoderOptions maxLength(final int maxLength) {
+        this.maxLength = maxLength;
+
+        return this;
+    }
+
+    public int getMaxLength() {
+        return this.maxLength;
+    }
+
+    /**
+     * Creates decoded objects and arrays through {@code containerFactory} instead of as {@code HashMap}
+     * and {@code ArrayList}.
+     */
+    public DecoderOptions containerFactory(final ContainerFactory containerFactory) {
+        this.containerFactory = containerFactory;
+
+        return this;
+    }
+
+    public ContainerFactory getContainerFactory() {
+        return this.containerFactory;
+    }
+
+    /**
+     * Decodes objects into compact read-only maps that keep members in document order in one flat array,
+     * instead of {@code HashMap}. Meant for documents that are retained; takes precedence over
+     * {@link #containerFactory} for objects.
+     */
+    public DecoderOptions compactObjects(final boolean compactObjects) {
+        this.compactObjects = compactObjects;
+
+        return this;
+    }
+
+    public boolean isCompactObjects() {
+        return this.compactObjects;
+    }
+
+    /**
+     * Reports the size, shape and latency of each decode to {@code metrics}. Unset by default, in which
+     * case nothing is measured.
+     */
+    public DecoderOptions metrics(final JsonMetrics metrics) {
+        this.metrics = metrics;
+
+        return this;
+    }
+
+    public JsonMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /*
+     * Limits, iterative decoding, container choices and metrics are implemented by the char array core only.
+     */
+    boolean needsArrayCore() {
+        return this.iterative || this.compactObjects || this.metrics != null || this.containerFactory != null
+                || this.maxDepth != Integer.MAX_VALUE || this.maxStringLength != Integer.MAX_VALUE
+                || this.maxEntries != Integer.MAX_VALUE || this.maxLength != Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,242 @@
+package demo.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable character sink used by {@link Encoder}. Instances are not thread-safe; they can be cleared
+ * and reused between calls to avoid reallocating the backing array.
+ */
+public final class EncodeBuffer implements CharSequence {
+    private static final int DEFAULT_CAPACITY = 256;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private char[] chars;
+    private int length;
+    boolean inUse;
+
+    // counted by Encoder and reported to EncoderOptions.getMetrics(); reset by clear()
+    int depth;
+    int deepest;
+    int strings;
+    int numbers;
+    int escapes;
+    int escapedStrings;
+    int numberFallbacks;
+
+    public EncodeBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EncodeBuffer(final int initialCapacity) {
+        this.chars = new char[Math.max(initialCapacity, 16)];
+    }
+
+    private void grow(final int extra) {
+        final int required = this.length + extra;
+
+        if (required < 0 || required > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("JSON output exceeds maximum array size");
+        }
+
+        final long capacity = Math.max((long) this.chars.length << 1, required);
+
+        this.chars = Arrays.copyOf(this.chars, (int) Math.min(capacity, MAX_ARRAY_SIZE));
+    }
+
+    public EncodeBuffer put(final char c) {
+        if (this.length == this.chars.length) {
+            grow(1);
+        }
+
+        this.chars[this.length++] = c;
+
+        return this;
+    }
+
+    public EncodeBuffer put(final String str) {
+        return put(str, 0, str.length());
+    }
+
+    public EncodeBuffer put(final String str, final int start, final int end) {
+        final int count = end - start;
+
+        if (this.chars.length - this.length < count) {
+            grow(count);
+        }
+
+        str.getChars(start, end, this.chars, this.length);
+        this.length += count;
+
+        return this;
+    }
+
+    public EncodeBuffer put(final char[] src, final int offset, final int count) {
+        if (this.chars.length - this.length < count) {
+            grow(count);
+        }
+
+        System.arraycopy(src, offset, this.chars, this.length, count);
+        this.length += count;
+
+        return this;
+    }
+
+    private void require(final int count) {
+        if (this.chars.length - this.length < count) {
+            grow(count);
+        }
+    }
+
+    /**
+     * Writes {@code c} as a six char <code>&#92;uXXXX</code> escape.
+     */
+    EncodeBuffer putUnicodeEscape(final char c) {
+        require(6);
+
+        final char[] chars = this.chars;
+        final int at = this.length;
+
+        chars[at] = '\\';
+        chars[at + 1] = 'u';
+        chars[at + 2] = HEX[(c >> 12) & 0xF];
+        chars[at + 3] = HEX[(c >> 8) & 0xF];
+        chars[at + 4] = HEX[(c >> 4) & 0xF];
+        chars[at + 5] = HEX[c & 0xF];
+        this.length = at + 6;
+
+        return this;
+    }
+
+    public EncodeBuffer putLong(final long value) {
+        require(NumberWriter.MAX_CHARS);
+        this.length = NumberWriter.writeLong(this.chars, this.length, value);
+
+        return this;
+    }
+
+    /**
+     * Writes the shortest decimal that parses back to {@code value}.
+     *
+     * @throws IllegalArgumentException if the value is NaN or infinite
+     */
+    public EncodeBuffer putDouble(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON does not support " + value);
+        }
+
+        require(NumberWriter.MAX_CHARS);
+        this.length = NumberWriter.writeDouble(this.chars, this.length, value);
+
+        return this;
+    }
+
+    /**
+     * Writes the shortest decimal that parses back to {@code value} as a float.
+     *
+     * @throws IllegalArgumentException if the value is NaN or infinite
+     */
+    public EncodeBuffer putFloat(final float value) {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON does not support " + value);
+        }
+
+        require(NumberWriter.MAX_CHARS);
+        this.length = NumberWriter.writeFloat(this.chars, this.length, value);
+
+        return this;
+    }
+
+    /**
+     * Writes {@code value / 10^fractionDigits} as a plain decimal with exactly {@code fractionDigits}
+     * digits after the point.
+     */
+    EncodeBuffer putDecimal(final long value, final int fractionDigits) {
+        require(NumberWriter.MAX_CHARS);
+        this.length = NumberWriter.writeDecimal(this.chars, this.length, value, fractionDigits);
+
+        return this;
+    }
+
+    public void clear() {
+        this.length = 0;
+        this.resetCounts();
+    }
+
+    void resetCounts() {
+        this.depth = 0;
+        this.deepest = 0;
+        this.strings = 0;
+        this.numbers = 0;
+        this.escapes = 0;
+        this.escapedStrings = 0;
+        this.numberFallbacks = 0;
+    }
+
+    void enter() {
+        if (++this.depth > this.deepest) {
+            this.deepest = this.depth;
+        }
+    }
+
+    void exit() {
+        this.depth--;
+    }
+
+    public int capacity() {
+        return this.chars.length;
+    }
+
+    void trim(final int maxRetainedCapacity) {
+        if (this.chars.length > maxRetainedCapacity) {
+            this.chars = new char[DEFAULT_CAPACITY];
+        }
+    }
+
+    public void writeTo(final CharBuffer output) {
+        output.put(this.chars, 0, this.length);
+    }
+
+    public void writeTo(final Appendable output) throws IOException {
+        if (output instanceof Writer) {
+            ((Writer) output).write(this.chars, 0, this.length);
+        } else if (output instanceof StringBuilder) {
+            ((StringBuilder) output).append(this.chars, 0, this.length);
+        } else if (output instanceof CharBuffer) {
+            writeTo((CharBuffer) output);
+        } else {
+            output.append(CharBuffer.wrap(this.chars, 0, this.length));
+        }
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("index: " + index + ", length: " + this.length);
+        }
+
+        return this.chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        if (start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + this.length);
+        }
+
+        return new String(this.chars, start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(this.chars, 0, this.length);
+    }
+}
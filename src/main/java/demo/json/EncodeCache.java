@@ -0,0 +1,105 @@
+package demo.json;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Identity-keyed LRU cache of serialized nested objects, enabled with {@link EncoderOptions#cache}. A map
+ * is looked up by reference, so it must not be modified after it has first been encoded through the
+ * cache. The cache holds at most {@code maxChars} chars of output and keeps the cached maps reachable until
+ * they are evicted. Instances are thread-safe.
+ */
+public final class EncodeCache {
+    private static final class Identity {
+        final Object ref;
+
+        Identity(final Object ref) {
+            this.ref = ref;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof Identity && ((Identity) other).ref == this.ref;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.ref);
+        }
+    }
+
+    private final Map<Identity, String> entries = new LinkedHashMap<>(64, 0.75F, true);
+    private final long maxChars;
+    private long chars;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public EncodeCache(final long maxChars) {
+        if (maxChars < 0L) {
+            throw new IllegalArgumentException("Invalid cache size: " + maxChars);
+        }
+
+        this.maxChars = maxChars;
+    }
+
+    synchronized String get(final Map<?, ?> map) {
+        final String out = this.entries.get(new Identity(map));
+
+        if (out == null) {
+            this.misses++;
+        } else {
+            this.hits++;
+        }
+
+        return out;
+    }
+
+    synchronized void put(final Map<?, ?> map, final String json) {
+        if (json.length() > this.maxChars) {
+            return;
+        }
+
+        final String previous = this.entries.put(new Identity(map), json);
+
+        this.chars += json.length() - ((previous == null) ? 0 : previous.length());
+
+        // evict least recently used entries; the new entry is last in access order
+        final Iterator<String> it = this.entries.values().iterator();
+
+        while (this.chars > this.maxChars) {
+            this.chars -= it.next().length();
+            it.remove();
+            this.evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        this.entries.clear();
+        this.chars = 0L;
+    }
+
+    public synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Total length of the cached output.
+     */
+    public synchronized long chars() {
+        return this.chars;
+    }
+
+    public synchronized long hits() {
+        return this.hits;
+    }
+
+    public synchronized long misses() {
+        return this.misses;
+    }
+
+    public synchronized long evictions() {
+        return this.evictions;
+    }
+}
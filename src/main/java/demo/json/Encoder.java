@@ -1,6 +1,10 @@
 package demo.json;
 
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.util.List;
 import java.util.Map;
@@ -8,34 +12,177 @@ import java.util.Map;
 public final class Encoder {
     private Encoder() {}
 
+    private static final int MAX_POOLED_CAPACITY = 1024 * 1024;
+
+    private static final EncoderOptions DEFAULT_OPTIONS = new EncoderOptions();
+
+    private static final ThreadLocal<EncodeBuffer> POOL = ThreadLocal.withInitial(EncodeBuffer::new);
+
+    private static EncodeBuffer acquire() {
+        final EncodeBuffer pooled = POOL.get();
+
+        if (pooled.inUse) {
+            // re-entrant call on this thread; fall back to a private buffer
+            return new EncodeBuffer();
+        }
+
+        pooled.inUse = true;
+
+        return pooled;
+    }
+
+    private static void release(final EncodeBuffer buffer) {
+        buffer.clear();
+
+        if (buffer.inUse) {
+            buffer.inUse = false;
+            buffer.trim(MAX_POOLED_CAPACITY);
+        }
+    }
+
+    public static void encode(final EncodeBuffer output, final Map<String, Object> data) throws IOException {
+        encodeObjectSafe(output, data, DEFAULT_OPTIONS);
+    }
+
+    public static void encode(final EncodeBuffer output, final Map<String, Object> data, final EncoderOptions options) throws IOException {
+        encodeRoot(output, data, options);
+    }
+
     public static void encode(final CharBuffer output, final Map<String, Object> data) throws IOException {
-        encodeObjectSafe(output, data);
+        final EncodeBuffer buffer = acquire();
+
+        try {
+            encodeObjectSafe(buffer, data, DEFAULT_OPTIONS);
+            buffer.writeTo(output);
+        } finally {
+            release(buffer);
+        }
     }
 
-    public static String encode(final Map<String, Object> data, final int maxJSONSize) throws IOException {
-        final CharBuffer output = CharBuffer.allocate(maxJSONSize);
+    public static void encode(final Map<String, Object> data, final Appendable output) throws IOException {
+        encode(data, output, DEFAULT_OPTIONS);
+    }
 
-        encode(output, data);
-        output.flip();
+    public static void encode(final Map<String, Object> data, final Appendable output, final EncoderOptions options) throws IOException {
+        final EncodeBuffer buffer = acquire();
 
-        return output.toString();
+        try {
+            encodeRoot(buffer, data, options);
+            buffer.writeTo(output);
+        } finally {
+            release(buffer);
+        }
     }
 
-    private static final int DEFAULT_MAX_JSON_FILE_SIZE = 128 * 1024;
+    public static String encode(final Map<String, Object> data, final int maxJSONSize) throws IOException {
+        final EncodeBuffer buffer = acquire();
+
+        try {
+            encodeObjectSafe(buffer, data, DEFAULT_OPTIONS);
+
+            if (buffer.length() > maxJSONSize) {
+                throw new BufferOverflowException();
+            }
+
+            return buffer.toString();
+        } finally {
+            release(buffer);
+        }
+    }
 
     public static String encode(final Map<String, Object> data) throws IOException {
-        return encode(data, DEFAULT_MAX_JSON_FILE_SIZE);
+        return encode(data, DEFAULT_OPTIONS);
+    }
+
+    public static String encode(final Map<String, Object> data, final EncoderOptions options) throws IOException {
+        final EncodeBuffer buffer = acquire();
+
+        try {
+            encodeRoot(buffer, data, options);
+
+            return buffer.toString();
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * Encodes the fields of {@code value} as bound by {@link Decoder#decode(CharBuffer, Class)}; maps are
+     * encoded as usual.
+     *
+     * @throws IllegalArgumentException if the class of {@code value} or one of its field types cannot be bound
+     */
+    public static <T> String encode(final T value) throws IOException {
+        return encode(value, DEFAULT_OPTIONS);
+    }
+
+    public static <T> String encode(final T value, final EncoderOptions options) throws IOException {
+        final EncodeBuffer buffer = acquire();
+
+        try {
+            if (value == null) {
+                encodeNullSafe(buffer);
+            } else if (value instanceof Map) {
+                encodeRoot(buffer, Decoder.cast(value), options);
+            } else {
+                ObjectCodec.of(value.getClass()).encode(buffer, value, options);
+            }
+
+            return buffer.toString();
+        } finally {
+            release(buffer);
+        }
     }
 
-    private static void encodeObjectSafe(final CharBuffer output, final Map<String, Object> obj) throws IOException {
+    /**
+     * Encodes {@code data} in the compact binary form read by {@link Decoder#decodeBinary(ByteBuffer)}.
+     * Numbers keep their exact type, so text and binary convert into each other without loss.
+     */
+    public static byte[] encodeBinary(final Map<String, Object> data) throws IOException {
+        return BinaryWriter.write(data, false);
+    }
+
+    public static byte[] encodeBinary(final Map<String, Object> data, final EncoderOptions options) throws IOException {
+        return BinaryWriter.write(data, options.isKeyDictionary());
+    }
+
+    private static void encodeRoot(final EncodeBuffer output, final Map<String, Object> obj, final EncoderOptions options) throws IOException {
+        final JsonMetrics metrics = options.getMetrics();
+
+        if (metrics == null) {
+            encodeObjectSafe(output, obj, options);
+            return;
+        }
+
+        final long started = System.nanoTime();
+        final int start = output.length();
+
+        output.resetCounts();
+        encodeObjectSafe(output, obj, options);
+
+        final JsonStats stats = new JsonStats();
+
+        stats.nanos = System.nanoTime() - started;
+        stats.length = output.length() - start;
+        stats.maxDepth = output.deepest;
+        stats.strings = output.strings;
+        stats.numbers = output.numbers;
+        stats.escapes = output.escapes;
+        stats.escapedStrings = output.escapedStrings;
+        stats.numberFallbacks = output.numberFallbacks;
+        metrics.encoded(stats);
+    }
+
+    private static void encodeObjectSafe(final EncodeBuffer output, final Map<String, Object> obj, final EncoderOptions options) throws IOException {
+        output.enter();
         output.put('{');
 
         int i = 0;
 
         for (Map.Entry<String, Object> pair : obj.entrySet()) {
-            encodeStringSafe(output, pair.getKey());
+            encodeStringSafe(output, pair.getKey(), options);
             output.put(':');
-            encodeAnySafe(output, pair.getValue());
+            encodeAnySafe(output, pair.getValue(), options);
 
             if (i < obj.size() - 1) {
                 output.put(',');
@@ -45,23 +192,28 @@ public final class Encoder {
         }
 
         output.put('}');
+        output.exit();
     }
 
-    private static void encodeAnySafe(final CharBuffer output, final Object obj) throws IOException {
+    static void encodeAnySafe(final EncodeBuffer output, final Object obj, final EncoderOptions options) throws IOException {
         if (obj == null) {
             encodeNullSafe(output);
         } else if (obj instanceof Map) {
-            encodeObjectSafe(output, (Map<String, Object>) obj);
+            if (options.getCache() == null) {
+                encodeObjectSafe(output, (Map<String, Object>) obj, options);
+            } else {
+                encodeCachedSafe(output, Decoder.cast(obj), options);
+            }
         } else if (obj instanceof List) {
-            encodeArraySafe(output, (List) obj);
+            encodeArraySafe(output, (List) obj, options);
         } else if (obj instanceof String) {
-            encodeStringSafe(output, (String) obj);
+            encodeStringSafe(output, (String) obj, options);
         } else if (obj instanceof Fixed) {
-            encodeFixedSafe(output, (Fixed) obj);
+            encodeFixedSafe(output, (Fixed) obj, options);
         } else if (obj instanceof Double) {
             encodeDoubleSafe(output, (double) obj);
         } else if (obj instanceof Float) {
-            encodeDoubleSafe(output, (float) obj);
+            encodeFloatSafe(output, (float) obj);
         } else if (obj instanceof Long) {
             encodeLongSafe(output, (long) obj);
         } else if (obj instanceof Integer) {
@@ -72,74 +224,201 @@ public final class Encoder {
             encodeLongSafe(output, (byte) obj);
         } else if (obj instanceof Boolean) {
             encodeBooleanSafe(output, (boolean) obj);
+        } else if (obj instanceof RawJson) {
+            output.put(((RawJson) obj).json);
+        } else if (obj instanceof BigInteger || obj instanceof BigDecimal) {
+            output.numbers++;
+            output.put(obj.toString());
         } else {
             throw new IOException("Unsupported Object type: " + obj.getClass().getSimpleName());
         }
     }
 
-    private static void encodeStringSafe(final CharBuffer output, final String str) {
+    private static void encodeCachedSafe(final EncodeBuffer output, final Map<String, Object> obj, final EncoderOptions options) throws IOException {
+        final EncodeCache cache = options.getCache();
+        final String cached = cache.get(obj);
+
+        if (cached != null) {
+            output.put(cached);
+        } else {
+            final int start = output.length();
+
+            encodeObjectSafe(output, obj, options);
+            cache.put(obj, output.subSequence(start, output.length()).toString());
+        }
+    }
+
+    /*
+     * Escape letter for each ASCII char, or 0 when the char is written as is; 'u' means a \\uXXXX escape.
+     */
+    private static final char[] ESCAPES = new char[128];
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            ESCAPES[i] = 'u';
+        }
+
+        ESCAPES['\"'] = '\"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+    }
+
+    static void encodeStringSafe(final EncodeBuffer output, final String str, final EncoderOptions options) {
+        final boolean asciiOnly = options.isAsciiOnly();
+        final int length = str.length();
+        final int escapes = output.escapes;
+        int runStart = 0;
+
+        output.strings++;
         output.put('\"');
 
-        final char[] chars = str.toCharArray();
-
-        for (char c : chars) {
-            switch (c) {
-                case '\\':
-                    output.put("\\\\");
-                    break;
-                case '\"':
-                    output.put("\\\"");
-                    break;
-                case '\n':
-                    output.put("\\\n");
-                    break;
-                case '\t':
-                    output.put("\\\t");
-                    break;
-                case '\r':
-                    output.put("\\\r");
-                    break;
-                default:
-                    output.put(c);
-                    break;
+        for (int i = 0; i < length; i++) {
+            final char c = str.charAt(i);
+            final char escape;
+
+            if (c < 0x80) {
+                escape = ESCAPES[c];
+
+                if (escape == 0) {
+                    continue;
+                }
+            } else if (asciiOnly) {
+                escape = 'u';
+            } else {
+                continue;
+            }
+
+            // copy the clean run in one step, then the escape
+            output.put(str, runStart, i);
+
+            output.escapes++;
+
+            if (escape == 'u') {
+                output.putUnicodeEscape(c);
+            } else {
+                output.put('\\').put(escape);
             }
+
+            runStart = i + 1;
         }
 
-        output.put('\"');
+        output.put(str, runStart, length).put('\"');
+
+        if (output.escapes != escapes) {
+            output.escapedStrings++;
+        }
     }
 
-    private static void encodeNullSafe(final CharBuffer output) {
+    private static void encodeNullSafe(final EncodeBuffer output) {
         output.put("null");
     }
 
-    private static void encodeArraySafe(final CharBuffer output, final List arr) throws IOException {
+    private static void encodeLongListSafe(final EncodeBuffer output, final LongList arr) {
+        output.enter();
+        output.put('[');
+
+        for (int i = 0; i < arr.size(); i++) {
+            if (i > 0) {
+                output.put(',');
+            }
+
+            encodeLongSafe(output, arr.getLong(i));
+        }
+
+        output.put(']');
+        output.exit();
+    }
+
+    private static void encodeFixedListSafe(final EncodeBuffer output, final FixedList arr, final EncoderOptions options) throws IOException {
+        output.enter();
+        output.put('[');
+
+        for (int i = 0; i < arr.size(); i++) {
+            if (i > 0) {
+                output.put(',');
+            }
+
+            encodeFixedSafe(output, arr.getValue(i), arr.getScale(i), options);
+        }
+
+        output.put(']');
+        output.exit();
+    }
+
+    private static void encodeArraySafe(final EncodeBuffer output, final List arr, final EncoderOptions options) throws IOException {
+        if (arr instanceof LongList) {
+            encodeLongListSafe(output, (LongList) arr);
+            return;
+        } else if (arr instanceof FixedList) {
+            encodeFixedListSafe(output, (FixedList) arr, options);
+            return;
+        }
+
+        output.enter();
         output.put('[');
 
         if (!arr.isEmpty()) {
             for (int i = 0; i < arr.size() - 1; i++) {
-                encodeAnySafe(output, arr.get(i));
+                encodeAnySafe(output, arr.get(i), options);
                 output.put(',');
             }
 
-            encodeAnySafe(output, arr.get(arr.size() - 1));
+            encodeAnySafe(output, arr.get(arr.size() - 1), options);
         }
 
         output.put(']');
+        output.exit();
+    }
+
+    private static void encodeFixedSafe(final EncodeBuffer output, final Fixed value, final EncoderOptions options) throws IOException {
+        encodeFixedSafe(output, value.value, value.scale, options);
     }
 
-    private static void encodeFixedSafe(final CharBuffer output, final Fixed value) {
-        output.put(value.toString());
+    private static void encodeFixedSafe(final EncodeBuffer output, final long value, final long scale, final EncoderOptions options) throws IOException {
+        if (!options.isPlainDecimals()) {
+            output.numbers++;
+            output.putLong(value).put('/').putLong(scale);
+        } else {
+            final int fractionDigits = NumberWriter.powerOfTen(scale);
+
+            if (fractionDigits >= 0) {
+                output.numbers++;
+                output.putDecimal(value, fractionDigits);
+            } else {
+                output.numberFallbacks++;
+                encodeDoubleSafe(output, (double) value / (double) scale);
+            }
+        }
     }
 
-    private static void encodeDoubleSafe(final CharBuffer output, final double value) {
-        output.put(Double.toString(value));
+    static void encodeDoubleSafe(final EncodeBuffer output, final double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IOException("Unsupported number: " + value);
+        }
+
+        output.numbers++;
+        output.putDouble(value);
+    }
+
+    static void encodeFloatSafe(final EncodeBuffer output, final float value) throws IOException {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            throw new IOException("Unsupported number: " + value);
+        }
+
+        output.numbers++;
+        output.putFloat(value);
     }
 
-    private static void encodeLongSafe(final CharBuffer output, final long value) {
-        output.put(Long.toString(value));
+    private static void encodeLongSafe(final EncodeBuffer output, final long value) {
+        output.numbers++;
+        output.putLong(value);
     }
 
-    private static void encodeBooleanSafe(final CharBuffer output, final boolean value) {
-        output.put(Boolean.toString(value));
+    private static void encodeBooleanSafe(final EncodeBuffer output, final boolean value) {
+        output.put(value ? "true" : "false");
     }
 }
@@ -0,0 +1,83 @@
+package demo.json;
+
+/**
+ * Optional encoding behaviour for {@link Encoder}. Setters return {@code this} so options can be chained.
+ */
+public final class EncoderOptions {
+    private boolean plainDecimals;
+    private boolean asciiOnly;
+    private EncodeCache cache;
+    private boolean keyDictionary;
+    private JsonMetrics metrics;
+
+    /**
+     * Writes {@link Fixed} values as standard JSON numbers instead of the {@code value/scale} form. A
+     * power-of-ten scale is rendered exactly as a plain decimal ({@code 314/100} becomes {@code 3.14});
+     * any other scale is written as the shortest double that round-trips.
+     */
+    public EncoderOptions plainDecimals(final boolean plainDecimals) {
+        this.plainDecimals = plainDecimals;
+
+        return this;
+    }
+
+    public boolean isPlainDecimals() {
+        return this.plainDecimals;
+    }
+
+    /**
+     * Escapes every non-ASCII char in strings and keys as <code>&#92;uXXXX</code>, so the output is 7-bit clean.
+     * Supplementary characters are written as an escaped surrogate pair.
+     */
+    public EncoderOptions asciiOnly(final boolean asciiOnly) {
+        this.asciiOnly = asciiOnly;
+
+        return this;
+    }
+
+    public boolean isAsciiOnly() {
+        return this.asciiOnly;
+    }
+
+    /**
+     * Serves nested objects from {@code cache} by identity, serializing each map only on its first use.
+     * The top-level map is always encoded. Share one cache only between options that produce the same output.
+     */
+    public EncoderOptions cache(final EncodeCache cache) {
+        this.cache = cache;
+
+        return this;
+    }
+
+    public EncodeCache getCache() {
+        return this.cache;
+    }
+
+    /**
+     * Binary output only: writes each distinct object key once and refers back to it by index, which
+     * shrinks documents that repeat a schema and lets the decoder reuse the key strings.
+     */
+    public EncoderOptions keyDictionary(final boolean keyDictionary) {
+        this.keyDictionary = keyDictionary;
+
+        return this;
+    }
+
+    public boolean isKeyDictionary() {
+        return this.keyDictionary;
+    }
+
+    /**
+     * Reports the size, shape and latency of each encode to {@code metrics}. Unset by default, in which
+     * case nothing is measured.
+     */
+    public EncoderOptions metrics(final JsonMetrics metrics) {
+        this.metrics = metrics;
+
+        return this;
+    }
+
+    public JsonMetrics getMetrics() {
+        return this.metrics;
+    }
+}
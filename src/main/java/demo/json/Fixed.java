@@ -1,6 +1,11 @@
 package demo.json;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 public final class Fixed extends Number {
@@ -50,7 +55,7 @@ public final class Fixed extends Number {
 
     @Override
     public String toString() {
-        return String.format("%d/%d", this.value, this.scale);
+        return this.value + "/" + this.scale;
     }
 
     @Override
@@ -73,169 +78,449 @@ public final class Fixed extends Number {
         return Objects.hash(value, scale);
     }
 
-    private static double decodeDouble(final CharBuffer data) {
-        int offset = 0;
-        data.mark();
-
-        while (data.hasRemaining()) {
-            switch (data.get()) {
-                case '0':
-                case '1':
-                case '2':
-                case '3':
-                case '4':
-                case '5':
-                case '6':
-                case '7':
-                case '8':
-                case '9':
-                case '-':
-                case '.':
-                case 'e':
-                case 'E':
-                    offset++;
-                    break;
-                default:
-                    data.reset();
+    private static final long[] POW10 = {
+        1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L,
+        10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+        1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+    };
 
-                    final CharBuffer subData = data.slice();
+    static final long OVERFLOW_GUARD = Long.MAX_VALUE / 10L;
+    static final int MAX_EXPONENT = 1_000_000;
 
-                    data.position(data.position() + offset);
-                    subData.limit(offset);
+    /*
+     * Applies the decimal exponent k (value * 10^-k) and stores the resulting scale. The magnitude is passed
+     * negated so that Long.MIN_VALUE fits. A scale of 0 marks a number that does not fit a long value with a
+     * long power-of-ten scale.
+     */
+    static long scale(final long negated, final boolean isNegative, final int k, final long[] scales, final int index) {
+        if (k == 0) {
+            scales[index] = 1L;
+            return (isNegative) ? negated : -negated;
+        } else if (k > 0) {
+            if (k >= POW10.length) {
+                scales[index] = 0L;
+                return 0L;
+            }
 
-                    return Double.parseDouble(subData.toString());
+            scales[index] = POW10[k];
+            return (isNegative) ? negated : -negated;
+        } else {
+            if (-k >= POW10.length || negated < Long.MIN_VALUE / POW10[-k]) {
+                scales[index] = 0L;
+                return 0L;
             }
-        }
 
-        throw new NumberFormatException("Malformed Double!");
+            scales[index] = 1L;
+            return (isNegative) ? negated * POW10[-k] : -negated * POW10[-k];
+        }
     }
 
-    public static Fixed decodeFixed(final CharBuffer strval) {
+    /**
+     * Single-pass number parser shared by every char-based entry point. Returns the value and stores its
+     * scale at {@code scales[index]}. If the number is out of range, or its scale is written as zero, the
+     * stored scale is 0 and the buffer is left at the start of the number.
+     */
+    static long decodeFixed(final CharBuffer data, final long[] scales, final int index) {
+        final int start = data.position();
+        final int limit = data.limit();
+        int pos = start;
         boolean isNegative = false;
-        long intPart = 0L;
-        long value = 0L;
-        int digits = 0;
-        boolean hasDecimal = false;
-        boolean isFixed = false;
-        boolean isDone = false;
+        long negated = 0L;
+        int dot = -1;
 
-        strval.mark();
+        if (pos < limit && data.get(pos) == '-') {
+            isNegative = true;
+            pos++;
+        }
 
-        while (!isDone && strval.hasRemaining()) {
-            final char lookup = strval.get();
+        // accumulated negatively; the last digit may be 8 only for Long.MIN_VALUE
+        final int lastDigit = (isNegative) ? 8 : 7;
 
-            switch (lookup) {
-                case '-':
-                    isNegative = true;
-                    break;
-                case '1':
-                case '2':
-                case '3':
-                case '4':
-                case '5':
-                case '6':
-                case '7':
-                case '8':
-                case '9':
-                case '0':
-                    value = value * 10L + (lookup - '0');
-                    digits ++;
-                    break;
-                case '/':
-                    intPart = value;
-                    value = 0L;
-                    isFixed = true;
-                    break;
-                case '.':
-                    intPart = value;
-                    value = 0L;
-                    digits = 0;
-                    hasDecimal = true;
-                    break;
+        while (pos < limit) {
+            final char lookup = data.get(pos);
+
+            if (lookup >= '0' && lookup <= '9') {
+                final int digit = lookup - '0';
+
+                if (negated <= -OVERFLOW_GUARD && (negated < -OVERFLOW_GUARD || digit > lastDigit)) {
+                    scales[index] = 0L;
+                    return 0L;
+                }
+
+                negated = negated * 10L - digit;
+                pos++;
+            } else if (lookup == '.' && dot < 0) {
+                dot = pos++;
+            } else {
+                break;
+            }
+        }
+
+        int k = (dot < 0) ? 0 : pos - dot - 1;
+
+        if (pos < limit) {
+            switch (data.get(pos)) {
+                case '/': {
+                    if (dot >= 0) {
+                        break;
+                    }
+
+                    long scale = 0L;
+
+                    while (++pos < limit) {
+                        final int digit = data.get(pos) - '0';
+
+                        if (digit < 0 || digit > 9) {
+                            break;
+                        } else if (scale >= OVERFLOW_GUARD) {
+                            scales[index] = 0L;
+                            return 0L;
+                        }
+
+                        scale = scale * 10L + digit;
+                    }
+
+                    if (scale == 0L) {
+                        // shares the out-of-range marker; decodeBigNumber resolves it
+                        scales[index] = 0L;
+                        return 0L;
+                    }
+
+                    data.position(pos);
+                    scales[index] = scale;
+                    return (isNegative) ? negated : -negated;
+                }
                 case 'e':
-                case 'E':
-                    strval.reset();
-                    return new Fixed(decodeDouble(strval));
+                case 'E': {
+                    boolean isNegativeExponent = false;
+                    int exponent = 0;
+
+                    if (++pos < limit) {
+                        final char sign = data.get(pos);
+
+                        if (sign == '-' || sign == '+') {
+                            isNegativeExponent = (sign == '-');
+                            pos++;
+                        }
+                    }
+
+                    while (pos < limit) {
+                        final int digit = data.get(pos) - '0';
+
+                        if (digit < 0 || digit > 9) {
+                            break;
+                        } else if (exponent > MAX_EXPONENT) {
+                            scales[index] = 0L;
+                            return 0L;
+                        }
+
+                        exponent = exponent * 10 + digit;
+                        pos++;
+                    }
+
+                    k += (isNegativeExponent) ? exponent : -exponent;
+                    break;
+                }
                 default:
-                    strval.position(strval.position() - 1);
-                    isDone = true;
                     break;
             }
         }
 
-        if (isFixed) {
-            return (isNegative) ? new Fixed(-intPart, value) : new Fixed(intPart, value);
-        } else if (hasDecimal) {
-            long scale = 1L;
+        final long result = scale(negated, isNegative, k, scales, index);
 
-            for (int i = 0; i < digits; i++) {
-                scale *= 10L;
-            }
-
-            return (isNegative) ? new Fixed(-intPart * scale - value, scale) : new Fixed(intPart * scale + value, scale);
-        } else {
-            return (isNegative) ? new Fixed(-value, 1) : new Fixed(value, 1);
+        if (scales[index] != 0L) {
+            data.position(pos);
         }
+
+        return result;
     }
 
-    public static Fixed parseFixed(final String strval) {
-        final char[] carr = strval.toCharArray();
+    /**
+     * Byte twin of {@link #decodeFixed(CharBuffer, long[], int)}.
+     */
+    static long decodeFixed(final ByteBuffer data, final long[] scales, final int index) {
+        final int start = data.position();
+        final int limit = data.limit();
+        int pos = start;
         boolean isNegative = false;
-        long intPart = 0L;
-        long value = 0L;
-        int digits = 0;
-        boolean hasDecimal = false;
-        boolean isFixed = false;
-
-        for (int i = 0; i < carr.length; i++) {
-            switch (carr[i]) {
-                case '-':
-                    isNegative = true;
-                    break;
-                case '0':
-                case '1':
-                case '2':
-                case '3':
-                case '4':
-                case '5':
-                case '6':
-                case '7':
-                case '8':
-                case '9':
-                    value = value * 10L + (carr[i] - '0');
-                    digits++;
-                    break;
-                case '/':
-                    intPart = value;
-                    value = 0L;
-                    isFixed = true;
-                    break;
-                case '.':
-                    intPart = value;
-                    value = 0L;
-                    digits = 0;
-                    hasDecimal = true;
-                    break;
+        long negated = 0L;
+        int dot = -1;
+
+        if (pos < limit && data.get(pos) == '-') {
+            isNegative = true;
+            pos++;
+        }
+
+        // accumulated negatively; the last digit may be 8 only for Long.MIN_VALUE
+        final int lastDigit = (isNegative) ? 8 : 7;
+
+        while (pos < limit) {
+            final byte lookup = data.get(pos);
+
+            if (lookup >= '0' && lookup <= '9') {
+                final int digit = lookup - '0';
+
+                if (negated <= -OVERFLOW_GUARD && (negated < -OVERFLOW_GUARD || digit > lastDigit)) {
+                    scales[index] = 0L;
+                    return 0L;
+                }
+
+                negated = negated * 10L - digit;
+                pos++;
+            } else if (lookup == '.' && dot < 0) {
+                dot = pos++;
+            } else {
+                break;
+            }
+        }
+
+        int k = (dot < 0) ? 0 : pos - dot - 1;
+
+        if (pos < limit) {
+            switch (data.get(pos)) {
+                case '/': {
+                    if (dot >= 0) {
+                        break;
+                    }
+
+                    long scale = 0L;
+
+                    while (++pos < limit) {
+                        final int digit = data.get(pos) - '0';
+
+                        if (digit < 0 || digit > 9) {
+                            break;
+                        } else if (scale >= OVERFLOW_GUARD) {
+                            scales[index] = 0L;
+                            return 0L;
+                        }
+
+                        scale = scale * 10L + digit;
+                    }
+
+                    if (scale == 0L) {
+                        // shares the out-of-range marker; decodeBigNumber resolves it
+                        scales[index] = 0L;
+                        return 0L;
+                    }
+
+                    data.position(pos);
+                    scales[index] = scale;
+                    return (isNegative) ? negated : -negated;
+                }
                 case 'e':
-                case 'E':
-                    return new Fixed(Double.parseDouble(strval));
+                case 'E': {
+                    boolean isNegativeExponent = false;
+                    int exponent = 0;
+
+                    if (++pos < limit) {
+                        final byte sign = data.get(pos);
+
+                        if (sign == '-' || sign == '+') {
+                            isNegativeExponent = (sign == '-');
+                            pos++;
+                        }
+                    }
+
+                    while (pos < limit) {
+                        final int digit = data.get(pos) - '0';
+
+                        if (digit < 0 || digit > 9) {
+                            break;
+                        } else if (exponent > MAX_EXPONENT) {
+                            scales[index] = 0L;
+                            return 0L;
+                        }
+
+                        exponent = exponent * 10 + digit;
+                        pos++;
+                    }
+
+                    k += (isNegativeExponent) ? exponent : -exponent;
+                    break;
+                }
                 default:
-                    throw new NumberFormatException("Invalid character: " + carr[i]);
+                    break;
             }
         }
 
-        if (isFixed) {
-            return (isNegative) ? new Fixed(-intPart, value) : new Fixed(intPart, value);
-        } else if (hasDecimal) {
-            long scale = 1L;
+        final long result = scale(negated, isNegative, k, scales, index);
+
+        if (scales[index] != 0L) {
+            data.position(pos);
+        }
+
+        return result;
+    }
+
+    static boolean isNumberChar(final int lookup) {
+        switch (lookup) {
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+            case '-':
+            case '+':
+            case '.':
+            case '/':
+            case 'e':
+            case 'E':
+                return true;
+            default:
+                return false;
+        }
+    }
 
-            for (int i = 0; i < digits; i++) {
-                scale *= 10L;
+    private static Number toBigNumber(final String text) {
+        final int slash = text.indexOf('/');
+
+        if (slash >= 0) {
+            if (isZeroScale(text, slash + 1)) {
+                return new Fixed(Long.parseLong(text.substring(0, slash)), 0L);
             }
 
-            return (isNegative) ? new Fixed(-intPart * scale - value, scale) : new Fixed(intPart * scale + value, scale);
+            throw new NumberFormatException("Fixed number out of range: " + text);
+        } else if (text.indexOf('.') >= 0 || text.indexOf('e') >= 0 || text.indexOf('E') >= 0) {
+            return new BigDecimal(text);
         } else {
-            return (isNegative) ? new Fixed(-value, 1L) : new Fixed(value, 1L);
+            return new BigInteger(text);
+        }
+    }
+
+    /*
+     * True if the scale after the slash is all zeros (or empty), which the baseline decoded as-is.
+     */
+    private static boolean isZeroScale(final String text, final int start) {
+        for (int i = start; i < text.length(); i++) {
+            if (text.charAt(i) != '0') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static Number decodeBigNumber(final CharBuffer data) {
+        final int start = data.position();
+        int pos = start;
+
+        while (pos < data.limit() && isNumberChar(data.get(pos))) {
+            pos++;
+        }
+
+        final String text = data.subSequence(0, pos - start).toString();
+
+        data.position(pos);
+
+        return toBigNumber(text);
+    }
+
+    private static Number decodeBigNumber(final ByteBuffer data) {
+        final int start = data.position();
+        int pos = start;
+
+        while (pos < data.limit() && isNumberChar(data.get(pos))) {
+            pos++;
+        }
+
+        final byte[] digits = new byte[pos - start];
+
+        data.get(digits);
+
+        return toBigNumber(new String(digits, StandardCharsets.US_ASCII));
+    }
+
+    private static Number toNumber(final CharBuffer data, final long[] scratch) {
+        final long value = decodeFixed(data, scratch, 0);
+
+        return (scratch[0] != 0L) ? new Fixed(value, scratch[0]) : decodeBigNumber(data);
+    }
+
+    /*
+     * Decoder entry point: a number that BigInteger or BigDecimal cannot represent either, such as one with
+     * an exponent beyond int range, is reported as malformed input rather than as an unchecked exception.
+     */
+    static Number decodeNumber(final CharBuffer data, final long[] scratch) throws IOException {
+        try {
+            return toNumber(data, scratch);
+        } catch (NumberFormatException ex) {
+            throw new IOException("Malformed Number!", ex);
         }
     }
+
+    private static Number toNumber(final ByteBuffer data, final long[] scratch) {
+        final long value = decodeFixed(data, scratch, 0);
+
+        return (scratch[0] != 0L) ? new Fixed(value, scratch[0]) : decodeBigNumber(data);
+    }
+
+    static Number decodeNumber(final ByteBuffer data, final long[] scratch) throws IOException {
+        try {
+            return toNumber(data, scratch);
+        } catch (NumberFormatException ex) {
+            throw new IOException("Malformed Number!", ex);
+        }
+    }
+
+    /**
+     * Decodes a number as a {@link Fixed}, or as a {@link BigInteger} / {@link BigDecimal} if its value or
+     * scale does not fit in a {@code long}.
+     */
+    public static Number decodeNumber(final CharBuffer data) {
+        return toNumber(data, new long[1]);
+    }
+
+    public static Number decodeNumber(final ByteBuffer data) {
+        return toNumber(data, new long[1]);
+    }
+
+    /**
+     * @throws NumberFormatException if the number does not fit a {@code Fixed}; see {@link #decodeNumber(CharBuffer)}
+     */
+    public static Fixed decodeFixed(final CharBuffer data) {
+        final Number out = toNumber(data, new long[1]);
+
+        if (out instanceof Fixed) {
+            return (Fixed) out;
+        }
+
+        throw new NumberFormatException("Fixed number out of range: " + out);
+    }
+
+    public static Fixed decodeFixed(final ByteBuffer data) {
+        final Number out = toNumber(data, new long[1]);
+
+        if (out instanceof Fixed) {
+            return (Fixed) out;
+        }
+
+        throw new NumberFormatException("Fixed number out of range: " + out);
+    }
+
+    public static Number parseNumber(final String strval) {
+        final CharBuffer data = CharBuffer.wrap(strval);
+        final Number out = toNumber(data, new long[1]);
+
+        if (data.hasRemaining()) {
+            throw new NumberFormatException("Invalid character: " + data.get());
+        }
+
+        return out;
+    }
+
+    public static Fixed parseFixed(final String strval) {
+        final Number out = parseNumber(strval);
+
+        if (out instanceof Fixed) {
+            return (Fixed) out;
+        }
+
+        throw new NumberFormatException("Fixed number out of range: " + strval);
+    }
 }
@@ -0,0 +1,68 @@
+package demo.json;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@code List<Number>} of {@link Fixed} values stored as parallel {@code long[]} value and scale
+ * arrays. Produced by {@link Decoder} for all-numeric arrays that contain non-integers when
+ * {@link DecoderOptions#primitiveArrays(boolean)} is enabled.
+ */
+public final class FixedList extends AbstractList<Number> implements RandomAccess {
+    private final long[] values;
+    private final long[] scales;
+    private final int size;
+
+    /**
+     * Wraps {@code values} and {@code scales} without copying.
+     */
+    public FixedList(final long[] values, final long[] scales) {
+        this(values, scales, values.length);
+
+        if (scales.length != values.length) {
+            throw new IllegalArgumentException("values and scales differ in length");
+        }
+    }
+
+    FixedList(final long[] values, final long[] scales, final int size) {
+        this.values = values;
+        this.scales = scales;
+        this.size = size;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+        }
+    }
+
+    public long getValue(final int index) {
+        checkIndex(index);
+
+        return this.values[index];
+    }
+
+    public long getScale(final int index) {
+        checkIndex(index);
+
+        return this.scales[index];
+    }
+
+    public double getDouble(final int index) {
+        checkIndex(index);
+
+        return ((double) this.values[index]) / (double) this.scales[index];
+    }
+
+    @Override
+    public Fixed get(final int index) {
+        checkIndex(index);
+
+        return new Fixed(this.values[index], this.scales[index]);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+}
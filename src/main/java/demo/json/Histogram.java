@@ -0,0 +1,119 @@
+package demo.json;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative {@code long} values, such as latencies in nanoseconds or document
+ * lengths. Values below 8 are counted exactly; larger ones fall into four buckets per power of two, so a
+ * reported percentile is within 25% of the true value. Each bucket is a {@link LongAdder}, so concurrent
+ * recording threads update striped cells rather than contending on one counter.
+ */
+public final class Histogram {
+    private static final int EXACT = 8;
+    private static final int BUCKETS = EXACT + (63 - 3) * 4;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    static int bucket(final long value) {
+        if (value < EXACT) {
+            return (value < 0L) ? 0 : (int) value;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - 2)) & 3;
+
+        return EXACT + (exponent - 3) * 4 + sub;
+    }
+
+    /*
+     * Largest value that falls into bucket.
+     */
+    static long highest(final int bucket) {
+        if (bucket < EXACT) {
+            return bucket;
+        } else if (bucket == BUCKETS - 1) {
+            return Long.MAX_VALUE;
+        }
+
+        final int next = bucket + 1 - EXACT;
+
+        return ((4L + (next & 3)) << (next / 4 + 1)) - 1L;
+    }
+
+    public void record(final long value) {
+        this.buckets[bucket(value)].increment();
+        this.sum.add(value);
+        this.max.accumulate(value);
+    }
+
+    public long getCount() {
+        long out = 0L;
+
+        for (LongAdder bucket : this.buckets) {
+            out += bucket.sum();
+        }
+
+        return out;
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    public double getMean() {
+        final long count = getCount();
+
+        return (count == 0L) ? 0.0 : (double) this.sum.sum() / count;
+    }
+
+    /**
+     * Returns an upper bound for the value at {@code percentile} (0 to 100) of the recorded values, or 0 if
+     * nothing was recorded.
+     */
+    public long getPercentile(final double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Invalid percentile: " + percentile);
+        }
+
+        final long[] counts = new long[BUCKETS];
+        long total = 0L;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts[i] = this.buckets[i].sum();
+        }
+
+        final long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0L;
+
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+
+            if (seen >= rank) {
+                return Math.min(highest(i), getMax());
+            }
+        }
+
+        return 0L;
+    }
+
+    /**
+     * Clears the histogram. Values recorded concurrently with a reset may be partly lost.
+     */
+    public void reset() {
+        for (LongAdder bucket : this.buckets) {
+            bucket.reset();
+        }
+
+        this.sum.reset();
+        this.max.reset();
+    }
+}
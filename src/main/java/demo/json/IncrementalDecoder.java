@@ -0,0 +1,777 @@
+package demo.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Push-style decoder for a JSON object that arrives in chunks, such as reads from a non-blocking channel.
+ * Each {@link #feed} consumes the whole chunk and keeps the parse state, including partial strings,
+ * numbers, literals, escapes and UTF-8 sequences, so no chunk has to be retained by the caller. It returns
+ * {@code false} while more input is needed and {@code true} once the object is complete; the chunk is then
+ * left positioned just past it, so pipelined documents can be fed again after {@link #take()}.
+ * <p>
+ * Limits, key interning, compact objects and container factories from {@link DecoderOptions} apply, with
+ * {@link DecoderOptions#maxLength(int)} bounding the chars of each document. Arrays are always decoded
+ * into lists. Like {@link ReusableDecoder}, an instance is meant to be kept per connection and learns
+ * typical container sizes; it is not thread-safe. After an {@code IOException} it must be {@link #reset()}.
+ */
+public final class IncrementalDecoder {
+    private static final int VALUE = 0;
+    private static final int FIRST_ELEMENT = 1;
+    private static final int FIRST_MEMBER = 2;
+    private static final int NAME = 3;
+    private static final int COLON = 4;
+    private static final int AFTER_VALUE = 5;
+    private static final int STRING = 6;
+    private static final int ESCAPE = 7;
+    private static final int UNICODE = 8;
+    private static final int NUMBER = 9;
+    private static final int LITERAL = 10;
+    private static final int DONE = 11;
+    private static final int FAILED = 12;
+
+    private static final int BATCH_SIZE = 8192;
+    private static final int MAX_RETAINED_TEXT = 64 * 1024;
+
+    private final DecodeContext ctx;
+    private final CharsetDecoder utf8 = StandardCharsets.UTF_8.newDecoder();
+    private final ByteBuffer carry = ByteBuffer.allocate(4);
+    private char[] batch;
+    private CharBuffer batchBuffer;
+    private CharBuffer view;
+    private StringBuilder text = new StringBuilder();
+    private char[] token = new char[32];
+    private int tokenLength;
+
+    private Object[] containers = new Object[16];
+    private String[] names = new String[16];
+    private int depth;
+    private int state = VALUE;
+    private boolean isName;
+    private String literal;
+    private int matched;
+    private int unicode;
+    private int hexDigits;
+    private long length;
+    private Map<String, Object> result;
+
+    // reported to ctx.metrics when a document completes; nanos only counts time spent in feed()
+    private long nanos;
+    private int deepest;
+    private int strings;
+    private int stringEscapes;
+    private int numbers;
+    private int escapes;
+    private int escapedStrings;
+    private int numberFallbacks;
+
+    public IncrementalDecoder() {
+        this(new DecoderOptions());
+    }
+
+    public IncrementalDecoder(final DecoderOptions options) {
+        this.ctx = new DecodeContext(options);
+        this.ctx.learnSizes();
+    }
+
+    /**
+     * Consumes chars from {@code data} until it is exhausted or the document is complete.
+     *
+     * @return {@code true} if a complete document is ready for {@link #take()}, {@code false} if more
+     * input is needed
+     */
+    public boolean feed(final CharBuffer data) throws IOException {
+        if (this.state == DONE) {
+            return true;
+        }
+
+        this.checkUsable();
+
+        final long started = (this.ctx.metrics == null) ? 0L : System.nanoTime();
+
+        try {
+            if (data.hasArray()) {
+                final int offset = data.arrayOffset();
+                final int end = this.process(data.array(), offset + data.position(), offset + data.limit());
+
+                data.position(end - offset);
+                // don't pin the caller's chunk between calls
+                this.view = null;
+            } else {
+                final char[] batch = this.batch();
+
+                while (data.hasRemaining() && this.state != DONE) {
+                    final int count = Math.min(data.remaining(), BATCH_SIZE);
+
+                    data.get(batch, 0, count);
+                    data.position(data.position() - count + this.process(batch, 0, count));
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            this.state = FAILED;
+            throw ex;
+        }
+
+        this.measured(started);
+
+        return this.state == DONE;
+    }
+
+    /**
+     * Consumes UTF-8 bytes from {@code data} until it is exhausted or the document is complete. A
+     * multi-byte sequence split across chunks is kept until the next call.
+     *
+     * @return {@code true} if a complete document is ready for {@link #take()}, {@code false} if more
+     * input is needed
+     */
+    public boolean feed(final ByteBuffer data) throws IOException {
+        if (this.state == DONE) {
+            return true;
+        }
+
+        this.checkUsable();
+
+        final long started = (this.ctx.metrics == null) ? 0L : System.nanoTime();
+
+        try {
+            if (this.carry.position() > 0 && !this.completeCarry(data)) {
+                this.measured(started);
+                return false;
+            }
+
+            final char[] batch = this.batch();
+            final CharBuffer chars = this.batchBuffer;
+
+            while (true) {
+                chars.clear();
+
+                final CoderResult result = this.utf8.decode(data, chars, false);
+                final int count = chars.position();
+                final int end = this.process(batch, 0, count);
+
+                if (this.state == DONE) {
+                    // hand back the bytes of the chars decoded past the end of the document
+                    data.position(data.position() - utf8Length(batch, end, count));
+                    break;
+                } else if (result.isError()) {
+                    throw new IOException("Malformed UTF-8!");
+                } else if (result.isUnderflow()) {
+                    this.carry.put(data);
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException ex) {
+            this.state = FAILED;
+            throw ex;
+        }
+
+        this.measured(started);
+
+        return this.state == DONE;
+    }
+
+    public boolean isComplete() {
+        return this.state == DONE;
+    }
+
+    /**
+     * Signals that no more input will arrive.
+     *
+     * @return {@code true} if a document is complete, {@code false} if no document was started
+     * @throws IOException if a document was started but is incomplete
+     */
+    public boolean endOfInput() throws IOException {
+        if (this.state == DONE) {
+            return true;
+        } else if (this.state == VALUE && this.depth == 0 && this.carry.position() == 0) {
+            return false;
+        }
+
+        this.state = FAILED;
+        throw new IOException("Unexpected end of JSON!");
+    }
+
+    /**
+     * Returns the completed document and resets the decoder for the next one.
+     *
+     * @throws IllegalStateException if no document is complete
+     */
+    public Map<String, Object> take() {
+        if (this.state != DONE) {
+            throw new IllegalStateException("No complete document!");
+        }
+
+        final Map<String, Object> out = this.result;
+
+        this.reset();
+
+        return out;
+    }
+
+    /**
+     * Discards any partial document and error state.
+     */
+    public void reset() {
+        Arrays.fill(this.containers, 0, this.depth, null);
+        Arrays.fill(this.names, 0, this.depth, null);
+        this.depth = 0;
+        this.state = VALUE;
+        this.literal = null;
+        this.length = 0L;
+        this.result = null;
+        this.tokenLength = 0;
+        this.carry.clear();
+        this.utf8.reset();
+        this.nanos = 0L;
+        this.deepest = 0;
+        this.strings = 0;
+        this.numbers = 0;
+        this.escapes = 0;
+        this.escapedStrings = 0;
+        this.numberFallbacks = 0;
+
+        if (this.text.capacity() > MAX_RETAINED_TEXT) {
+            // don't pin a buffer sized for one huge string to this decoder
+            this.text = new StringBuilder();
+        }
+    }
+
+    private void measured(final long started) {
+        final JsonMetrics metrics = this.ctx.metrics;
+
+        if (metrics == null) {
+            return;
+        }
+
+        this.nanos += System.nanoTime() - started;
+
+        if (this.state == DONE) {
+            final JsonStats stats = new JsonStats();
+
+            stats.nanos = this.nanos;
+            stats.length = this.length;
+            stats.maxDepth = this.deepest;
+            stats.strings = this.strings;
+            stats.numbers = this.numbers;
+            stats.escapes = this.escapes;
+            stats.escapedStrings = this.escapedStrings;
+            stats.numberFallbacks = this.numberFallbacks;
+            metrics.decoded(stats);
+        }
+    }
+
+    private void checkUsable() {
+        if (this.state == FAILED) {
+            throw new IllegalStateException("Decoder failed; reset() before reuse!");
+        }
+    }
+
+    private char[] batch() {
+        if (this.batch == null) {
+            this.batch = new char[BATCH_SIZE];
+            this.batchBuffer = CharBuffer.wrap(this.batch);
+        }
+
+        return this.batch;
+    }
+
+    /*
+     * Feeds the rest of a split UTF-8 sequence. Returns false if data ran out before it was complete.
+     */
+    private boolean completeCarry(final ByteBuffer data) throws IOException {
+        final int lead = this.carry.get(0) & 0xFF;
+        final int need = (lead >= 0xF0) ? 4 : (lead >= 0xE0) ? 3 : 2;
+
+        while (this.carry.position() < need && data.hasRemaining()) {
+            this.carry.put(data.get());
+        }
+
+        if (this.carry.position() < need) {
+            return false;
+        }
+
+        this.carry.flip();
+
+        final char[] batch = this.batch();
+        final CharBuffer chars = this.batchBuffer;
+
+        chars.clear();
+
+        if (this.utf8.decode(this.carry, chars, false).isError() || this.carry.hasRemaining()) {
+            throw new IOException("Malformed UTF-8!");
+        }
+
+        this.carry.clear();
+        // a non-ASCII char cannot end the document, so all of it is consumed
+        this.process(batch, 0, chars.position());
+
+        return true;
+    }
+
+    static int utf8Length(final char[] data, final int start, final int end) {
+        int out = 0;
+
+        for (int i = start; i < end; i++) {
+            final char lookup = data[i];
+
+            if (lookup < 0x80) {
+                out += 1;
+            } else if (lookup < 0x800 || Character.isSurrogate(lookup)) {
+                // each half of a surrogate pair accounts for two of its four bytes
+                out += 2;
+            } else {
+                out += 3;
+            }
+        }
+
+        return out;
+    }
+
+    private static boolean isWhitespace(final char lookup) {
+        return lookup == ' ' || lookup == '\n' || lookup == '\r' || lookup == '\t';
+    }
+
+    /*
+     * Runs the state machine over [pos, limit) and returns the position it stopped at: limit, or just past
+     * the end of the document.
+     */
+    private int process(final char[] data, int pos, final int limit) throws IOException {
+        final int start = pos;
+
+        while (pos < limit && this.state != DONE) {
+            final char lookup = data[pos];
+
+            switch (this.state) {
+                case VALUE:
+                    if (isWhitespace(lookup)) {
+                        pos++;
+                    } else {
+                        pos = this.startValue(data, pos, limit);
+                    }
+                    break;
+                case FIRST_ELEMENT:
+                    if (isWhitespace(lookup)) {
+                        pos++;
+                    } else if (lookup == ']') {
+                        pos++;
+                        this.containers[--this.depth] = null;
+                        this.attach(this.ctx.emptyArray());
+                    } else {
+                        this.containers[this.depth - 1] = this.ctx.newArray(this.depth, 0);
+                        pos = this.startValue(data, pos, limit);
+                    }
+                    break;
+                case FIRST_MEMBER:
+                case NAME:
+                    if (isWhitespace(lookup)) {
+                        pos++;
+                    } else if (lookup == '}' && this.state == FIRST_MEMBER) {
+                        pos++;
+                        this.containers[--this.depth] = null;
+                        this.attach(this.ctx.emptyObject());
+                    } else if (lookup == '\"') {
+                        if (this.state == FIRST_MEMBER) {
+                            this.containers[this.depth - 1] = this.ctx.newObject(this.depth);
+                        }
+
+                        this.isName = true;
+                        pos = this.startString(data, pos + 1, limit);
+                    } else {
+                        throw new IOException("Malformed Object!");
+                    }
+                    break;
+                case COLON:
+                    if (isWhitespace(lookup)) {
+                        pos++;
+                    } else if (lookup == ':') {
+                        pos++;
+                        this.state = VALUE;
+                    } else {
+                        throw new IOException("Malformed Object!");
+                    }
+                    break;
+                case AFTER_VALUE:
+                    pos++;
+
+                    if (lookup == ',') {
+                        this.state = (this.containers[this.depth - 1] instanceof Map) ? NAME : VALUE;
+                    } else if (!isWhitespace(lookup)) {
+                        this.close(lookup);
+                    }
+                    break;
+                case STRING:
+                    pos = this.continueString(data, pos, limit);
+                    break;
+                case ESCAPE:
+                    pos++;
+                    this.escape(lookup);
+                    break;
+                case UNICODE:
+                    pos++;
+                    this.unicode = (this.unicode << 4) | Decoder.decodeHex(lookup);
+
+                    if (++this.hexDigits == 4) {
+                        // surrogate pairs arrive as two consecutive escapes and are appended unit by unit
+                        this.text.append((char) this.unicode);
+                        this.state = STRING;
+                    }
+                    break;
+                case NUMBER:
+                    pos = this.continueNumber(data, pos, limit);
+                    break;
+                case LITERAL:
+                    pos = this.continueLiteral(data, pos, limit);
+                    break;
+                default:
+                    throw new IllegalStateException();
+            }
+        }
+
+        this.length += pos - start;
+
+        if (this.length > this.ctx.maxLength) {
+            throw new IOException("Maximum length exceeded!");
+        }
+
+        return pos;
+    }
+
+    private int startValue(final char[] data, final int pos, final int limit) throws IOException {
+        final char lookup = data[pos];
+
+        if (this.depth == 0 && lookup != '{') {
+            throw new IOException("Malformed JSON!");
+        }
+
+        switch (lookup) {
+            case '\"':
+                this.isName = false;
+                return this.startString(data, pos + 1, limit);
+            case '{':
+                this.push(FIRST_MEMBER);
+                return pos + 1;
+            case '[':
+                this.push(FIRST_ELEMENT);
+                return pos + 1;
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+            case '-':
+                this.tokenLength = 0;
+                return this.continueNumber(data, pos, limit);
+            case 't':
+            case 'T':
+                return this.startLiteral("true", pos);
+            case 'f':
+            case 'F':
+                return this.startLiteral("false", pos);
+            case 'n':
+            case 'N':
+                return this.startLiteral("null", pos);
+            default:
+                throw new IOException("Malformed JSON!");
+        }
+    }
+
+    private void push(final int state) throws IOException {
+        if (this.depth >= this.ctx.maxDepth) {
+            throw new IOException("Maximum depth exceeded!");
+        }
+
+        if (this.depth == this.containers.length) {
+            this.containers = Arrays.copyOf(this.containers, this.depth * 2);
+            this.names = Arrays.copyOf(this.names, this.depth * 2);
+        }
+
+        if (++this.depth > this.deepest) {
+            this.deepest = this.depth;
+        }
+
+        this.state = state;
+    }
+
+    private void attach(final Object value) throws IOException {
+        if (this.depth == 0) {
+            this.result = Decoder.cast(value);
+            this.state = DONE;
+            return;
+        }
+
+        final Object parent = this.containers[this.depth - 1];
+
+        if (parent instanceof Map) {
+            final Map<String, Object> map = Decoder.cast(parent);
+
+            map.put(this.names[this.depth - 1], value);
+            this.checkEntries(map.size());
+        } else {
+            final List<Object> list = Decoder.cast(parent);
+
+            list.add(value);
+            this.checkEntries(list.size());
+        }
+
+        this.state = AFTER_VALUE;
+    }
+
+    private void close(final char lookup) throws IOException {
+        final Object parent = this.containers[this.depth - 1];
+
+        if (parent instanceof Map) {
+            if (lookup != '}') {
+                throw new IOException("Malformed Object!");
+            }
+
+            this.ctx.objectDone(this.depth, Decoder.cast(parent));
+        } else {
+            if (lookup != ']') {
+                throw new IOException("Malformed Array!");
+            }
+
+            this.ctx.arrayDone(this.depth, ((List<?>) parent).size());
+        }
+
+        this.containers[--this.depth] = null;
+        this.names[this.depth] = null;
+        this.attach(parent);
+    }
+
+    private void checkEntries(final int count) throws IOException {
+        if (count > this.ctx.maxEntries) {
+            throw new IOException("Maximum entries exceeded!");
+        }
+    }
+
+    private void checkStringLength(final int length) throws IOException {
+        if (length > this.ctx.maxStringLength) {
+            throw new IOException("Maximum string length exceeded!");
+        }
+    }
+
+    private CharBuffer view(final char[] data) {
+        if (this.view == null || this.view.array() != data) {
+            this.view = CharBuffer.wrap(data);
+        }
+
+        return this.view;
+    }
+
+    /*
+     * Strings that close within the chunk and have no escapes are built straight from it; anything else
+     * is accumulated in text.
+     */
+    private int startString(final char[] data, final int start, final int limit) throws IOException {
+        int end = start;
+
+        this.stringEscapes = this.escapes;
+
+        while (end < limit && data[end] != '\"' && data[end] != '\\') {
+            end++;
+        }
+
+        if (end < limit && data[end] == '\"') {
+            this.checkStringLength(end - start);
+
+            if (this.isName && this.ctx.keys != null) {
+                int hash = 0;
+
+                for (int i = start; i < end; i++) {
+                    hash = 31 * hash + data[i];
+                }
+
+                this.string(this.ctx.keys.intern(this.view(data), start, end, hash));
+            } else {
+                this.string(new String(data, start, end - start));
+            }
+
+            return end + 1;
+        }
+
+        this.text.setLength(0);
+        this.state = STRING;
+
+        return this.continueString(data, start, limit);
+    }
+
+    private int continueString(final char[] data, final int start, final int limit) throws IOException {
+        int end = start;
+
+        while (end < limit && data[end] != '\"' && data[end] != '\\') {
+            end++;
+        }
+
+        this.text.append(data, start, end - start);
+        this.checkStringLength(this.text.length());
+
+        if (end == limit) {
+            return end;
+        } else if (data[end] == '\\') {
+            this.state = ESCAPE;
+            return end + 1;
+        }
+
+        final String str = this.text.toString();
+
+        this.string((this.isName && this.ctx.keys != null) ? this.ctx.keys.intern(str) : str);
+
+        return end + 1;
+    }
+
+    private void string(final String str) throws IOException {
+        this.strings++;
+
+        if (this.escapes != this.stringEscapes) {
+            this.escapedStrings++;
+        }
+
+        if (this.isName) {
+            this.names[this.depth - 1] = str;
+            this.state = COLON;
+        } else {
+            this.attach(str);
+        }
+    }
+
+    private void escape(final char lookup) throws IOException {
+        this.state = STRING;
+        this.escapes++;
+
+        switch (lookup) {
+            case '\"':
+            case '\\':
+            case '/':
+                this.text.append(lookup);
+                break;
+            case 'b':
+                this.text.append('\b');
+                break;
+            case 'f':
+                this.text.append('\f');
+                break;
+            case 'n':
+                this.text.append('\n');
+                break;
+            case 'r':
+                this.text.append('\r');
+                break;
+            case 't':
+                this.text.append('\t');
+                break;
+            case 'u':
+                this.unicode = 0;
+                this.hexDigits = 0;
+                this.state = UNICODE;
+                break;
+            default:
+                throw new IOException("Unexpected escaped character: " + lookup);
+        }
+    }
+
+    /*
+     * A number can only end at the char after it, so one that runs to the end of the chunk is kept in token
+     * until that char arrives. Numbers that end within the chunk are decoded from it directly.
+     */
+    private int continueNumber(final char[] data, final int start, final int limit) throws IOException {
+        int end = start;
+
+        while (end < limit && Fixed.isNumberChar(data[end])) {
+            end++;
+        }
+
+        if (end == limit || this.tokenLength > 0) {
+            final int count = end - start;
+
+            if (this.tokenLength + count > this.token.length) {
+                this.token = Arrays.copyOf(this.token, Math.max(this.token.length * 2, this.tokenLength + count));
+            }
+
+            System.arraycopy(data, start, this.token, this.tokenLength, count);
+            this.tokenLength += count;
+
+            if (end == limit) {
+                this.state = NUMBER;
+                return end;
+            }
+
+            this.attach(this.number(this.view(this.token), 0, this.tokenLength));
+            this.tokenLength = 0;
+        } else {
+            this.attach(this.number(this.view(data), start, end));
+        }
+
+        return end;
+    }
+
+    private Number number(final CharBuffer data, final int start, final int end) throws IOException {
+        data.limit(end).position(start);
+
+        try {
+            final Number out = Fixed.decodeNumber(data, this.ctx.number);
+
+            if (data.hasRemaining()) {
+                throw new IOException("Malformed Number!");
+            }
+
+            this.numbers++;
+
+            if (!(out instanceof Fixed)) {
+                this.numberFallbacks++;
+            }
+
+            return out;
+        } finally {
+            data.clear();
+        }
+    }
+
+    private int startLiteral(final String word, final int pos) {
+        this.literal = word;
+        this.matched = 1;
+        this.state = LITERAL;
+
+        return pos + 1;
+    }
+
+    private int continueLiteral(final char[] data, int pos, final int limit) throws IOException {
+        final String word = this.literal;
+
+        // literals are matched case-insensitively, like the buffer decoder
+        while (pos < limit && this.matched < word.length()) {
+            if ((data[pos++] | 0x20) != word.charAt(this.matched++)) {
+                throw new IOException("Malformed JSON!");
+            }
+        }
+
+        if (this.matched == word.length()) {
+            this.literal = null;
+
+            switch (word) {
+                case "true":
+                    this.attach(Boolean.TRUE);
+                    break;
+                case "false":
+                    this.attach(Boolean.FALSE);
+                    break;
+                default:
+                    this.attach(null);
+                    break;
+            }
+        }
+
+        return pos;
+    }
+}
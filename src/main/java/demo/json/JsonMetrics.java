@@ -0,0 +1,17 @@
+package demo.json;
+
+/**
+ * Receives one {@link JsonStats} per instrumented call. Set through {@link DecoderOptions#metrics} or
+ * {@link EncoderOptions#metrics}; calls without it are not measured. Callbacks run on the decoding or
+ * encoding thread, so implementations must be thread-safe and cheap. {@link JsonMetricsRecorder}
+ * aggregates them into counters and histograms.
+ * <p>
+ * Decoding is reported by {@link Decoder#decode(java.nio.CharBuffer, DecoderOptions)},
+ * {@link Decoder#decode(String, DecoderOptions)}, {@link ReusableDecoder} and {@link IncrementalDecoder};
+ * encoding by the {@link Encoder} methods that take {@link EncoderOptions} and a map.
+ */
+public interface JsonMetrics {
+    void decoded(JsonStats stats);
+
+    void encoded(JsonStats stats);
+}
@@ -0,0 +1,111 @@
+package demo.json;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link JsonMetrics} that aggregates every reported call into striped counters and {@link Histogram}s,
+ * separately for decoding and encoding. One instance can be shared by all threads and read at any time,
+ * for example by a periodic exporter.
+ */
+public final class JsonMetricsRecorder implements JsonMetrics {
+    /**
+     * Totals for one direction.
+     */
+    public static final class Totals {
+        private final Histogram nanos = new Histogram();
+        private final Histogram lengths = new Histogram();
+        private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0L);
+        private final LongAdder strings = new LongAdder();
+        private final LongAdder numbers = new LongAdder();
+        private final LongAdder escapes = new LongAdder();
+        private final LongAdder escapedStrings = new LongAdder();
+        private final LongAdder numberFallbacks = new LongAdder();
+
+        private Totals() {}
+
+        void add(final JsonStats stats) {
+            this.nanos.record(stats.nanos);
+            this.lengths.record(stats.length);
+            this.maxDepth.accumulate(stats.maxDepth);
+            this.strings.add(stats.strings);
+            this.numbers.add(stats.numbers);
+            this.escapes.add(stats.escapes);
+            this.escapedStrings.add(stats.escapedStrings);
+            this.numberFallbacks.add(stats.numberFallbacks);
+        }
+
+        /**
+         * Latency per call in nanoseconds; its count is the number of calls.
+         */
+        public Histogram getNanos() {
+            return this.nanos;
+        }
+
+        /**
+         * Document length per call in chars.
+         */
+        public Histogram getLengths() {
+            return this.lengths;
+        }
+
+        public long getMaxDepth() {
+            return this.maxDepth.get();
+        }
+
+        public long getStrings() {
+            return this.strings.sum();
+        }
+
+        public long getNumbers() {
+            return this.numbers.sum();
+        }
+
+        public long getEscapes() {
+            return this.escapes.sum();
+        }
+
+        public long getEscapedStrings() {
+            return this.escapedStrings.sum();
+        }
+
+        public long getNumberFallbacks() {
+            return this.numberFallbacks.sum();
+        }
+
+        /**
+         * Clears the totals. Calls reported concurrently with a reset may be partly lost.
+         */
+        public void reset() {
+            this.nanos.reset();
+            this.lengths.reset();
+            this.maxDepth.reset();
+            this.strings.reset();
+            this.numbers.reset();
+            this.escapes.reset();
+            this.escapedStrings.reset();
+            this.numberFallbacks.reset();
+        }
+    }
+
+    private final Totals decoding = new Totals();
+    private final Totals encoding = new Totals();
+
+    @Override
+    public void decoded(final JsonStats stats) {
+        this.decoding.add(stats);
+    }
+
+    @Override
+    public void encoded(final JsonStats stats) {
+        this.encoding.add(stats);
+    }
+
+    public Totals getDecoding() {
+        return this.decoding;
+    }
+
+    public Totals getEncoding() {
+        return this.encoding;
+    }
+}
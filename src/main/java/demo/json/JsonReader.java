@@ -0,0 +1,257 @@
+package demo.json;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Pull-style token reader over a JSON document. Strings and numbers are only decoded when
+ * {@link #getString()} or {@link #getFixed()} is called, so values that are skipped cost a scan
+ * and no allocation.
+ */
+public final class JsonReader {
+    private static final int EXPECT_VALUE = 0;
+    private static final int EXPECT_NAME = 1;
+    private static final int AFTER_VALUE = 2;
+    private static final int DONE = 3;
+
+    private final CharBuffer data;
+    private boolean[] objects = new boolean[32];
+    private int depth;
+    private int state = EXPECT_VALUE;
+    private JsonToken token;
+    private int valueStart;
+
+    public JsonReader(final CharBuffer data) {
+        this.data = data;
+    }
+
+    public JsonReader(final String strval) {
+        this(CharBuffer.wrap(strval));
+    }
+
+    public JsonToken currentToken() {
+        return this.token;
+    }
+
+    public int getDepth() {
+        return this.depth;
+    }
+
+    public JsonToken nextToken() throws IOException {
+        Decoder.skipWhitespace(this.data);
+
+        if (this.state == AFTER_VALUE) {
+            if (this.depth == 0) {
+                this.state = DONE;
+            } else {
+                final char sep = peek();
+
+                if (sep == ',') {
+                    this.data.get();
+                    Decoder.skipWhitespace(this.data);
+                    this.state = this.objects[this.depth - 1] ? EXPECT_NAME : EXPECT_VALUE;
+                } else if (sep != '}' && sep != ']') {
+                    throw new IOException(this.objects[this.depth - 1] ? "Malformed Object!" : "Malformed Array!");
+                }
+            }
+        }
+
+        if (this.state == DONE) {
+            return this.token = JsonToken.END_DOCUMENT;
+        }
+
+        final char lookup = peek();
+
+        switch (lookup) {
+            case '}':
+                if (this.depth == 0 || !this.objects[this.depth - 1] || this.state == EXPECT_VALUE) {
+                    throw new IOException("Malformed Object!");
+                }
+
+                return close(JsonToken.END_OBJECT);
+            case ']':
+                if (this.depth == 0 || this.objects[this.depth - 1]) {
+                    throw new IOException("Malformed Array!");
+                }
+
+                return close(JsonToken.END_ARRAY);
+            default:
+                break;
+        }
+
+        if (this.state == EXPECT_NAME) {
+            if (lookup != '\"') {
+                throw new IOException("Malformed Object!");
+            }
+
+            this.valueStart = this.data.position();
+            Decoder.skipString(this.data);
+            Decoder.skipWhitespace(this.data);
+
+            if (peek() != ':') {
+                throw new IOException("Malformed Object!");
+            }
+
+            this.data.get();
+            this.state = EXPECT_VALUE;
+
+            return this.token = JsonToken.NAME;
+        }
+
+        switch (lookup) {
+            case '\"':
+                this.valueStart = this.data.position();
+                Decoder.skipString(this.data);
+                return value(JsonToken.STRING);
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+            case '-':
+                this.valueStart = this.data.position();
+                Decoder.skipNumber(this.data);
+                return value(JsonToken.NUMBER);
+            case '{':
+                return open(true, JsonToken.BEGIN_OBJECT);
+            case '[':
+                return open(false, JsonToken.BEGIN_ARRAY);
+            case 't':
+            case 'T':
+                Decoder.decodeTrue(this.data);
+                return value(JsonToken.TRUE);
+            case 'f':
+            case 'F':
+                Decoder.decodeFalse(this.data);
+                return value(JsonToken.FALSE);
+            case 'n':
+            case 'N':
+                Decoder.decodeNull(this.data);
+                return value(JsonToken.NULL);
+            default:
+                throw new IOException("Malformed JSON!");
+        }
+    }
+
+    public String getString() throws IOException {
+        if (this.token != JsonToken.STRING && this.token != JsonToken.NAME) {
+            throw new IllegalStateException("Current token is not a string: " + this.token);
+        }
+
+        final int position = this.data.position();
+
+        this.data.position(this.valueStart);
+
+        try {
+            return Decoder.decodeString(this.data);
+        } finally {
+            this.data.position(position);
+        }
+    }
+
+    public Fixed getFixed() {
+        if (this.token != JsonToken.NUMBER) {
+            throw new IllegalStateException("Current token is not a number: " + this.token);
+        }
+
+        final int position = this.data.position();
+
+        this.data.position(this.valueStart);
+
+        try {
+            return Fixed.decodeFixed(this.data);
+        } finally {
+            this.data.position(position);
+        }
+    }
+
+    /**
+     * Like {@link #getFixed()}, but falls back to {@code BigInteger} or {@code BigDecimal} for numbers that
+     * do not fit in a {@code Fixed}.
+     */
+    public Number getNumber() {
+        if (this.token != JsonToken.NUMBER) {
+            throw new IllegalStateException("Current token is not a number: " + this.token);
+        }
+
+        final int position = this.data.position();
+
+        this.data.position(this.valueStart);
+
+        try {
+            return Fixed.decodeNumber(this.data);
+        } finally {
+            this.data.position(position);
+        }
+    }
+
+    public boolean getBoolean() {
+        switch (this.token) {
+            case TRUE:
+                return true;
+            case FALSE:
+                return false;
+            default:
+                throw new IllegalStateException("Current token is not a boolean: " + this.token);
+        }
+    }
+
+    /**
+     * Skips the children of the current token. On {@code BEGIN_OBJECT} or {@code BEGIN_ARRAY} the reader
+     * advances to the matching end token; on {@code NAME} the field's value is skipped. Any other token is
+     * already complete and nothing is consumed.
+     */
+    public void skipValue() throws IOException {
+        if (this.token == JsonToken.NAME) {
+            nextToken();
+        }
+
+        if (this.token == JsonToken.BEGIN_OBJECT || this.token == JsonToken.BEGIN_ARRAY) {
+            final int target = this.depth - 1;
+
+            while (this.depth > target) {
+                nextToken();
+            }
+        }
+    }
+
+    private char peek() throws IOException {
+        if (!this.data.hasRemaining()) {
+            throw new IOException("Unexpected end of JSON!");
+        }
+
+        return this.data.get(this.data.position());
+    }
+
+    private JsonToken value(final JsonToken value) {
+        this.state = AFTER_VALUE;
+
+        return this.token = value;
+    }
+
+    private JsonToken open(final boolean isObject, final JsonToken begin) {
+        this.data.get();
+
+        if (this.depth == this.objects.length) {
+            this.objects = Arrays.copyOf(this.objects, this.depth * 2);
+        }
+
+        this.objects[this.depth++] = isObject;
+        this.state = isObject ? EXPECT_NAME : EXPECT_VALUE;
+
+        return this.token = begin;
+    }
+
+    private JsonToken close(final JsonToken end) {
+        this.data.get();
+        this.depth--;
+
+        return value(end);
+    }
+}
@@ -0,0 +1,76 @@
+package demo.json;
+
+/**
+ * Measurements of one decode or encode call, passed to {@link JsonMetrics}.
+ */
+public final class JsonStats {
+    long length;
+    long nanos;
+    int maxDepth;
+    int strings;
+    int numbers;
+    int escapes;
+    int escapedStrings;
+    int numberFallbacks;
+
+    JsonStats() {}
+
+    /**
+     * Chars of JSON text read or written.
+     */
+    public long getLength() {
+        return this.length;
+    }
+
+    public long getNanos() {
+        return this.nanos;
+    }
+
+    /**
+     * Deepest nesting of objects and arrays; a flat object has depth 1.
+     */
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * Strings read or written, object keys included.
+     */
+    public int getStrings() {
+        return this.strings;
+    }
+
+    public int getNumbers() {
+        return this.numbers;
+    }
+
+    /**
+     * Escape sequences decoded or written.
+     */
+    public int getEscapes() {
+        return this.escapes;
+    }
+
+    /**
+     * Strings that contained at least one escape and so took the slow path.
+     */
+    public int getEscapedStrings() {
+        return this.escapedStrings;
+    }
+
+    /**
+     * Numbers that left the {@code long} fast path: when decoding, numbers whose value or exponent did not
+     * fit a {@link Fixed}; when encoding with {@link EncoderOptions#plainDecimals(boolean)}, values whose
+     * scale is not a power of ten and were written as doubles.
+     */
+    public int getNumberFallbacks() {
+        return this.numberFallbacks;
+    }
+
+    @Override
+    public String toString() {
+        return "JsonStats{length=" + this.length + ", nanos=" + this.nanos + ", maxDepth=" + this.maxDepth
+                + ", strings=" + this.strings + ", numbers=" + this.numbers + ", escapes=" + this.escapes
+                + ", escapedStrings=" + this.escapedStrings + ", numberFallbacks=" + this.numberFallbacks + "}";
+    }
+}
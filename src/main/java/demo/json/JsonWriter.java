@@ -0,0 +1,544 @@
+package demo.json;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental JSON writer that emits UTF-8 directly into a {@link ByteBuffer}, {@link OutputStream} or
+ * {@link WritableByteChannel}. Output is staged in a fixed-size chunk and handed to the target whenever
+ * the chunk fills up, so neither a document tree nor an intermediate {@code String} is required.
+ */
+public final class JsonWriter implements Closeable, Flushable {
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024;
+    private static final int MIN_CHUNK_SIZE = 32;
+
+    private static final byte EMPTY_DOCUMENT = 0;
+    private static final byte NONEMPTY_DOCUMENT = 1;
+    private static final byte EMPTY_OBJECT = 2;
+    private static final byte NONEMPTY_OBJECT = 3;
+    private static final byte DANGLING_NAME = 4;
+    private static final byte EMPTY_ARRAY = 5;
+    private static final byte NONEMPTY_ARRAY = 6;
+
+    private static final byte[] HEX = {
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+    };
+
+    private final OutputStream stream;
+    private final WritableByteChannel channel;
+    private final ByteBuffer target;
+    private final byte[] buffer;
+    private final ByteBuffer chunk;
+    private int count;
+    private final char[] digits = new char[NumberWriter.MAX_CHARS];
+    private boolean plainDecimals;
+
+    private byte[] stack = new byte[32];
+    private int depth = 1;
+
+    private JsonWriter(final OutputStream stream, final WritableByteChannel channel, final ByteBuffer target, final int chunkSize) {
+        this.stream = stream;
+        this.channel = channel;
+        this.target = target;
+        this.buffer = new byte[Math.max(chunkSize, MIN_CHUNK_SIZE)];
+        this.chunk = (channel != null) ? ByteBuffer.wrap(this.buffer) : null;
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    public JsonWriter(final OutputStream stream) {
+        this(stream, DEFAULT_CHUNK_SIZE);
+    }
+
+    public JsonWriter(final OutputStream stream, final int chunkSize) {
+        this(stream, null, null, chunkSize);
+    }
+
+    public JsonWriter(final WritableByteChannel channel) {
+        this(channel, DEFAULT_CHUNK_SIZE);
+    }
+
+    public JsonWriter(final WritableByteChannel channel, final int chunkSize) {
+        this(null, channel, null, chunkSize);
+    }
+
+    /**
+     * Writes into {@code target}. Throws {@link java.nio.BufferOverflowException} once the buffer has no
+     * room for the next chunk.
+     */
+    public JsonWriter(final ByteBuffer target) {
+        this(target, DEFAULT_CHUNK_SIZE);
+    }
+
+    public JsonWriter(final ByteBuffer target, final int chunkSize) {
+        this(null, null, target, chunkSize);
+    }
+
+    /**
+     * Writes {@link Fixed} values as plain JSON numbers instead of the {@code value/scale} form; see
+     * {@link EncoderOptions#plainDecimals(boolean)}.
+     */
+    public JsonWriter plainDecimals(final boolean plainDecimals) {
+        this.plainDecimals = plainDecimals;
+
+        return this;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        writeByte('{');
+
+        return this;
+    }
+
+    public JsonWriter endObject() throws IOException {
+        final byte top = this.stack[this.depth - 1];
+
+        if (top != EMPTY_OBJECT && top != NONEMPTY_OBJECT) {
+            throw new IllegalStateException("Not inside an object");
+        }
+
+        this.depth--;
+        writeByte('}');
+
+        return this;
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        writeByte('[');
+
+        return this;
+    }
+
+    public JsonWriter endArray() throws IOException {
+        final byte top = this.stack[this.depth - 1];
+
+        if (top != EMPTY_ARRAY && top != NONEMPTY_ARRAY) {
+            throw new IllegalStateException("Not inside an array");
+        }
+
+        this.depth--;
+        writeByte(']');
+
+        return this;
+    }
+
+    public JsonWriter name(final String name) throws IOException {
+        switch (this.stack[this.depth - 1]) {
+            case NONEMPTY_OBJECT:
+                writeByte(',');
+                break;
+            case EMPTY_OBJECT:
+                break;
+            default:
+                throw new IllegalStateException("Names are only valid inside an object, before a value");
+        }
+
+        this.stack[this.depth - 1] = DANGLING_NAME;
+        writeString(name);
+        writeByte(':');
+
+        return this;
+    }
+
+    public JsonWriter value(final String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+
+        beforeValue();
+        writeString(value);
+
+        return this;
+    }
+
+    public JsonWriter value(final long value) throws IOException {
+        beforeValue();
+        writeLong(value);
+
+        return this;
+    }
+
+    public JsonWriter value(final double value) throws IOException {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON does not support " + value);
+        }
+
+        beforeValue();
+        writeDigits(NumberWriter.writeDouble(this.digits, 0, value));
+
+        return this;
+    }
+
+    public JsonWriter value(final float value) throws IOException {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            throw new IllegalArgumentException("JSON does not support " + value);
+        }
+
+        beforeValue();
+        writeDigits(NumberWriter.writeFloat(this.digits, 0, value));
+
+        return this;
+    }
+
+    public JsonWriter value(final boolean value) throws IOException {
+        beforeValue();
+        writeAscii(value ? "true" : "false");
+
+        return this;
+    }
+
+    public JsonWriter value(final Fixed value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+
+        beforeValue();
+        writeFixed(value);
+
+        return this;
+    }
+
+    public JsonWriter nullValue() throws IOException {
+        beforeValue();
+        writeAscii("null");
+
+        return this;
+    }
+
+    /**
+     * Writes a value from the {@link Decoder} document model: {@code Map}, {@code List}, {@code String},
+     * {@code Fixed}, boxed primitives or {@code null}. {@link RawJson} is copied verbatim.
+     */
+    public JsonWriter value(final Object value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        } else if (value instanceof Map) {
+            beginObject();
+
+            for (Map.Entry<?, ?> pair : ((Map<?, ?>) value).entrySet()) {
+                name((String) pair.getKey());
+                value(pair.getValue());
+            }
+
+            return endObject();
+        } else if (value instanceof LongList) {
+            final LongList list = (LongList) value;
+
+            beginArray();
+
+            for (int i = 0; i < list.size(); i++) {
+                value(list.getLong(i));
+            }
+
+            return endArray();
+        } else if (value instanceof List) {
+            beginArray();
+
+            for (Object element : (List<?>) value) {
+                value(element);
+            }
+
+            return endArray();
+        } else if (value instanceof String) {
+            return value((String) value);
+        } else if (value instanceof Fixed) {
+            return value((Fixed) value);
+        } else if (value instanceof Double) {
+            return value((double) (Double) value);
+        } else if (value instanceof Float) {
+            return value((float) (Float) value);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return value(((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            return value((boolean) (Boolean) value);
+        } else if (value instanceof RawJson) {
+            beforeValue();
+            writeBytes(((RawJson) value).json.getBytes(StandardCharsets.UTF_8));
+
+            return this;
+        } else if (value instanceof BigInteger || value instanceof BigDecimal) {
+            final String digits = value.toString();
+
+            beforeValue();
+
+            // may be longer than a chunk, so no bulk writeAscii
+            for (int i = 0; i < digits.length(); i++) {
+                writeByte(digits.charAt(i));
+            }
+
+            return this;
+        } else {
+            throw new IOException("Unsupported Object type: " + value.getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushChunk();
+
+        if (this.stream != null) {
+            this.stream.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            if (this.stream != null) {
+                this.stream.close();
+            } else if (this.channel != null) {
+                this.channel.close();
+            }
+        }
+
+        if (this.depth > 1 || this.stack[0] != NONEMPTY_DOCUMENT) {
+            throw new IOException("Incomplete JSON document!");
+        }
+    }
+
+    private void push(final byte state) {
+        if (this.depth == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, this.depth * 2);
+        }
+
+        this.stack[this.depth++] = state;
+    }
+
+    private void beforeValue() throws IOException {
+        switch (this.stack[this.depth - 1]) {
+            case EMPTY_DOCUMENT:
+                this.stack[this.depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case EMPTY_ARRAY:
+                this.stack[this.depth - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                writeByte(',');
+                break;
+            case DANGLING_NAME:
+                this.stack[this.depth - 1] = NONEMPTY_OBJECT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                throw new IllegalStateException("JSON must have only one top-level value");
+            default:
+                throw new IllegalStateException("Expected a name inside an object");
+        }
+    }
+
+    private void flushChunk() throws IOException {
+        if (this.count == 0) {
+            return;
+        }
+
+        if (this.stream != null) {
+            this.stream.write(this.buffer, 0, this.count);
+        } else if (this.channel != null) {
+            this.chunk.clear().limit(this.count);
+
+            while (this.chunk.hasRemaining()) {
+                this.channel.write(this.chunk);
+            }
+        } else {
+            this.target.put(this.buffer, 0, this.count);
+        }
+
+        this.count = 0;
+    }
+
+    private void require(final int bytes) throws IOException {
+        if (this.buffer.length - this.count < bytes) {
+            flushChunk();
+        }
+    }
+
+    private void writeByte(final int b) throws IOException {
+        if (this.count == this.buffer.length) {
+            flushChunk();
+        }
+
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    private void writeBytes(final byte[] bytes) throws IOException {
+        int offset = 0;
+
+        // may be longer than a chunk, so copy it through in chunk-sized pieces
+        while (offset < bytes.length) {
+            if (this.count == this.buffer.length) {
+                flushChunk();
+            }
+
+            final int length = Math.min(bytes.length - offset, this.buffer.length - this.count);
+
+            System.arraycopy(bytes, offset, this.buffer, this.count, length);
+            this.count += length;
+            offset += length;
+        }
+    }
+
+    private void writeAscii(final String str) throws IOException {
+        require(str.length());
+
+        for (int i = 0; i < str.length(); i++) {
+            this.buffer[this.count++] = (byte) str.charAt(i);
+        }
+    }
+
+    private void writeLong(final long value) throws IOException {
+        require(20);
+
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+
+        long remaining = value;
+
+        if (remaining < 0L) {
+            this.buffer[this.count++] = '-';
+            remaining = -remaining;
+        }
+
+        int digits = 1;
+
+        for (long bound = 10L; digits < 19 && remaining >= bound; bound *= 10L) {
+            digits++;
+        }
+
+        int position = this.count + digits;
+
+        this.count = position;
+
+        do {
+            this.buffer[--position] = (byte) ('0' + (int) (remaining % 10L));
+            remaining /= 10L;
+        } while (remaining != 0L);
+    }
+
+    private void writeDigits(final int length) throws IOException {
+        require(length);
+
+        for (int i = 0; i < length; i++) {
+            this.buffer[this.count++] = (byte) this.digits[i];
+        }
+    }
+
+    private void writeFixed(final Fixed value) throws IOException {
+        if (!this.plainDecimals) {
+            writeLong(value.value);
+            writeByte('/');
+            writeLong(value.scale);
+            return;
+        }
+
+        final int fractionDigits = NumberWriter.powerOfTen(value.scale);
+
+        if (fractionDigits >= 0) {
+            writeDigits(NumberWriter.writeDecimal(this.digits, 0, value.value, fractionDigits));
+        } else {
+            final double approximation = value.doubleValue();
+
+            if (Double.isNaN(approximation) || Double.isInfinite(approximation)) {
+                throw new IllegalArgumentException("JSON does not support " + value);
+            }
+
+            writeDigits(NumberWriter.writeDouble(this.digits, 0, approximation));
+        }
+    }
+
+    private void writeUnicodeEscape(final char c) {
+        this.buffer[this.count++] = '\\';
+        this.buffer[this.count++] = 'u';
+        this.buffer[this.count++] = HEX[(c >> 12) & 0xF];
+        this.buffer[this.count++] = HEX[(c >> 8) & 0xF];
+        this.buffer[this.count++] = HEX[(c >> 4) & 0xF];
+        this.buffer[this.count++] = HEX[c & 0xF];
+    }
+
+    private void writeString(final String str) throws IOException {
+        writeByte('\"');
+
+        final int length = str.length();
+
+        for (int i = 0; i < length; i++) {
+            // worst case per char: a six byte unicode escape, or four bytes for a surrogate pair
+            require(6);
+
+            final char c = str.charAt(i);
+
+            if (c < 0x80) {
+                switch (c) {
+                    case '\"':
+                        this.buffer[this.count++] = '\\';
+                        this.buffer[this.count++] = '\"';
+                        break;
+                    case '\\':
+                        this.buffer[this.count++] = '\\';
+                        this.buffer[this.count++] = '\\';
+                        break;
+                    case '\n':
+                        this.buffer[this.count++] = '\\';
+                        this.buffer[this.count++] = 'n';
+                        break;
+                    case '\r':
+                        this.buffer[this.count++] = '\\';
+                        this.buffer[this.count++] = 'r';
+                        break;
+                    case '\t':
+                        this.buffer[this.count++] = '\\';
+                        this.buffer[this.count++] = 't';
+                        break;
+                    case '\b':
+                        this.buffer[this.count++] = '\\';
+                        this.buffer[this.count++] = 'b';
+                        break;
+                    case '\f':
+                        this.buffer[this.count++] = '\\';
+                        this.buffer[this.count++] = 'f';
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            writeUnicodeEscape(c);
+                        } else {
+                            this.buffer[this.count++] = (byte) c;
+                        }
+                        break;
+                }
+            } else if (c < 0x800) {
+                this.buffer[this.count++] = (byte) (0xC0 | (c >> 6));
+                this.buffer[this.count++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, str.charAt(++i));
+
+                this.buffer[this.count++] = (byte) (0xF0 | (codePoint >> 18));
+                this.buffer[this.count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                this.buffer[this.count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                this.buffer[this.count++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // unpaired surrogates cannot be encoded as UTF-8; keep them as escapes
+                writeUnicodeEscape(c);
+            } else {
+                this.buffer[this.count++] = (byte) (0xE0 | (c >> 12));
+                this.buffer[this.count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                this.buffer[this.count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+        writeByte('\"');
+    }
+}
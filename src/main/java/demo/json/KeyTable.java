@@ -0,0 +1,132 @@
+package demo.json;
+
+import java.nio.CharBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded, open-addressed symbol table for decoded object keys. Lookups hash the raw key chars straight from
+ * the input and return the canonical {@code String} on a hit without allocating. Probing is capped and a full
+ * probe window evicts its home slot, so hostile key sets cost at most a fixed amount of work and memory.
+ */
+final class KeyTable {
+    static final int DEFAULT_CAPACITY = 2048;
+    static final int MAX_KEY_LENGTH = 64;
+    private static final int MAX_PROBE = 8;
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final int mask;
+    private final int seed = ThreadLocalRandom.current().nextInt() | 1;
+
+    KeyTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    KeyTable(final int capacity) {
+        final int size = Integer.highestOneBit(Math.max(capacity, MAX_PROBE) - 1) << 1;
+
+        this.keys = new String[size];
+        this.hashes = new int[size];
+        this.mask = size - 1;
+    }
+
+    private int home(final int hash) {
+        final int mixed = (hash ^ this.seed) * 0x9E3779B9;
+
+        return (mixed ^ (mixed >>> 16)) & this.mask;
+    }
+
+    private static boolean matches(final String key, final CharBuffer data, final int start, final int length) {
+        if (key.length() != length) {
+            return false;
+        }
+
+        if (data.hasArray()) {
+            final char[] array = data.array();
+            final int offset = data.arrayOffset() + start;
+
+            for (int i = 0; i < length; i++) {
+                if (array[offset + i] != key.charAt(i)) {
+                    return false;
+                }
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                if (data.get(start + i) != key.charAt(i)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static String newKey(final CharBuffer data, final int start, final int length) {
+        if (data.hasArray()) {
+            return new String(data.array(), data.arrayOffset() + start, length);
+        }
+
+        final CharBuffer view = data.duplicate();
+
+        view.position(start);
+        view.limit(start + length);
+
+        return view.toString();
+    }
+
+    /**
+     * Returns the canonical key for the chars {@code [start, end)} of {@code data}, whose
+     * {@link String#hashCode()} is {@code hash}.
+     */
+    String intern(final CharBuffer data, final int start, final int end, final int hash) {
+        final int length = end - start;
+
+        if (length > MAX_KEY_LENGTH) {
+            return newKey(data, start, length);
+        }
+
+        final int home = home(hash);
+
+        for (int i = 0; i < MAX_PROBE; i++) {
+            final int slot = (home + i) & this.mask;
+            final String key = this.keys[slot];
+
+            if (key == null) {
+                return insert(slot, hash, newKey(data, start, length));
+            } else if (this.hashes[slot] == hash && matches(key, data, start, length)) {
+                return key;
+            }
+        }
+
+        return insert(home, hash, newKey(data, start, length));
+    }
+
+    String intern(final String str) {
+        if (str.length() > MAX_KEY_LENGTH) {
+            return str;
+        }
+
+        final int hash = str.hashCode();
+        final int home = home(hash);
+
+        for (int i = 0; i < MAX_PROBE; i++) {
+            final int slot = (home + i) & this.mask;
+            final String key = this.keys[slot];
+
+            if (key == null) {
+                return insert(slot, hash, str);
+            } else if (this.hashes[slot] == hash && key.equals(str)) {
+                return key;
+            }
+        }
+
+        return insert(home, hash, str);
+    }
+
+    private String insert(final int slot, final int hash, final String key) {
+        this.keys[slot] = key;
+        this.hashes[slot] = hash;
+
+        return key;
+    }
+}
@@ -0,0 +1,49 @@
+package demo.json;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Read-only array view over a {@link LazyDocument}. Elements are decoded on first access, then cached.
+ * Not safe for concurrent use.
+ */
+final class LazyArray extends AbstractList<Object> implements RandomAccess {
+    private static final Object UNSET = new Object();
+
+    private final LazyDocument document;
+    private final int block;
+    private final int size;
+    private Object[] values;
+
+    LazyArray(final LazyDocument document, final int block) {
+        this.document = document;
+        this.block = block;
+        this.size = document.header(block) >>> 1;
+    }
+
+    @Override
+    public Object get(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+        }
+
+        if (this.values == null) {
+            this.values = new Object[this.size];
+            Arrays.fill(this.values, UNSET);
+        }
+
+        Object value = this.values[index];
+
+        if (value == UNSET) {
+            value = this.values[index] = this.document.decodeValue(this.document.word(this.block + 1 + index));
+        }
+
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+}
@@ -0,0 +1,316 @@
+package demo.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Structural index over a JSON document. A single scan records where every value starts in a flat
+ * {@code int[]} tape; {@link LazyObject} and {@link LazyArray} views decode from those offsets on access.
+ *
+ * <p>Containers are written to the tape in post-order. Each container block starts with a header of
+ * {@code count << 1 | isObject}, followed by {@code (keyOffset, valueWord)} pairs for objects or
+ * {@code valueWord}s for arrays. A non-negative value word is the char offset of a scalar; a negative
+ * word is {@code ~blockIndex} of a nested container.
+ */
+final class LazyDocument {
+    private final CharBuffer data;
+    private final CharBuffer view;
+    private int[] tape;
+    private int tapeSize;
+    private final int root;
+    private final long[] number = new long[1];
+
+    LazyDocument(final CharBuffer data) throws IOException {
+        this.data = data.duplicate();
+        this.view = data.duplicate();
+        this.tape = new int[Math.max(16, data.remaining() >> 3)];
+        this.root = scan(data);
+    }
+
+    int root() {
+        return this.root;
+    }
+
+    int header(final int block) {
+        return this.tape[block];
+    }
+
+    int word(final int index) {
+        return this.tape[index];
+    }
+
+    private void appendHeader(final int header) {
+        if (this.tapeSize == this.tape.length) {
+            this.tape = Arrays.copyOf(this.tape, this.tape.length * 2);
+        }
+
+        this.tape[this.tapeSize++] = header;
+    }
+
+    private void append(final int[] src, final int from, final int to) {
+        final int count = to - from;
+
+        if (this.tape.length - this.tapeSize < count) {
+            this.tape = Arrays.copyOf(this.tape, Math.max(this.tape.length * 2, this.tapeSize + count));
+        }
+
+        System.arraycopy(src, from, this.tape, this.tapeSize, count);
+        this.tapeSize += count;
+    }
+
+    private static int skipWhitespace(final CharBuffer data, final int pos, final int limit) {
+        return Scan.skipWhitespace(data, pos, limit);
+    }
+
+    private static int skipString(final CharBuffer data, int pos, final int limit) throws IOException {
+        pos++;
+
+        while (true) {
+            pos = Scan.indexOfQuoteOrBackslash(data, pos, limit);
+
+            if (pos >= limit) {
+                throw new IOException("Unclosed String!");
+            } else if (data.get(pos) == '\"') {
+                return pos + 1;
+            }
+
+            // skip the escaped character
+            pos += 2;
+        }
+    }
+
+    private static int skipScalar(final CharBuffer data, int pos, final int limit) throws IOException {
+        switch (data.get(pos)) {
+            case 't':
+            case 'T':
+            case 'n':
+            case 'N':
+                return pos + 4;
+            case 'f':
+            case 'F':
+                return pos + 5;
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+            case '-':
+                break;
+            default:
+                throw new IOException("Malformed JSON!");
+        }
+
+        while (++pos < limit) {
+            switch (data.get(pos)) {
+                case '0':
+                case '1':
+                case '2':
+                case '3':
+                case '4':
+                case '5':
+                case '6':
+                case '7':
+                case '8':
+                case '9':
+                case '-':
+                case '+':
+                case '.':
+                case '/':
+                case 'e':
+                case 'E':
+                    break;
+                default:
+                    return pos;
+            }
+        }
+
+        return pos;
+    }
+
+    private int scan(final CharBuffer data) throws IOException {
+        final int limit = data.limit();
+        int pos = skipWhitespace(data, data.position(), limit);
+
+        if (pos >= limit || data.get(pos) != '{') {
+            throw new IOException("Malformed JSON!");
+        }
+
+        // pending entries of the open containers, and where each open container's entries begin
+        int[] pending = new int[64];
+        int pendingSize = 0;
+        int[] frames = new int[16];
+        int depth = 0;
+        boolean isObject = true;
+        boolean expectValue = false;
+        int rootBlock;
+
+        while (true) {
+            pos = skipWhitespace(data, pos, limit);
+
+            if (pos >= limit) {
+                throw new IOException("Malformed JSON!");
+            }
+
+            final char lookup = data.get(pos);
+
+            if (pendingSize + 2 > pending.length) {
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+
+            if (lookup == '{' || lookup == '[') {
+                if (depth > 0 && !expectValue) {
+                    throw new IOException(isObject ? "Malformed Object!" : "Malformed Array!");
+                }
+
+                if (depth + 1 > frames.length) {
+                    frames = Arrays.copyOf(frames, frames.length * 2);
+                }
+
+                frames[depth++] = (pendingSize << 1) | (isObject ? 1 : 0);
+                isObject = (lookup == '{');
+                expectValue = !isObject;
+                pos++;
+                continue;
+            }
+
+            if (lookup == '}' || lookup == ']') {
+                if (depth == 0 || isObject != (lookup == '}') || (isObject && expectValue)) {
+                    throw new IOException(isObject ? "Malformed Object!" : "Malformed Array!");
+                }
+
+                final int frame = frames[--depth];
+                final int start = frame >>> 1;
+                final int entries = pendingSize - start;
+                final int block = this.tapeSize;
+
+                appendHeader(((isObject ? entries >> 1 : entries) << 1) | (isObject ? 1 : 0));
+                append(pending, start, pendingSize);
+
+                pendingSize = start;
+                isObject = (frame & 1) == 1;
+                pos++;
+
+                if (depth == 0) {
+                    rootBlock = block;
+                    break;
+                }
+
+                pending[pendingSize++] = ~block;
+                pos = afterValue(data, pos, limit, isObject);
+                expectValue = !isObject;
+                continue;
+            }
+
+            if (isObject && !expectValue) {
+                if (lookup != '\"') {
+                    throw new IOException("Malformed Object!");
+                }
+
+                pending[pendingSize++] = pos;
+                pos = skipWhitespace(data, skipString(data, pos, limit), limit);
+
+                if (pos >= limit || data.get(pos) != ':') {
+                    throw new IOException("Malformed Object!");
+                }
+
+                pos++;
+                expectValue = true;
+                continue;
+            }
+
+            pending[pendingSize++] = pos;
+            pos = (lookup == '\"') ? skipString(data, pos, limit) : skipScalar(data, pos, limit);
+            pos = afterValue(data, pos, limit, isObject);
+            expectValue = !isObject;
+        }
+
+        data.position(pos);
+
+        return rootBlock;
+    }
+
+    private static int afterValue(final CharBuffer data, int pos, final int limit, final boolean isObject) throws IOException {
+        pos = skipWhitespace(data, pos, limit);
+
+        if (pos < limit) {
+            switch (data.get(pos)) {
+                case ',':
+                    return pos + 1;
+                case '}':
+                case ']':
+                    return pos;
+                default:
+                    break;
+            }
+        }
+
+        throw new IOException(isObject ? "Malformed Object!" : "Malformed Array!");
+    }
+
+    /**
+     * Returns true if the key starting at {@code offset} (its opening quote) equals {@code key}, without
+     * allocating unless the raw key contains escapes.
+     */
+    boolean keyEquals(final int offset, final String key) {
+        int pos = offset + 1;
+
+        for (int i = 0; i < key.length(); i++, pos++) {
+            final char lookup = this.data.get(pos);
+
+            if (lookup == '\\') {
+                return key.equals(decodeString(offset));
+            } else if (lookup != key.charAt(i)) {
+                return false;
+            }
+        }
+
+        return this.data.get(pos) == '\"';
+    }
+
+    String decodeString(final int offset) {
+        this.view.position(offset);
+
+        try {
+            return Decoder.decodeString(this.view);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    Object decodeValue(final int word) {
+        if (word < 0) {
+            final int block = ~word;
+
+            return ((this.tape[block] & 1) == 1) ? new LazyObject(this, block) : new LazyArray(this, block);
+        }
+
+        switch (this.data.get(word)) {
+            case '\"':
+                return decodeString(word);
+            case 't':
+            case 'T':
+                return Boolean.TRUE;
+            case 'f':
+            case 'F':
+                return Boolean.FALSE;
+            case 'n':
+            case 'N':
+                return null;
+            default:
+                this.view.position(word);
+
+                try {
+                    return Fixed.decodeNumber(this.view, this.number);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+        }
+    }
+}
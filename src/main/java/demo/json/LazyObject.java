@@ -0,0 +1,133 @@
+package demo.json;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only object view over a {@link LazyDocument}. Keys are matched against the raw document text and
+ * values are decoded on first access, then cached. Like {@code HashMap}, {@link #get} returns the last
+ * value of a duplicated key, but iteration reports every member as it appears in the document.
+ * Not safe for concurrent use.
+ */
+final class LazyObject extends AbstractMap<String, Object> {
+    private static final Object UNSET = new Object();
+
+    private final LazyDocument document;
+    private final int block;
+    private final int size;
+    private Object[] values;
+    private String[] keys;
+    private Set<Map.Entry<String, Object>> entries;
+
+    LazyObject(final LazyDocument document, final int block) {
+        this.document = document;
+        this.block = block;
+        this.size = document.header(block) >>> 1;
+    }
+
+    private int keyOffset(final int index) {
+        return this.document.word(this.block + 1 + (index << 1));
+    }
+
+    private int indexOf(final Object key) {
+        if (key instanceof String) {
+            final String str = (String) key;
+
+            for (int i = this.size - 1; i >= 0; i--) {
+                if (this.document.keyEquals(keyOffset(i), str)) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    String key(final int index) {
+        if (this.keys == null) {
+            this.keys = new String[this.size];
+        }
+
+        String key = this.keys[index];
+
+        if (key == null) {
+            key = this.keys[index] = this.document.decodeString(keyOffset(index));
+        }
+
+        return key;
+    }
+
+    Object value(final int index) {
+        if (this.values == null) {
+            this.values = new Object[this.size];
+            Arrays.fill(this.values, UNSET);
+        }
+
+        Object value = this.values[index];
+
+        if (value == UNSET) {
+            value = this.values[index] = this.document.decodeValue(this.document.word(this.block + 2 + (index << 1)));
+        }
+
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(final Object key) {
+        final int index = indexOf(key);
+
+        return (index >= 0) ? value(index) : null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        if (this.entries == null) {
+            this.entries = new AbstractSet<Map.Entry<String, Object>>() {
+                @Override
+                public Iterator<Map.Entry<String, Object>> iterator() {
+                    return new Iterator<Map.Entry<String, Object>>() {
+                        private int index;
+
+                        @Override
+                        public boolean hasNext() {
+                            return this.index < LazyObject.this.size;
+                        }
+
+                        @Override
+                        public Map.Entry<String, Object> next() {
+                            if (this.index >= LazyObject.this.size) {
+                                throw new NoSuchElementException();
+                            }
+
+                            final int current = this.index++;
+
+                            return new SimpleImmutableEntry<>(key(current), value(current));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return LazyObject.this.size;
+                }
+            };
+        }
+
+        return this.entries;
+    }
+}
@@ -0,0 +1,196 @@
+package demo.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads newline-delimited JSON objects from a channel through one refillable buffer. Records are decoded
+ * in place; the buffer only grows when a single record does not fit, so memory use is bounded by the
+ * largest record rather than the input size. When the options need the array core (limits, iterative
+ * decoding, compact objects, a container factory or metrics), each record is widened to chars first and
+ * decoded there.
+ */
+final class LineReader implements Iterator<Map<String, Object>> {
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private final DecodeContext ctx;
+    // unconsumed bytes lie between position and limit
+    private ByteBuffer buffer;
+    // no newline occurs between position and scanned
+    private int scanned;
+    private boolean isFirst = true;
+    private boolean isEndOfInput;
+    private Map<String, Object> next;
+    // only used when ctx.needsArrayCore
+    private CharsetDecoder utf8;
+    private CharBuffer chars;
+
+    LineReader(final ReadableByteChannel channel, final DecodeContext ctx, final int bufferSize) {
+        this.channel = channel;
+        this.ctx = ctx;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.buffer.limit(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.next == null) {
+            try {
+                this.next = this.readRecord();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        return this.next != null;
+    }
+
+    @Override
+    public Map<String, Object> next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final Map<String, Object> out = this.next;
+
+        this.next = null;
+
+        return out;
+    }
+
+    private Map<String, Object> readRecord() throws IOException {
+        while (true) {
+            final int newline = this.findNewline();
+
+            if (newline < 0 && !this.isEndOfInput) {
+                this.fill();
+                continue;
+            }
+
+            final int limit = this.buffer.limit();
+            final int end = (newline < 0) ? limit : newline;
+
+            this.buffer.limit(end);
+
+            if (this.isFirst) {
+                Utf8Decoder.skipByteOrderMark(this.buffer);
+                this.isFirst = false;
+            }
+
+            Utf8Decoder.skipWhitespace(this.buffer);
+
+            Object out = null;
+
+            if (this.buffer.hasRemaining()) {
+                out = (this.ctx.needsArrayCore) ? this.decodeChars() : Utf8Decoder.decodeAny(this.buffer, this.ctx);
+                Utf8Decoder.skipWhitespace(this.buffer);
+
+                if (!(out instanceof Map) || this.buffer.hasRemaining()) {
+                    throw new IOException("Malformed JSON!");
+                }
+            }
+
+            this.buffer.limit(limit);
+            this.buffer.position(Math.min(end + 1, limit));
+            this.scanned = this.buffer.position();
+
+            if (out != null) {
+                return Decoder.cast(out);
+            } else if (newline < 0) {
+                return null;
+            }
+        }
+    }
+
+    /*
+     * Decodes the rest of the record through the array core, which implements the options the UTF-8
+     * decoder does not. Consumes the whole record.
+     */
+    private Object decodeChars() throws IOException {
+        final int length = this.buffer.remaining();
+
+        if (this.utf8 == null) {
+            this.utf8 = StandardCharsets.UTF_8.newDecoder();
+        }
+
+        // a UTF-8 byte never decodes to more than one char
+        if (this.chars == null || this.chars.capacity() < length) {
+            this.chars = CharBuffer.allocate(Math.max(length, 256));
+        }
+
+        this.chars.clear();
+
+        if (this.utf8.reset().decode(this.buffer, this.chars, true).isError() || this.utf8.flush(this.chars).isError()) {
+            throw new IOException("Malformed UTF-8!");
+        }
+
+        this.chars.flip();
+
+        final Object out = new CharArrayDecoder(this.chars, this.ctx).decode();
+
+        Decoder.skipWhitespace(this.chars);
+
+        if (this.chars.hasRemaining()) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return out;
+    }
+
+    private int findNewline() {
+        final byte[] array = this.buffer.array();
+        final int limit = this.buffer.limit();
+
+        for (int i = this.scanned; i < limit; i++) {
+            if (array[i] == '\n') {
+                return i;
+            }
+        }
+
+        this.scanned = limit;
+
+        return -1;
+    }
+
+    private void fill() throws IOException {
+        final int start = this.buffer.position();
+
+        if (start > 0) {
+            this.buffer.compact();
+            this.buffer.flip();
+            this.scanned -= start;
+        }
+
+        if (this.buffer.limit() == this.buffer.capacity()) {
+            // a single record is larger than the buffer
+            final ByteBuffer grown = ByteBuffer.allocate(this.buffer.capacity() * 2);
+
+            grown.put(this.buffer);
+            grown.flip();
+            this.buffer = grown;
+        }
+
+        final int limit = this.buffer.limit();
+
+        this.buffer.limit(this.buffer.capacity());
+        this.buffer.position(limit);
+
+        final int count = this.channel.read(this.buffer);
+
+        this.buffer.limit(this.buffer.position());
+        this.buffer.position(0);
+
+        if (count < 0) {
+            this.isEndOfInput = true;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package demo.json;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@code List<Number>} backed by a {@code long[]}. Produced by {@link Decoder} for arrays whose
+ * elements are all integers when {@link DecoderOptions#primitiveArrays(boolean)} is enabled; elements are
+ * boxed as {@link Fixed} only when read through {@link #get(int)}.
+ */
+public final class LongList extends AbstractList<Number> implements RandomAccess {
+    private final long[] values;
+    private final int size;
+
+    /**
+     * Wraps {@code values} without copying.
+     */
+    public LongList(final long[] values) {
+        this(values, values.length);
+    }
+
+    LongList(final long[] values, final int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    public long getLong(final int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + this.size);
+        }
+
+        return this.values[index];
+    }
+
+    public long[] toLongArray() {
+        return Arrays.copyOf(this.values, this.size);
+    }
+
+    @Override
+    public Fixed get(final int index) {
+        return new Fixed(getLong(index), 1L);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+}
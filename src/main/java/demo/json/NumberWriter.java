@@ -0,0 +1,444 @@
+package demo.json;
+
+import java.math.BigInteger;
+
+/**
+ * Allocation-free number formatting into a {@code char[]}. Every writer returns the index just past the last
+ * char written; callers must leave at least {@link #MAX_CHARS} chars of room.
+ *
+ * <p>Doubles and floats are rendered with the shortest decimal that parses back to the same value, using
+ * Giulietti's Schubfach algorithm, and laid out like {@link Double#toString(double)}: plain notation for
+ * magnitudes in {@code [10^-3, 10^7)}, computerized scientific notation otherwise.
+ */
+final class NumberWriter {
+    private NumberWriter() {}
+
+    static final int MAX_CHARS = 32;
+
+    private static final char[] TENS = new char[100];
+    private static final char[] ONES = new char[100];
+    private static final long[] POW10 = new long[19];
+
+    static {
+        for (int i = 0; i < 100; i++) {
+            TENS[i] = (char) ('0' + i / 10);
+            ONES[i] = (char) ('0' + i % 10);
+        }
+
+        POW10[0] = 1L;
+
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10L;
+        }
+    }
+
+    private static final char[] MIN_LONG = "-9223372036854775808".toCharArray();
+
+    private static int digitCount(final long value) {
+        for (int i = 1; i < POW10.length; i++) {
+            if (value < POW10[i]) {
+                return i;
+            }
+        }
+
+        return 19;
+    }
+
+    /**
+     * Returns {@code k} if {@code scale == 10^k}, otherwise -1.
+     */
+    static int powerOfTen(final long scale) {
+        if (scale <= 0L) {
+            return -1;
+        }
+
+        final int k = digitCount(scale) - 1;
+
+        return (POW10[k] == scale) ? k : -1;
+    }
+
+    /**
+     * Writes a non-negative value right-aligned in exactly {@code length} chars, zero-padded on the left.
+     */
+    private static int writeDigits(final char[] buf, final int pos, long value, final int length) {
+        int i = pos + length;
+
+        while (value >= 100L) {
+            final long q = value / 100L;
+            final int r = (int) (value - q * 100L);
+
+            value = q;
+            buf[--i] = ONES[r];
+            buf[--i] = TENS[r];
+        }
+
+        if (value >= 10L) {
+            buf[--i] = ONES[(int) value];
+            buf[--i] = TENS[(int) value];
+        } else {
+            buf[--i] = (char) ('0' + value);
+        }
+
+        // zero-pad up to the requested width
+        while (i > pos) {
+            buf[--i] = '0';
+        }
+
+        return pos + length;
+    }
+
+    static int writeLong(final char[] buf, int pos, long value) {
+        if (value < 0L) {
+            if (value == Long.MIN_VALUE) {
+                System.arraycopy(MIN_LONG, 0, buf, pos, MIN_LONG.length);
+                return pos + MIN_LONG.length;
+            }
+
+            buf[pos++] = '-';
+            value = -value;
+        }
+
+        return writeDigits(buf, pos, value, digitCount(value));
+    }
+
+    /**
+     * Writes {@code value / 10^k} as a plain decimal with exactly {@code k} fraction digits.
+     */
+    static int writeDecimal(final char[] buf, int pos, final long value, final int k) {
+        if (k == 0) {
+            return writeLong(buf, pos, value);
+        }
+
+        long intPart = value / POW10[k];
+        long fraction = value % POW10[k];
+
+        if (value < 0L) {
+            buf[pos++] = '-';
+            intPart = -intPart;
+            fraction = -fraction;
+        }
+
+        pos = writeDigits(buf, pos, intPart, digitCount(intPart));
+        buf[pos++] = '.';
+
+        return writeDigits(buf, pos, fraction, k);
+    }
+
+    /*
+     * Layout shared by doubles and floats: f * 10^e with f > 0.
+     */
+    private static int writeDecimalExponent(final char[] buf, int pos, long f, int e) {
+        while (f % 10L == 0L) {
+            f /= 10L;
+            e++;
+        }
+
+        final int length = digitCount(f);
+        final int exponent = e + length - 1;
+
+        if (exponent >= -3 && exponent < 7) {
+            if (exponent < 0) {
+                buf[pos++] = '0';
+                buf[pos++] = '.';
+
+                for (int i = -1; i > exponent; i--) {
+                    buf[pos++] = '0';
+                }
+
+                return writeDigits(buf, pos, f, length);
+            } else if (e >= 0) {
+                pos = writeDigits(buf, pos, f, length);
+
+                for (int i = 0; i < e; i++) {
+                    buf[pos++] = '0';
+                }
+
+                buf[pos++] = '.';
+                buf[pos++] = '0';
+
+                return pos;
+            } else {
+                final long intPart = f / POW10[-e];
+
+                pos = writeDigits(buf, pos, intPart, exponent + 1);
+                buf[pos++] = '.';
+
+                return writeDigits(buf, pos, f - intPart * POW10[-e], -e);
+            }
+        }
+
+        final long head = f / POW10[length - 1];
+
+        buf[pos++] = (char) ('0' + head);
+        buf[pos++] = '.';
+
+        if (length == 1) {
+            buf[pos++] = '0';
+        } else {
+            pos = writeDigits(buf, pos, f - head * POW10[length - 1], length - 1);
+        }
+
+        buf[pos++] = 'E';
+
+        return writeLong(buf, pos, exponent);
+    }
+
+    // ---- Schubfach ----
+
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static {
+        // g(k) = floor(10^-k * 2^(125 - flog2pow10(-k))) + 1, split into two 63-bit halves
+        final BigInteger mask63 = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            final int r = 125 - flog2pow10(-k);
+            BigInteger numerator = (k <= 0) ? BigInteger.TEN.pow(-k) : BigInteger.ONE;
+            BigInteger denominator = (k > 0) ? BigInteger.TEN.pow(k) : BigInteger.ONE;
+
+            if (r >= 0) {
+                numerator = numerator.shiftLeft(r);
+            } else {
+                denominator = denominator.shiftLeft(-r);
+            }
+
+            final BigInteger g = numerator.divide(denominator).add(BigInteger.ONE);
+            final int index = (k - K_MIN) << 1;
+
+            G[index] = g.shiftRight(63).longValue();
+            G[index + 1] = g.and(mask63).longValue();
+        }
+    }
+
+    private static int flog10pow2(final int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    private static int flog10threeQuartersPow2(final int e) {
+        return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41);
+    }
+
+    private static int flog2pow10(final int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    private static long multiplyHigh(final long x, final long y) {
+        final long x1 = x >> 32;
+        final long x2 = x & 0xFFFFFFFFL;
+        final long y1 = y >> 32;
+        final long y2 = y & 0xFFFFFFFFL;
+        final long z2 = x2 * y2;
+        final long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        final long z0 = t >> 32;
+
+        z1 += x2 * y1;
+
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    private static final int DOUBLE_P = 53;
+    private static final int DOUBLE_Q_MIN = -1074;
+    private static final long DOUBLE_C_MIN = 1L << (DOUBLE_P - 1);
+    private static final long DOUBLE_C_TINY = 3L;
+    private static final long MASK_63 = (1L << 63) - 1;
+
+    private static long rop(final long g1, final long g0, final long cp) {
+        final long x1 = multiplyHigh(g0, cp);
+        final long y0 = g1 * cp;
+        final long y1 = multiplyHigh(g1, cp);
+        final long z = (y0 >>> 1) + x1;
+        final long vbp = y1 + (z >>> 63);
+
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /**
+     * Writes a finite double; the caller rejects NaN and infinities.
+     */
+    static int writeDouble(final char[] buf, int pos, final double value) {
+        final long bits = Double.doubleToRawLongBits(value);
+        final long t = bits & (DOUBLE_C_MIN - 1);
+        final int bq = (int) (bits >>> (DOUBLE_P - 1)) & 0x7FF;
+
+        if (bits < 0L) {
+            buf[pos++] = '-';
+        }
+
+        if (bq != 0) {
+            final int mq = -DOUBLE_Q_MIN + 1 - bq;
+            final long c = DOUBLE_C_MIN | t;
+
+            if (0 < mq & mq < DOUBLE_P) {
+                final long f = c >> mq;
+
+                if (f << mq == c) {
+                    return writeDecimalExponent(buf, pos, f, 0);
+                }
+            }
+
+            return writeDouble(buf, pos, -mq, c, 0);
+        } else if (t != 0L) {
+            return (t < DOUBLE_C_TINY)
+                    ? writeDouble(buf, pos, DOUBLE_Q_MIN, 10L * t, -1)
+                    : writeDouble(buf, pos, DOUBLE_Q_MIN, t, 0);
+        } else {
+            buf[pos++] = '0';
+            buf[pos++] = '.';
+            buf[pos++] = '0';
+
+            return pos;
+        }
+    }
+
+    private static int writeDouble(final char[] buf, final int pos, final int q, final long c, final int dk) {
+        final int out = (int) c & 0x1;
+        final long cb = c << 2;
+        final long cbr = cb + 2L;
+        final long cbl;
+        final int k;
+
+        if (c != DOUBLE_C_MIN | q == DOUBLE_Q_MIN) {
+            cbl = cb - 2L;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1L;
+            k = flog10threeQuartersPow2(q);
+        }
+
+        final int h = q + flog2pow10(-k) + 2;
+        final int index = (k - K_MIN) << 1;
+        final long g1 = G[index];
+        final long g0 = G[index + 1];
+
+        final long vb = rop(g1, g0, cb << h);
+        final long vbl = rop(g1, g0, cbl << h);
+        final long vbr = rop(g1, g0, cbr << h);
+
+        final long s = vb >> 2;
+
+        if (s >= 100L) {
+            final long sp10 = 10L * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            final long tp10 = sp10 + 10L;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+
+            if (upin != wpin) {
+                return writeDecimalExponent(buf, pos, upin ? sp10 : tp10, k);
+            }
+        }
+
+        final long t = s + 1L;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+
+        if (uin != win) {
+            return writeDecimalExponent(buf, pos, uin ? s : t, k + dk);
+        }
+
+        final long cmp = vb - (s + t << 1);
+
+        return writeDecimalExponent(buf, pos, (cmp < 0L || cmp == 0L && (s & 0x1L) == 0L) ? s : t, k + dk);
+    }
+
+    private static final int FLOAT_P = 24;
+    private static final int FLOAT_Q_MIN = -149;
+    private static final int FLOAT_C_MIN = 1 << (FLOAT_P - 1);
+    private static final int FLOAT_C_TINY = 8;
+    private static final long MASK_32 = (1L << 32) - 1;
+
+    private static int rop(final long g, final long cp) {
+        final long x1 = multiplyHigh(g, cp);
+        final long vbp = x1 >>> 31;
+
+        return (int) (vbp | (x1 & MASK_32) + MASK_32 >>> 32);
+    }
+
+    /**
+     * Writes a finite float; the caller rejects NaN and infinities.
+     */
+    static int writeFloat(final char[] buf, int pos, final float value) {
+        final int bits = Float.floatToRawIntBits(value);
+        final int t = bits & (FLOAT_C_MIN - 1);
+        final int bq = (bits >>> (FLOAT_P - 1)) & 0xFF;
+
+        if (bits < 0) {
+            buf[pos++] = '-';
+        }
+
+        if (bq != 0) {
+            final int mq = -FLOAT_Q_MIN + 1 - bq;
+            final int c = FLOAT_C_MIN | t;
+
+            if (0 < mq & mq < FLOAT_P) {
+                final int f = c >> mq;
+
+                if (f << mq == c) {
+                    return writeDecimalExponent(buf, pos, f, 0);
+                }
+            }
+
+            return writeFloat(buf, pos, -mq, c, 0);
+        } else if (t != 0) {
+            return (t < FLOAT_C_TINY)
+                    ? writeFloat(buf, pos, FLOAT_Q_MIN, 10 * t, -1)
+                    : writeFloat(buf, pos, FLOAT_Q_MIN, t, 0);
+        } else {
+            buf[pos++] = '0';
+            buf[pos++] = '.';
+            buf[pos++] = '0';
+
+            return pos;
+        }
+    }
+
+    private static int writeFloat(final char[] buf, final int pos, final int q, final int c, final int dk) {
+        final int out = c & 0x1;
+        final long cb = (long) c << 2;
+        final long cbr = cb + 2L;
+        final long cbl;
+        final int k;
+
+        if (c != FLOAT_C_MIN | q == FLOAT_Q_MIN) {
+            cbl = cb - 2L;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1L;
+            k = flog10threeQuartersPow2(q);
+        }
+
+        final int h = q + flog2pow10(-k) + 33;
+        final long g = G[(k - K_MIN) << 1] + 1L;
+
+        final int vb = rop(g, cb << h);
+        final int vbl = rop(g, cbl << h);
+        final int vbr = rop(g, cbr << h);
+
+        final int s = vb >> 2;
+
+        if (s >= 100) {
+            final int sp10 = 10 * (int) (s * 1_717_986_919L >>> 34);
+            final int tp10 = sp10 + 10;
+            final boolean upin = vbl + out <= sp10 << 2;
+            final boolean wpin = (tp10 << 2) + out <= vbr;
+
+            if (upin != wpin) {
+                return writeDecimalExponent(buf, pos, upin ? sp10 : tp10, k);
+            }
+        }
+
+        final int t = s + 1;
+        final boolean uin = vbl + out <= s << 2;
+        final boolean win = (t << 2) + out <= vbr;
+
+        if (uin != win) {
+            return writeDecimalExponent(buf, pos, uin ? s : t, k + dk);
+        }
+
+        final int cmp = vb - (s + t << 1);
+
+        return writeDecimalExponent(buf, pos, (cmp < 0 || cmp == 0 && (s & 0x1) == 0) ? s : t, k + dk);
+    }
+}
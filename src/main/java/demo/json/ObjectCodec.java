@@ -0,0 +1,829 @@
+package demo.json;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binds JSON objects to the instance fields of a class. Codecs are built once per class and cached; fields
+ * are read and written through method handles, and primitive fields are filled straight from the number
+ * scanner.
+ */
+final class ObjectCodec {
+    private static final ClassValue<ObjectCodec> CODECS = new ClassValue<ObjectCodec>() {
+        @Override
+        protected ObjectCodec computeValue(final Class<?> type) {
+            return new ObjectCodec(type);
+        }
+    };
+
+    static ObjectCodec of(final Class<?> type) {
+        return CODECS.get(type);
+    }
+
+    private static final int BOOLEAN = 0;
+    private static final int BYTE = 1;
+    private static final int SHORT = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int FLOAT = 5;
+    private static final int DOUBLE = 6;
+    private static final int REFERENCE = 7;
+
+    private static final class Property {
+        final String name;
+        final char[] chars;
+        final int index;
+        final int kind;
+        final Binding binding;
+        final MethodHandle getter;
+        final MethodHandle setter;
+
+        Property(final Field field, final int index) throws IllegalAccessException {
+            final Class<?> type = field.getType();
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            this.name = field.getName();
+            this.chars = this.name.toCharArray();
+            this.index = index;
+
+            field.setAccessible(true);
+
+            if (type == boolean.class) {
+                this.kind = BOOLEAN;
+            } else if (type == byte.class) {
+                this.kind = BYTE;
+            } else if (type == short.class) {
+                this.kind = SHORT;
+            } else if (type == int.class) {
+                this.kind = INT;
+            } else if (type == long.class) {
+                this.kind = LONG;
+            } else if (type == float.class) {
+                this.kind = FLOAT;
+            } else if (type == double.class) {
+                this.kind = DOUBLE;
+            } else if (type.isPrimitive()) {
+                throw new IllegalArgumentException("Unsupported field type: " + field);
+            } else {
+                this.kind = REFERENCE;
+            }
+
+            final Class<?> exact = (this.kind == REFERENCE) ? Object.class : type;
+
+            this.binding = (this.kind == REFERENCE) ? binding(field.getGenericType(), field) : null;
+            this.getter = lookup.unreflectGetter(field).asType(MethodType.methodType(exact, Object.class));
+            this.setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, exact));
+        }
+
+        boolean matches(final CharBuffer data, final int start, final int length) {
+            if (this.chars.length != length) {
+                return false;
+            }
+
+            for (int i = 0; i < length; i++) {
+                if (this.chars[i] != data.get(start + i)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        void decode(final Object target, final CharBuffer data, final DecodeContext ctx) throws Throwable {
+            if (this.kind != REFERENCE && isNull(data)) {
+                throw new IOException("Cannot assign null to primitive field: " + this.name);
+            }
+
+            switch (this.kind) {
+                case BOOLEAN:
+                    this.setter.invokeExact(target, decodeBoolean(data));
+                    break;
+                case BYTE:
+                    this.setter.invokeExact(target, (byte) decodeLong(data, ctx, Byte.MIN_VALUE, Byte.MAX_VALUE));
+                    break;
+                case SHORT:
+                    this.setter.invokeExact(target, (short) decodeLong(data, ctx, Short.MIN_VALUE, Short.MAX_VALUE));
+                    break;
+                case INT:
+                    this.setter.invokeExact(target, (int) decodeLong(data, ctx, Integer.MIN_VALUE, Integer.MAX_VALUE));
+                    break;
+                case LONG:
+                    this.setter.invokeExact(target, decodeLong(data, ctx, Long.MIN_VALUE, Long.MAX_VALUE));
+                    break;
+                case FLOAT:
+                    this.setter.invokeExact(target, (float) decodeDouble(data, ctx));
+                    break;
+                case DOUBLE:
+                    this.setter.invokeExact(target, decodeDouble(data, ctx));
+                    break;
+                default:
+                    this.setter.invokeExact(target, decodeNullable(this.binding, data, ctx));
+                    break;
+            }
+        }
+
+        void encode(final EncodeBuffer output, final Object source, final EncoderOptions options) throws Throwable {
+            switch (this.kind) {
+                case BOOLEAN:
+                    output.put((boolean) this.getter.invokeExact(source) ? "true" : "false");
+                    break;
+                case BYTE:
+                    output.putLong((byte) this.getter.invokeExact(source));
+                    break;
+                case SHORT:
+                    output.putLong((short) this.getter.invokeExact(source));
+                    break;
+                case INT:
+                    output.putLong((int) this.getter.invokeExact(source));
+                    break;
+                case LONG:
+                    output.putLong((long) this.getter.invokeExact(source));
+                    break;
+                case FLOAT:
+                    Encoder.encodeFloatSafe(output, (float) this.getter.invokeExact(source));
+                    break;
+                case DOUBLE:
+                    Encoder.encodeDoubleSafe(output, (double) this.getter.invokeExact(source));
+                    break;
+                default:
+                    encodeNullable(this.binding, output, (Object) this.getter.invokeExact(source), options);
+                    break;
+            }
+        }
+    }
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    private final Property[] properties;
+    private final Map<String, Property> byName = new HashMap<>();
+
+    private ObjectCodec(final Class<?> type) {
+        if (type.isInterface() || type.isArray() || type.isPrimitive() || Modifier.isAbstract(type.getModifiers())) {
+            throw new IllegalArgumentException("Cannot bind JSON to " + type.getName());
+        }
+
+        final List<Field> fields = new ArrayList<>();
+
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            final List<Field> declared = new ArrayList<>();
+
+            for (Field field : c.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    declared.add(field);
+                }
+            }
+
+            // superclass fields first
+            fields.addAll(0, declared);
+        }
+
+        this.type = type;
+        this.properties = new Property[fields.size()];
+
+        try {
+            final Constructor<?> noArgs = type.getDeclaredConstructor();
+
+            noArgs.setAccessible(true);
+            this.constructor = MethodHandles.lookup().unreflectConstructor(noArgs).asType(MethodType.methodType(Object.class));
+
+            for (int i = 0; i < this.properties.length; i++) {
+                this.properties[i] = new Property(fields.get(i), i);
+                this.byName.put(this.properties[i].name, this.properties[i]);
+            }
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException("No no-arg constructor: " + type.getName(), ex);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalArgumentException("Cannot access " + type.getName(), ex);
+        }
+    }
+
+    Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+        if (!data.hasRemaining() || data.get() != '{') {
+            throw new IOException("Malformed Object!");
+        }
+
+        final Object out;
+
+        try {
+            out = (Object) this.constructor.invokeExact();
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Cannot instantiate " + this.type.getName(), ex);
+        }
+
+        Decoder.skipWhitespace(data);
+
+        if (data.hasRemaining() && data.get(data.position()) == '}') {
+            data.get();
+            return out;
+        }
+
+        int hint = 0;
+
+        while (data.hasRemaining()) {
+            Decoder.skipWhitespace(data);
+
+            final Property property = this.findProperty(data, hint);
+
+            Decoder.skipWhitespace(data);
+
+            if (!data.hasRemaining() || data.get() != ':') {
+                throw new IOException("Malformed Object!");
+            }
+
+            Decoder.skipWhitespace(data);
+
+            if (!data.hasRemaining()) {
+                break;
+            }
+
+            if (property == null) {
+                Decoder.decodeAny(data, ctx);
+            } else {
+                try {
+                    property.decode(out, data, ctx);
+                } catch (IOException | RuntimeException | Error ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new IllegalStateException(ex);
+                }
+
+                hint = property.index + 1;
+            }
+
+            Decoder.skipWhitespace(data);
+
+            if (!data.hasRemaining()) {
+                break;
+            }
+
+            switch (data.get()) {
+                case '}':
+                    return out;
+                case ',':
+                    break;
+                default:
+                    throw new IOException("Malformed Object!");
+            }
+        }
+
+        throw new IOException("Malformed Object!");
+    }
+
+    /*
+     * Matches the key in place; fields usually arrive in declaration order, so the property after the last
+     * match is tried first. Escaped keys fall back to a decoded lookup.
+     */
+    private Property findProperty(final CharBuffer data, final int hint) throws IOException {
+        if (!data.hasRemaining() || data.get(data.position()) != '\"') {
+            throw new IOException("Malformed Object!");
+        }
+
+        final int start = data.position() + 1;
+        final int limit = data.limit();
+        int end = start;
+
+        while (end < limit) {
+            final char lookup = data.get(end);
+
+            if (lookup == '\"') {
+                break;
+            } else if (lookup == '\\') {
+                return this.byName.get(Decoder.decodeString(data));
+            }
+
+            end++;
+        }
+
+        if (end == limit) {
+            throw new IOException("Unclosed String!");
+        }
+
+        data.position(end + 1);
+
+        final int length = end - start;
+
+        if (hint < this.properties.length && this.properties[hint].matches(data, start, length)) {
+            return this.properties[hint];
+        }
+
+        for (Property property : this.properties) {
+            if (property.matches(data, start, length)) {
+                return property;
+            }
+        }
+
+        return null;
+    }
+
+    void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) throws IOException {
+        output.put('{');
+
+        for (int i = 0; i < this.properties.length; i++) {
+            final Property property = this.properties[i];
+
+            if (i > 0) {
+                output.put(',');
+            }
+
+            Encoder.encodeStringSafe(output, property.name, options);
+            output.put(':');
+
+            try {
+                property.encode(output, value, options);
+            } catch (IOException | RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        output.put('}');
+    }
+
+    private static boolean isNull(final CharBuffer data) {
+        final char lookup = data.get(data.position());
+
+        return lookup == 'n' || lookup == 'N';
+    }
+
+    private static boolean decodeBoolean(final CharBuffer data) throws IOException {
+        switch (data.get(data.position())) {
+            case 't':
+            case 'T':
+                return Decoder.decodeTrue(data);
+            case 'f':
+            case 'F':
+                return Decoder.decodeFalse(data);
+            default:
+                throw new IOException("Malformed JSON!");
+        }
+    }
+
+    private static void requireNumber(final CharBuffer data) throws IOException {
+        final char lookup = data.get(data.position());
+
+        if (lookup != '-' && (lookup < '0' || lookup > '9')) {
+            throw new IOException("Malformed JSON!");
+        }
+    }
+
+    private static long decodeLong(final CharBuffer data, final DecodeContext ctx, final long min, final long max) throws IOException {
+        requireNumber(data);
+
+        final int start = data.position();
+        final long value = Fixed.decodeFixed(data, ctx.number, 0);
+        final long scale = ctx.number[0];
+        final long out;
+
+        if (scale == 1L) {
+            out = value;
+        } else if (scale == 0L) {
+            // too large for a long, or too precise for a scale
+            throw new IOException("Integer out of range: " + numberText(data, start));
+        } else if (value % scale == 0L) {
+            out = value / scale;
+        } else {
+            throw new IOException("Not an integer: " + numberText(data, start));
+        }
+
+        if (out < min || out > max) {
+            throw new IOException("Integer out of range: " + out);
+        }
+
+        return out;
+    }
+
+    private static String numberText(final CharBuffer data, final int start) {
+        int end = start;
+
+        while (end < data.limit() && Fixed.isNumberChar(data.get(end))) {
+            end++;
+        }
+
+        final CharBuffer text = data.duplicate();
+
+        text.limit(end).position(start);
+
+        return text.toString();
+    }
+
+    private static double decodeDouble(final CharBuffer data, final DecodeContext ctx) throws IOException {
+        requireNumber(data);
+
+        final long value = Fixed.decodeFixed(data, ctx.number, 0);
+        final long scale = ctx.number[0];
+
+        if (scale == 1L) {
+            return (double) value;
+        } else if (scale != 0L) {
+            return (double) value / (double) scale;
+        } else {
+            return Fixed.decodeNumber(data, ctx.number).doubleValue();
+        }
+    }
+
+    private static Object decodeNullable(final Binding binding, final CharBuffer data, final DecodeContext ctx) throws IOException {
+        if (isNull(data)) {
+            return Decoder.decodeNull(data);
+        }
+
+        return binding.decode(data, ctx);
+    }
+
+    private static void encodeNullable(final Binding binding, final EncodeBuffer output, final Object value, final EncoderOptions options) throws IOException {
+        if (value == null) {
+            output.put("null");
+        } else {
+            binding.encode(output, value, options);
+        }
+    }
+
+    /**
+     * Decodes and encodes the values of one declared type.
+     */
+    private abstract static class Binding {
+        abstract Object decode(CharBuffer data, DecodeContext ctx) throws IOException;
+
+        abstract void encode(EncodeBuffer output, Object value, EncoderOptions options) throws IOException;
+    }
+
+    private static final Binding ANY = new Binding() {
+        @Override
+        Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+            return Decoder.decodeAny(data, ctx);
+        }
+
+        @Override
+        void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) throws IOException {
+            Encoder.encodeAnySafe(output, value, options);
+        }
+    };
+
+    private static final Binding STRING = new Binding() {
+        @Override
+        Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+            if (!data.hasRemaining() || data.get(data.position()) != '\"') {
+                throw new IOException("Malformed JSON!");
+            }
+
+            return Decoder.decodeString(data);
+        }
+
+        @Override
+        void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) {
+            Encoder.encodeStringSafe(output, (String) value, options);
+        }
+    };
+
+    private static final Binding BOOLEAN_BOX = new Binding() {
+        @Override
+        Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+            return decodeBoolean(data);
+        }
+
+        @Override
+        void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) {
+            output.put((Boolean) value ? "true" : "false");
+        }
+    };
+
+    private static final Binding FIXED = new Binding() {
+        @Override
+        Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+            requireNumber(data);
+
+            final Number out = Fixed.decodeNumber(data, ctx.number);
+
+            if (!(out instanceof Fixed)) {
+                throw new IOException("Fixed number out of range: " + out);
+            }
+
+            return out;
+        }
+
+        @Override
+        void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) throws IOException {
+            Encoder.encodeAnySafe(output, value, options);
+        }
+    };
+
+    private static final class IntegerBinding extends Binding {
+        private final Class<?> type;
+        private final long min;
+        private final long max;
+
+        IntegerBinding(final Class<?> type, final long min, final long max) {
+            this.type = type;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+            final long value = decodeLong(data, ctx, this.min, this.max);
+
+            if (this.type == Integer.class) {
+                return (int) value;
+            } else if (this.type == Long.class) {
+                return value;
+            } else if (this.type == Short.class) {
+                return (short) value;
+            } else {
+                return (byte) value;
+            }
+        }
+
+        @Override
+        void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) {
+            output.putLong(((Number) value).longValue());
+        }
+    }
+
+    private static final class DecimalBinding extends Binding {
+        private final boolean isFloat;
+
+        DecimalBinding(final boolean isFloat) {
+            this.isFloat = isFloat;
+        }
+
+        @Override
+        Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+            final double value = decodeDouble(data, ctx);
+
+            return (this.isFloat) ? (Object) (float) value : (Object) value;
+        }
+
+        @Override
+        void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) throws IOException {
+            if (this.isFloat) {
+                Encoder.encodeFloatSafe(output, (Float) value);
+            } else {
+                Encoder.encodeDoubleSafe(output, (Double) value);
+            }
+        }
+    }
+
+    private static final class EnumBinding extends Binding {
+        private final Map<String, Object> constants = new HashMap<>();
+
+        EnumBinding(final Class<?> type) {
+            for (Object constant : type.getEnumConstants()) {
+                this.constants.put(((Enum) constant).name(), constant);
+            }
+        }
+
+        @Override
+        Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+            final String name = (String) STRING.decode(data, ctx);
+            final Object out = this.constants.get(name);
+
+            if (out == null) {
+                throw new IOException("Unknown constant: " + name);
+            }
+
+            return out;
+        }
+
+        @Override
+        void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) {
+            Encoder.encodeStringSafe(output, ((Enum) value).name(), options);
+        }
+    }
+
+    private static final class ListBinding extends Binding {
+        private final Binding element;
+
+        ListBinding(final Binding element) {
+            this.element = element;
+        }
+
+        @Override
+        Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+            if (!data.hasRemaining() || data.get() != '[') {
+                throw new IOException("Malformed Array!");
+            }
+
+            final List<Object> out = new ArrayList<>();
+
+            Decoder.skipWhitespace(data);
+
+            if (data.hasRemaining() && data.get(data.position()) == ']') {
+                data.get();
+                return out;
+            }
+
+            while (data.hasRemaining()) {
+                Decoder.skipWhitespace(data);
+
+                if (!data.hasRemaining()) {
+                    break;
+                }
+
+                out.add(decodeNullable(this.element, data, ctx));
+                Decoder.skipWhitespace(data);
+
+                if (!data.hasRemaining()) {
+                    break;
+                }
+
+                switch (data.get()) {
+                    case ']':
+                        return out;
+                    case ',':
+                        break;
+                    default:
+                        throw new IOException("Malformed Array!");
+                }
+            }
+
+            throw new IOException("Malformed Array!");
+        }
+
+        @Override
+        void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) throws IOException {
+            output.put('[');
+
+            boolean isFirst = true;
+
+            for (Object item : (Collection) value) {
+                if (!isFirst) {
+                    output.put(',');
+                }
+
+                encodeNullable(this.element, output, item, options);
+                isFirst = false;
+            }
+
+            output.put(']');
+        }
+    }
+
+    private static final class MapBinding extends Binding {
+        private final Binding value;
+
+        MapBinding(final Binding value) {
+            this.value = value;
+        }
+
+        @Override
+        Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+            if (!data.hasRemaining() || data.get() != '{') {
+                throw new IOException("Malformed Object!");
+            }
+
+            final Map<String, Object> out = new HashMap<>();
+
+            Decoder.skipWhitespace(data);
+
+            if (data.hasRemaining() && data.get(data.position()) == '}') {
+                data.get();
+                return out;
+            }
+
+            while (data.hasRemaining()) {
+                Decoder.skipWhitespace(data);
+
+                final String key = (String) STRING.decode(data, ctx);
+
+                Decoder.skipWhitespace(data);
+
+                if (!data.hasRemaining() || data.get() != ':') {
+                    throw new IOException("Malformed Object!");
+                }
+
+                Decoder.skipWhitespace(data);
+
+                if (!data.hasRemaining()) {
+                    break;
+                }
+
+                out.put(key, decodeNullable(this.value, data, ctx));
+                Decoder.skipWhitespace(data);
+
+                if (!data.hasRemaining()) {
+                    break;
+                }
+
+                switch (data.get()) {
+                    case '}':
+                        return out;
+                    case ',':
+                        break;
+                    default:
+                        throw new IOException("Malformed Object!");
+                }
+            }
+
+            throw new IOException("Malformed Object!");
+        }
+
+        @Override
+        void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) throws IOException {
+            output.put('{');
+
+            boolean isFirst = true;
+
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!isFirst) {
+                    output.put(',');
+                }
+
+                Encoder.encodeStringSafe(output, (String) entry.getKey(), options);
+                output.put(':');
+                encodeNullable(this.value, output, entry.getValue(), options);
+                isFirst = false;
+            }
+
+            output.put('}');
+        }
+    }
+
+    private static final class ObjectBinding extends Binding {
+        private final Class<?> type;
+
+        ObjectBinding(final Class<?> type) {
+            this.type = type;
+        }
+
+        @Override
+        Object decode(final CharBuffer data, final DecodeContext ctx) throws IOException {
+            // resolved on use so that self-referencing classes do not recurse while building their codec
+            return of(this.type).decode(data, ctx);
+        }
+
+        @Override
+        void encode(final EncodeBuffer output, final Object value, final EncoderOptions options) throws IOException {
+            of(value.getClass()).encode(output, value, options);
+        }
+    }
+
+    private static Binding binding(final Type type, final Field field) {
+        if (type instanceof ParameterizedType) {
+            final ParameterizedType parameterized = (ParameterizedType) type;
+            final Class<?> raw = (Class<?>) parameterized.getRawType();
+            final Type[] arguments = parameterized.getActualTypeArguments();
+
+            if (raw == List.class || raw == Collection.class || raw == Iterable.class || raw == ArrayList.class) {
+                return new ListBinding(binding(arguments[0], field));
+            } else if ((raw == Map.class || raw == HashMap.class) && arguments[0] == String.class) {
+                return new MapBinding(binding(arguments[1], field));
+            } else {
+                throw new IllegalArgumentException("Unsupported field type: " + field);
+            }
+        } else if (!(type instanceof Class)) {
+            // wildcards and type variables
+            return ANY;
+        }
+
+        final Class<?> raw = (Class<?>) type;
+
+        if (raw == String.class) {
+            return STRING;
+        } else if (raw == Object.class || raw == Number.class) {
+            return ANY;
+        } else if (raw == Fixed.class) {
+            return FIXED;
+        } else if (raw == Boolean.class) {
+            return BOOLEAN_BOX;
+        } else if (raw == Integer.class) {
+            return new IntegerBinding(raw, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        } else if (raw == Long.class) {
+            return new IntegerBinding(raw, Long.MIN_VALUE, Long.MAX_VALUE);
+        } else if (raw == Short.class) {
+            return new IntegerBinding(raw, Short.MIN_VALUE, Short.MAX_VALUE);
+        } else if (raw == Byte.class) {
+            return new IntegerBinding(raw, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        } else if (raw == Double.class) {
+            return new DecimalBinding(false);
+        } else if (raw == Float.class) {
+            return new DecimalBinding(true);
+        } else if (raw.isEnum()) {
+            return new EnumBinding(raw);
+        } else if (raw == List.class || raw == Collection.class || raw == Iterable.class || raw == ArrayList.class) {
+            return new ListBinding(ANY);
+        } else if (raw == Map.class || raw == HashMap.class) {
+            return ANY;
+        } else if (raw.isArray() || raw.isPrimitive() || raw.isInterface() || Modifier.isAbstract(raw.getModifiers())
+                || raw.getName().startsWith("java.")) {
+
+            throw new IllegalArgumentException("Unsupported field type: " + field);
+        } else {
+            return new ObjectBinding(raw);
+        }
+    }
+}
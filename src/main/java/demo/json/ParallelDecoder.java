@@ -0,0 +1,468 @@
+package demo.json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Splits a UTF-8 input holding many records, either one top-level array or newline-delimited JSON, into
+ * chunks at record boundaries and decodes the chunks concurrently. Both splitters cut at approximate offsets
+ * and leave finding the exact record boundaries to the workers, so the calling thread never scans the input.
+ */
+final class ParallelDecoder {
+    private ParallelDecoder() {}
+
+    private static final int MIN_CHUNK_SIZE = 1024 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long WINDOW_SIZE = 1L << 30;
+    private static final int NEWLINE_PROBE_SIZE = 64 * 1024;
+
+    /**
+     * Random access to byte ranges of the input; every call returns an independent view.
+     */
+    abstract static class Input {
+        abstract long size();
+
+        abstract ByteBuffer slice(long start, long end) throws IOException;
+    }
+
+    static final class BufferInput extends Input {
+        private final ByteBuffer data;
+        private final int base;
+
+        BufferInput(final ByteBuffer data) {
+            this.data = data.duplicate();
+            this.base = data.position();
+        }
+
+        @Override
+        long size() {
+            return this.data.limit() - this.base;
+        }
+
+        @Override
+        ByteBuffer slice(final long start, final long end) {
+            final ByteBuffer out = this.data.duplicate();
+
+            out.limit(this.base + (int) end);
+            out.position(this.base + (int) start);
+
+            return out;
+        }
+    }
+
+    static final class ChannelInput extends Input {
+        private final FileChannel channel;
+        private final long size;
+
+        ChannelInput(final FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        @Override
+        long size() {
+            return this.size;
+        }
+
+        @Override
+        ByteBuffer slice(final long start, final long end) throws IOException {
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("JSON record too large to map: " + (end - start) + " bytes");
+            }
+
+            return this.channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+    }
+
+    static long chunkSize(final long size, final Executor executor) {
+        final int parallelism = (executor instanceof ForkJoinPool)
+                ? ((ForkJoinPool) executor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+
+        return Math.max(MIN_CHUNK_SIZE, size / ((long) parallelism * CHUNKS_PER_THREAD));
+    }
+
+    static List<Map<String, Object>> decode(final Input input, final Executor executor, final long chunkSize) throws IOException {
+        final long size = input.size();
+        final ByteBuffer head = input.slice(0L, Math.min(size, WINDOW_SIZE));
+        final int origin = head.position();
+
+        Utf8Decoder.skipByteOrderMark(head);
+        Utf8Decoder.skipWhitespace(head);
+
+        final long start = head.position() - origin;
+        final List<CompletableFuture<List<Map<String, Object>>>> chunks;
+
+        if (head.hasRemaining() && head.get(head.position()) == '[') {
+            chunks = splitArray(input, start + 1L, executor, chunkSize);
+        } else {
+            chunks = splitLines(input, start, executor, chunkSize);
+        }
+
+        final List<Map<String, Object>> out = new ArrayList<>();
+
+        for (CompletableFuture<List<Map<String, Object>>> chunk : chunks) {
+            out.addAll(join(chunk));
+        }
+
+        return out;
+    }
+
+    private static Map<String, Object> decodeRecord(final ByteBuffer data, final DecodeContext ctx) throws IOException {
+        final Object record = Utf8Decoder.decodeAny(data, ctx);
+
+        if (!(record instanceof Map)) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return Decoder.cast(record);
+    }
+
+    /**
+     * Decodes the whitespace-separated records of one chunk of lines.
+     */
+    static List<Map<String, Object>> decodeLines(final ByteBuffer data) throws IOException {
+        final DecodeContext ctx = new DecodeContext();
+        final List<Map<String, Object>> out = new ArrayList<>();
+
+        while (true) {
+            Utf8Decoder.skipWhitespace(data);
+
+            if (!data.hasRemaining()) {
+                return out;
+            }
+
+            out.add(decodeRecord(data, ctx));
+        }
+    }
+
+    /*
+     * Net depth change of one segment for either string state at its start, which the segment cannot know.
+     * Quote parity tells the two cases apart: a bracket seen at parity p is outside a string exactly when the
+     * segment started at parity p, so both are counted in one pass.
+     */
+    private static final class Segment {
+        final int[] depth = new int[2];
+        int parity;
+    }
+
+    private static Segment summarize(final Input input, long offset, final long limit) throws IOException {
+        final Segment out = new Segment();
+        boolean escaped = false;
+
+        while (offset < limit) {
+            final ByteBuffer window = input.slice(offset, Math.min(limit, offset + WINDOW_SIZE));
+            final int first = window.position();
+            final int end = window.limit();
+
+            for (int i = first; i < end; i++) {
+                if (escaped) {
+                    escaped = false;
+                    continue;
+                }
+
+                switch (window.get(i)) {
+                    case '\\':
+                        escaped = true;
+                        break;
+                    case '\"':
+                        out.parity ^= 1;
+                        break;
+                    case '[':
+                    case '{':
+                        out.depth[out.parity]++;
+                        break;
+                    case ']':
+                    case '}':
+                        out.depth[out.parity]--;
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            offset += end - first;
+        }
+
+        return out;
+    }
+
+    /*
+     * Returns the first comma at depth 1 in [offset, limit), given the string state and depth at offset, or
+     * -1 if there is none or the array closes first.
+     */
+    private static long resync(final Input input, long offset, final long limit, boolean inString, int depth) throws IOException {
+        boolean escaped = false;
+
+        while (offset < limit) {
+            final ByteBuffer window = input.slice(offset, Math.min(limit, offset + WINDOW_SIZE));
+            final int first = window.position();
+            final int end = window.limit();
+
+            for (int i = first; i < end; i++) {
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                        continue;
+                    }
+
+                    i = Scan.indexOfQuoteOrBackslash(window, i, end);
+
+                    if (i == end) {
+                        break;
+                    } else if (window.get(i) == '\\') {
+                        escaped = true;
+                    } else {
+                        inString = false;
+                    }
+
+                    continue;
+                }
+
+                switch (window.get(i)) {
+                    case '\"':
+                        inString = true;
+                        break;
+                    case '[':
+                    case '{':
+                        depth++;
+                        break;
+                    case ']':
+                    case '}':
+                        if (--depth == 0) {
+                            return -1L;
+                        }
+                        break;
+                    case ',':
+                        if (depth == 1) {
+                            return offset + (i - first);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            offset += end - first;
+        }
+
+        return -1L;
+    }
+
+    private static byte byteAt(final Input input, final long offset) throws IOException {
+        final ByteBuffer probe = input.slice(offset, offset + 1L);
+
+        return probe.get(probe.position());
+    }
+
+    /*
+     * Splits the array at approximate offsets so that the calling thread never scans the input. Workers first
+     * summarize their segments; folding the summaries in order, the only serial step, gives the exact string
+     * state and depth at every segment start. Each segment owns the records that follow the depth-1 commas
+     * inside it: its worker resyncs to the first of them and decodes until it passes a comma beyond the
+     * segment, so a record that straddles a boundary is decoded once, by the earlier segment.
+     */
+    private static List<CompletableFuture<List<Map<String, Object>>>> splitArray(
+            final Input input, final long start, final Executor executor, final long chunkSize) throws IOException {
+
+        final long size = input.size();
+        final List<Long> bounds = new ArrayList<>();
+
+        bounds.add(start);
+
+        for (long offset = start + chunkSize; offset < size; offset += chunkSize) {
+            // a segment never starts right after a backslash, so no escape is pending at its start
+            while (offset < size && byteAt(input, offset - 1L) == '\\') {
+                offset++;
+            }
+
+            if (offset < size) {
+                bounds.add(offset);
+            }
+        }
+
+        bounds.add(size);
+
+        final List<CompletableFuture<Segment>> segments = new ArrayList<>();
+
+        for (int k = 0; k + 1 < bounds.size(); k++) {
+            final long from = bounds.get(k);
+            final long to = bounds.get(k + 1);
+
+            segments.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return summarize(input, from, to);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, executor));
+        }
+
+        final List<CompletableFuture<List<Map<String, Object>>>> chunks = new ArrayList<>();
+        int parity = 0;
+        int depth = 1;
+
+        for (int k = 0; k < segments.size(); k++) {
+            chunks.add(decodeSegment(input, bounds.get(k), bounds.get(k + 1), k == 0, parity == 1, depth, executor));
+
+            final Segment segment = join(segments.get(k));
+
+            depth += segment.depth[parity];
+            parity ^= segment.parity;
+        }
+
+        if (parity != 0 || depth != 0) {
+            throw new IOException("Malformed Array!");
+        }
+
+        return chunks;
+    }
+
+    private static CompletableFuture<List<Map<String, Object>>> decodeSegment(
+            final Input input, final long from, final long to, final boolean isFirst, final boolean inString,
+            final int depth, final Executor executor) {
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                final List<Map<String, Object>> out = new ArrayList<>();
+                long chunkStart = from;
+
+                if (!isFirst) {
+                    final long comma = (depth > 0) ? resync(input, from, to, inString, depth) : -1L;
+
+                    if (comma < 0L) {
+                        return out;
+                    }
+
+                    chunkStart = comma + 1L;
+                }
+
+                final ByteBuffer data = input.slice(chunkStart, Math.min(input.size(), to + WINDOW_SIZE));
+                final int origin = data.position();
+                final DecodeContext ctx = new DecodeContext();
+
+                Utf8Decoder.skipWhitespace(data);
+
+                final boolean isEmpty = isFirst && data.hasRemaining() && data.get(data.position()) == ']';
+
+                while (!isEmpty) {
+                    out.add(decodeRecord(data, ctx));
+                    Utf8Decoder.skipWhitespace(data);
+
+                    if (!data.hasRemaining()) {
+                        throw new IOException("Malformed Array!");
+                    }
+
+                    final long offset = chunkStart + (data.position() - origin);
+                    final byte lookup = data.get();
+
+                    if (lookup == ']') {
+                        break;
+                    } else if (lookup != ',') {
+                        throw new IOException("Malformed Array!");
+                    } else if (offset >= to) {
+                        return out;
+                    }
+                }
+
+                requireTrailingWhitespace(input, chunkStart + (data.position() - origin) + (isEmpty ? 1L : 0L));
+
+                return out;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, executor);
+    }
+
+    private static <T> T join(final CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            final Throwable cause = ex.getCause();
+
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw ex;
+            }
+        }
+    }
+
+    private static void requireTrailingWhitespace(final Input input, final long start) throws IOException {
+        final long size = input.size();
+
+        for (long offset = start; offset < size; offset += WINDOW_SIZE) {
+            final ByteBuffer window = input.slice(offset, Math.min(size, offset + WINDOW_SIZE));
+
+            Utf8Decoder.skipWhitespace(window);
+
+            if (window.hasRemaining()) {
+                throw new IOException("Malformed JSON!");
+            }
+        }
+    }
+
+    /*
+     * Raw newlines cannot occur inside JSON strings, so line records can be split at the first newline after
+     * each target offset without scanning what comes before it. Each worker finds both of its own newlines.
+     */
+    private static List<CompletableFuture<List<Map<String, Object>>>> splitLines(
+            final Input input, final long start, final Executor executor, final long chunkSize) {
+
+        final List<CompletableFuture<List<Map<String, Object>>>> chunks = new ArrayList<>();
+        final long size = input.size();
+
+        for (long offset = start; offset < size; offset += chunkSize) {
+            final long from = offset;
+            final long to = Math.min(size, offset + chunkSize);
+
+            chunks.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    final long chunkStart = (from == start) ? from : nextNewline(input, from);
+                    final long chunkEnd = nextNewline(input, to);
+
+                    if (chunkStart >= chunkEnd) {
+                        return new ArrayList<>();
+                    }
+
+                    return decodeLines(input.slice(chunkStart, chunkEnd));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, executor));
+        }
+
+        return chunks;
+    }
+
+    private static long nextNewline(final Input input, long offset) throws IOException {
+        final long size = input.size();
+
+        while (offset < size) {
+            final ByteBuffer probe = input.slice(offset, Math.min(size, offset + NEWLINE_PROBE_SIZE));
+            final int first = probe.position();
+            final int limit = probe.limit();
+
+            for (int i = first; i < limit; i++) {
+                if (probe.get(i) == '\n') {
+                    return offset + (i - first);
+                }
+            }
+
+            offset += limit - first;
+        }
+
+        return size;
+    }
+}
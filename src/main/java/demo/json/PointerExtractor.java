@@ -0,0 +1,325 @@
+package demo.json;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves JSON Pointers (RFC 6901) by scanning. Only the targeted values are decoded; every other member
+ * or element is skipped without being built, and scanning stops as soon as all pointers are resolved.
+ */
+final class PointerExtractor {
+    private static final class Node {
+        final String token;
+        final int index;
+        final List<Node> children = new ArrayList<>(2);
+        String pointer;
+
+        Node(final String token) {
+            this.token = token;
+            this.index = parseIndex(token);
+        }
+
+        Node child(final String token) {
+            for (Node child : this.children) {
+                if (child.token.equals(token)) {
+                    return child;
+                }
+            }
+
+            final Node out = new Node(token);
+
+            this.children.add(out);
+
+            return out;
+        }
+    }
+
+    private final Node root = new Node("");
+    private final Map<String, Object> out = new HashMap<>();
+    private final DecodeContext ctx = new DecodeContext();
+    private int pointers;
+
+    PointerExtractor(final Collection<String> pointers) {
+        for (String pointer : pointers) {
+            Node node = this.root;
+
+            for (String token : parse(pointer)) {
+                node = node.child(token);
+            }
+
+            if (node.pointer == null) {
+                node.pointer = pointer;
+                this.pointers++;
+            }
+        }
+    }
+
+    /**
+     * Splits a pointer into its unescaped reference tokens.
+     */
+    static List<String> parse(final String pointer) {
+        final List<String> out = new ArrayList<>();
+
+        if (pointer.isEmpty()) {
+            return out;
+        } else if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("Invalid JSON Pointer: " + pointer);
+        }
+
+        final StringBuilder token = new StringBuilder();
+
+        for (int i = 1; i <= pointer.length(); i++) {
+            final char lookup = (i < pointer.length()) ? pointer.charAt(i) : '/';
+
+            if (lookup == '/') {
+                out.add(token.toString());
+                token.setLength(0);
+            } else if (lookup == '~') {
+                final char escaped = (++i < pointer.length()) ? pointer.charAt(i) : 0;
+
+                if (escaped == '0') {
+                    token.append('~');
+                } else if (escaped == '1') {
+                    token.append('/');
+                } else {
+                    throw new IllegalArgumentException("Invalid JSON Pointer: " + pointer);
+                }
+            } else {
+                token.append(lookup);
+            }
+        }
+
+        return out;
+    }
+
+    private static int parseIndex(final String token) {
+        final int length = token.length();
+
+        if (length == 0 || length > 9 || (token.charAt(0) == '0' && length > 1)) {
+            return -1;
+        }
+
+        int out = 0;
+
+        for (int i = 0; i < length; i++) {
+            final int digit = token.charAt(i) - '0';
+
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+
+            out = out * 10 + digit;
+        }
+
+        return out;
+    }
+
+    /**
+     * Returns the decoded value of every pointer that resolves, keyed by pointer.
+     */
+    Map<String, Object> extract(final CharBuffer data) throws IOException {
+        if (this.pointers > 0) {
+            Decoder.skipWhitespace(data);
+            this.extract(data, this.root);
+        }
+
+        return this.out;
+    }
+
+    /*
+     * Returns true once every pointer is resolved; the rest of the input is then left unread.
+     */
+    private boolean extract(final CharBuffer data, final Node node) throws IOException {
+        if (!data.hasRemaining()) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        if (node.pointer != null) {
+            final int start = data.position();
+
+            this.out.put(node.pointer, Decoder.decodeAny(data, this.ctx));
+
+            if (this.out.size() == this.pointers) {
+                return true;
+            } else if (node.children.isEmpty()) {
+                return false;
+            }
+
+            data.position(start);
+        }
+
+        switch (data.get(data.position())) {
+            case '{':
+                return this.extractObject(data, node);
+            case '[':
+                return this.extractArray(data, node);
+            default:
+                Decoder.skipValue(data);
+                return false;
+        }
+    }
+
+    private boolean extractObject(final CharBuffer data, final Node node) throws IOException {
+        data.get();
+        Decoder.skipWhitespace(data);
+
+        if (data.hasRemaining() && data.get(data.position()) == '}') {
+            data.get();
+            return false;
+        }
+
+        while (data.hasRemaining()) {
+            Decoder.skipWhitespace(data);
+
+            final Node child = matchKey(data, node);
+
+            Decoder.skipWhitespace(data);
+
+            if (!data.hasRemaining() || data.get() != ':') {
+                throw new IOException("Malformed Object!");
+            }
+
+            Decoder.skipWhitespace(data);
+
+            if (child == null) {
+                Decoder.skipValue(data);
+            } else if (this.extract(data, child)) {
+                return true;
+            }
+
+            Decoder.skipWhitespace(data);
+
+            if (!data.hasRemaining()) {
+                break;
+            }
+
+            switch (data.get()) {
+                case '}':
+                    return false;
+                case ',':
+                    break;
+                default:
+                    throw new IOException("Malformed Object!");
+            }
+        }
+
+        throw new IOException("Malformed Object!");
+    }
+
+    private boolean extractArray(final CharBuffer data, final Node node) throws IOException {
+        data.get();
+        Decoder.skipWhitespace(data);
+
+        if (data.hasRemaining() && data.get(data.position()) == ']') {
+            data.get();
+            return false;
+        }
+
+        int index = 0;
+
+        while (data.hasRemaining()) {
+            Decoder.skipWhitespace(data);
+
+            Node child = null;
+
+            for (Node candidate : node.children) {
+                if (candidate.index == index) {
+                    child = candidate;
+                    break;
+                }
+            }
+
+            if (child == null) {
+                Decoder.skipValue(data);
+            } else if (this.extract(data, child)) {
+                return true;
+            }
+
+            Decoder.skipWhitespace(data);
+
+            if (!data.hasRemaining()) {
+                break;
+            }
+
+            switch (data.get()) {
+                case ']':
+                    return false;
+                case ',':
+                    index++;
+                    break;
+                default:
+                    throw new IOException("Malformed Array!");
+            }
+        }
+
+        throw new IOException("Malformed Array!");
+    }
+
+    /*
+     * Consumes a member name and returns the child it selects. Unescaped names are compared in place.
+     */
+    private static Node matchKey(final CharBuffer data, final Node node) throws IOException {
+        if (!data.hasRemaining() || data.get(data.position()) != '\"') {
+            throw new IOException("Malformed Object!");
+        }
+
+        final int start = data.position() + 1;
+        final int limit = data.limit();
+        int end = start;
+
+        while (end < limit) {
+            final char lookup = data.get(end);
+
+            if (lookup == '\"') {
+                break;
+            } else if (lookup == '\\') {
+                final String key = Decoder.decodeString(data);
+
+                for (Node child : node.children) {
+                    if (child.token.equals(key)) {
+                        return child;
+                    }
+                }
+
+                return null;
+            }
+
+            end++;
+        }
+
+        if (end == limit) {
+            throw new IOException("Unclosed String!");
+        }
+
+        data.position(end + 1);
+
+        final int length = end - start;
+
+        for (Node child : node.children) {
+            if (matches(child.token, data, start, length)) {
+                return child;
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean matches(final String token, final CharBuffer data, final int start, final int length) {
+        if (token.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (token.charAt(i) != data.get(start + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,63 @@
+package demo.json;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Map;
+
+/**
+ * A pre-serialized JSON value. {@link Encoder} copies the text verbatim wherever an instance appears in a
+ * document, so a sub-object that is embedded many times is serialized only once.
+ */
+public final class RawJson {
+    final String json;
+
+    private RawJson(final String json) {
+        this.json = json;
+    }
+
+    /**
+     * Wraps JSON text after checking that it is exactly one well-formed value.
+     */
+    public static RawJson of(final String json) throws IOException {
+        final CharBuffer data = CharBuffer.wrap(json.toCharArray());
+
+        new CharArrayDecoder(data, new DecodeContext(true)).decode();
+        Decoder.skipWhitespace(data);
+
+        if (data.hasRemaining()) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return new RawJson(json);
+    }
+
+    /**
+     * Serializes {@code data} once with the default options.
+     */
+    public static RawJson encode(final Map<String, Object> data) throws IOException {
+        return new RawJson(Encoder.encode(data));
+    }
+
+    public static RawJson encode(final Map<String, Object> data, final EncoderOptions options) throws IOException {
+        return new RawJson(Encoder.encode(data, options));
+    }
+
+    public int length() {
+        return this.json.length();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof RawJson && ((RawJson) other).json.equals(this.json);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.json.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.json;
+    }
+}
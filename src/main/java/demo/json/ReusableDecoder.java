@@ -0,0 +1,50 @@
+package demo.json;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Map;
+
+/**
+ * A decoder that is kept and reused for many documents, such as one per worker thread. It keeps its
+ * scratch buffers between calls and learns the typical size of the objects and arrays at each nesting
+ * depth, so documents of a recurring shape are decoded into presized containers rather than growing and
+ * rehashing them. Instances are not thread-safe.
+ */
+public final class ReusableDecoder {
+    private static final int MAX_RETAINED_CHARS = 1024 * 1024;
+    private static final char[] EMPTY = new char[0];
+
+    private final DecodeContext ctx;
+    private char[] chars = EMPTY;
+
+    public ReusableDecoder() {
+        this(new DecoderOptions());
+    }
+
+    public ReusableDecoder(final DecoderOptions options) {
+        this.ctx = new DecodeContext(options);
+        this.ctx.learnSizes();
+    }
+
+    public Map<String, Object> decode(final CharBuffer data) throws IOException {
+        return Decoder.decode(data, this.ctx);
+    }
+
+    public Map<String, Object> decode(final String strval) throws IOException {
+        final int length = strval.length();
+
+        if (this.chars.length < length) {
+            this.chars = new char[length];
+        }
+
+        strval.getChars(0, length, this.chars, 0);
+
+        try {
+            return Decoder.decode(CharBuffer.wrap(this.chars, 0, length), this.ctx);
+        } finally {
+            if (this.chars.length > MAX_RETAINED_CHARS) {
+                this.chars = EMPTY;
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package demo.json;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+
+/**
+ * Bulk searches for the characters that end a run of string content or whitespace. Byte input is tested
+ * eight bytes per step with SWAR (SIMD within a register) word arithmetic; char input is scanned over the
+ * backing array when there is one.
+ */
+final class Scan {
+    private Scan() {}
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long QUOTES = ONES * '\"';
+    private static final long BACKSLASHES = ONES * '\\';
+    private static final long SPACES = ONES * ' ';
+
+    /*
+     * Sets the high bit of exactly the bytes of x that are zero. Unlike the shorter borrow-based test this
+     * has no false positives, so the first flagged byte is always a real match in either byte order.
+     */
+    private static long zeroBytes(final long x) {
+        return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+    }
+
+    /**
+     * Returns the index of the first '"' or '\' in [pos, limit), or {@code limit} if there is none. UTF-8
+     * multi-byte sequences never contain either byte, so no decoding is needed.
+     */
+    static int indexOfQuoteOrBackslash(final ByteBuffer data, int pos, final int limit) {
+        final boolean isBigEndian = (data.order() == ByteOrder.BIG_ENDIAN);
+
+        for (; pos + 8 <= limit; pos += 8) {
+            final long word = data.getLong(pos);
+            final long found = zeroBytes(word ^ QUOTES) | zeroBytes(word ^ BACKSLASHES);
+
+            if (found != 0L) {
+                return pos + ((isBigEndian ? Long.numberOfLeadingZeros(found) : Long.numberOfTrailingZeros(found)) >>> 3);
+            }
+        }
+
+        for (; pos < limit; pos++) {
+            final byte lookup = data.get(pos);
+
+            if (lookup == '\"' || lookup == '\\') {
+                return pos;
+            }
+        }
+
+        return limit;
+    }
+
+    static int indexOfQuoteOrBackslash(final CharBuffer data, int pos, final int limit) {
+        if (data.hasArray()) {
+            final char[] array = data.array();
+            final int offset = data.arrayOffset();
+
+            for (int i = offset + pos; i < offset + limit; i++) {
+                final char lookup = array[i];
+
+                if (lookup == '\"' || lookup == '\\') {
+                    return i - offset;
+                }
+            }
+
+            return limit;
+        }
+
+        for (; pos < limit; pos++) {
+            final char lookup = data.get(pos);
+
+            if (lookup == '\"' || lookup == '\\') {
+                return pos;
+            }
+        }
+
+        return limit;
+    }
+
+    /**
+     * Returns the index of the first non-whitespace byte in [pos, limit); runs of spaces, as in indented
+     * documents, are skipped a word at a time.
+     */
+    static int skipWhitespace(final ByteBuffer data, int pos, final int limit) {
+        // compact documents rarely have whitespace; only probe words after a space
+        if (pos < limit && data.get(pos) == ' ') {
+            while (pos + 8 <= limit && data.getLong(pos) == SPACES) {
+                pos += 8;
+            }
+        }
+
+        for (; pos < limit; pos++) {
+            switch (data.get(pos)) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                    break;
+                default:
+                    return pos;
+            }
+        }
+
+        return limit;
+    }
+
+    static int skipWhitespace(final CharBuffer data, int pos, final int limit) {
+        for (; pos < limit; pos++) {
+            switch (data.get(pos)) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                    break;
+                default:
+                    return pos;
+            }
+        }
+
+        return limit;
+    }
+}
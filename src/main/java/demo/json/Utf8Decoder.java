@@ -0,0 +1,315 @@
+package demo.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Byte-level twin of {@link Decoder}. Parses UTF-8 input in place; only string values are charset-decoded,
+ * and only the bytes between their quotes.
+ */
+final class Utf8Decoder {
+    private Utf8Decoder() {}
+
+    private static int decodeHex(final ByteBuffer data) throws IOException {
+        return (Decoder.decodeHex((char) next(data)) << 12)
+                | (Decoder.decodeHex((char) next(data)) << 8)
+                | (Decoder.decodeHex((char) next(data)) << 4)
+                | Decoder.decodeHex((char) next(data));
+    }
+
+    private static int continuation(final ByteBuffer data) throws IOException {
+        final int next = next(data);
+
+        if ((next & 0xC0) != 0x80) {
+            throw new IOException("Malformed UTF-8!");
+        }
+
+        return next & 0x3F;
+    }
+
+    private static String decodeEscapeString(final ByteBuffer data) throws IOException {
+        final StringBuilder out = Decoder.scratch();
+
+        while (data.hasRemaining()) {
+            final int lookup = data.get();
+
+            if (lookup >= 0) {
+                switch (lookup) {
+                    case '\\':
+                        switch (next(data)) {
+                            case '\"':
+                                out.append('\"');
+                                break;
+                            case '\\':
+                                out.append('\\');
+                                break;
+                            case '/':
+                                out.append('/');
+                                break;
+                            case 'b':
+                                out.append('\b');
+                                break;
+                            case 'f':
+                                out.append('\f');
+                                break;
+                            case 'n':
+                                out.append('\n');
+                                break;
+                            case 'r':
+                                out.append('\r');
+                                break;
+                            case 't':
+                                out.append('\t');
+                                break;
+                            case 'u':
+                                out.append((char) decodeHex(data));
+                                break;
+                            default:
+                                throw new IOException("Unexpected escaped character: " + (char) data.get(data.position() - 1));
+                        } break;
+                    case '\"':
+                        return out.toString();
+                    default:
+                        out.append((char) lookup);
+                        break;
+                }
+            } else if ((lookup & 0xE0) == 0xC0) {
+                out.append((char) (((lookup & 0x1F) << 6) | continuation(data)));
+            } else if ((lookup & 0xF0) == 0xE0) {
+                final int c1 = continuation(data);
+
+                out.append((char) (((lookup & 0x0F) << 12) | (c1 << 6) | continuation(data)));
+            } else if ((lookup & 0xF8) == 0xF0) {
+                final int c1 = continuation(data);
+                final int c2 = continuation(data);
+
+                out.appendCodePoint(((lookup & 0x07) << 18) | (c1 << 12) | (c2 << 6) | continuation(data));
+            } else {
+                throw new IOException("Malformed UTF-8!");
+            }
+        }
+
+        throw new IOException("Unclosed String!");
+    }
+
+    private static String decodeString(final ByteBuffer data) throws IOException {
+        data.get();
+
+        final int start = data.position();
+        final int end = Scan.indexOfQuoteOrBackslash(data, start, data.limit());
+
+        if (end == data.limit()) {
+            throw new IOException("Unclosed String!");
+        } else if (data.get(end) == '\\') {
+            return decodeEscapeString(data);
+        }
+
+        data.position(end + 1);
+
+        if (data.hasArray()) {
+            return new String(data.array(), data.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+        }
+
+        final byte[] bytes = new byte[end - start];
+        final ByteBuffer view = data.duplicate();
+
+        view.position(start);
+        view.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean decodeFalse(final ByteBuffer data) throws IOException {
+        final byte f = next(data);
+        final byte a = next(data);
+        final byte l = next(data);
+        final byte s = next(data);
+        final byte e = next(data);
+
+        assert (f == 'f' || f == 'F');
+        assert (a == 'a' || a == 'A');
+        assert (l == 'l' || l == 'L');
+        assert (s == 's' || s == 'S');
+        assert (e == 'e' || e == 'E');
+
+        return false;
+    }
+
+    private static boolean decodeTrue(final ByteBuffer data) throws IOException {
+        final byte t = next(data);
+        final byte r = next(data);
+        final byte u = next(data);
+        final byte e = next(data);
+
+        assert (t == 't' || t == 'T');
+        assert (r == 'r' || r == 'R');
+        assert (u == 'u' || u == 'U');
+        assert (e == 'e' || e == 'E');
+
+        return true;
+    }
+
+    private static Object decodeNull(final ByteBuffer data) throws IOException {
+        final byte n = next(data);
+        final byte u = next(data);
+        final byte l1 = next(data);
+        final byte l2 = next(data);
+
+        assert (n == 'n' || n == 'N');
+        assert (u == 'u' || u == 'U');
+        assert (l1 == 'l' || l1 == 'L');
+        assert (l2 == 'l' || l2 == 'L');
+
+        return null;
+    }
+
+    private static byte peek(final ByteBuffer data) throws IOException {
+        if (!data.hasRemaining()) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return data.get(data.position());
+    }
+
+    private static byte next(final ByteBuffer data) throws IOException {
+        if (!data.hasRemaining()) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        return data.get();
+    }
+
+    static void skipWhitespace(final ByteBuffer data) {
+        final int position = data.position();
+
+        // every whitespace character sorts at or below ' '
+        if (position < data.limit() && data.get(position) > ' ') {
+            return;
+        }
+
+        data.position(Scan.skipWhitespace(data, position, data.limit()));
+    }
+
+    private static List<Object> decodeArray(final ByteBuffer data, final DecodeContext ctx) throws IOException {
+        data.get();
+
+        final List<Object> out = new ArrayList<>();
+
+        while (data.hasRemaining()) {
+            skipWhitespace(data);
+
+            switch (peek(data)) {
+                case ']':
+                    data.get();
+                    return out;
+                case ',':
+                    data.get();
+                    break;
+                default:
+                    out.add(decodeAny(data, ctx));
+                    break;
+            }
+        }
+
+        throw new IOException("Malformed Array!");
+    }
+
+    private static Map<String, Object> decodeObject(final ByteBuffer data, final DecodeContext ctx) throws IOException {
+        data.get();
+
+        final Map<String, Object> out = new HashMap<>();
+
+        while (data.hasRemaining()) {
+            skipWhitespace(data);
+
+            if (peek(data) == '}') {
+                data.get();
+                return out;
+            }
+
+            final String key = decodeString(data);
+
+            skipWhitespace(data);
+
+            final byte sep = next(data);
+
+            assert(sep == ':');
+
+            skipWhitespace(data);
+
+            final Object value = decodeAny(data, ctx);
+
+            out.put(key, value);
+
+            skipWhitespace(data);
+
+            switch (next(data)) {
+                case '}':
+                    return out;
+                case ',':
+                    break;
+                default:
+                    throw new IOException("Malformed Object!");
+            }
+        }
+
+        throw new IOException("Malformed Object!");
+    }
+
+    static Object decodeAny(final ByteBuffer data, final DecodeContext ctx) throws IOException {
+        skipWhitespace(data);
+
+        if (!data.hasRemaining()) {
+            throw new IOException("Malformed JSON!");
+        }
+
+        switch (data.get(data.position())) {
+            case '\"':
+                return decodeString(data);
+            case '0':
+            case '1':
+            case '2':
+            case '3':
+            case '4':
+            case '5':
+            case '6':
+            case '7':
+            case '8':
+            case '9':
+            case '-':
+                return Fixed.decodeNumber(data, ctx.number);
+            case '[':
+                return decodeArray(data, ctx);
+            case '{':
+                return decodeObject(data, ctx);
+            case 't':
+            case 'T':
+                return decodeTrue(data);
+            case 'f':
+            case 'F':
+                return decodeFalse(data);
+            case 'n':
+            case 'N':
+                return decodeNull(data);
+            default:
+                throw new IOException("Malformed JSON!");
+        }
+    }
+
+    static void skipByteOrderMark(final ByteBuffer data) {
+        final int position = data.position();
+
+        if (data.remaining() >= 3
+                && data.get(position) == (byte) 0xEF
+                && data.get(position + 1) == (byte) 0xBB
+                && data.get(position + 2) == (byte) 0xBF) {
+
+            data.position(position + 3);
+        }
+    }
+}
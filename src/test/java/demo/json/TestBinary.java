@@ -0,0 +1,195 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestBinary {
+    private static final String DOCUMENT = "{\"id\": 9007199254740993, \"price\": -19.99, \"name\": \"Gr\\u00FC\\u00DFe \\ud83d\\ude00\","
+            + " \"tags\": [\"a\", null, true, false, 1e-3, {}], \"rows\": [{\"x\": 1, \"y\": 2}, {\"x\": 3, \"y\": 4}],"
+            + " \"big\": 123456789012345678901234567890, \"bigFraction\": 1.23456789012345678901234567890, \"empty\": []}";
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final Map<String, Object> text = Decoder.decode(DOCUMENT);
+
+        for (EncoderOptions options : Arrays.asList(new EncoderOptions(), new EncoderOptions().keyDictionary(true))) {
+            final Map<String, Object> binary = Decoder.decodeBinary(Encoder.encodeBinary(text, options));
+
+            Assert.assertEquals(text, binary);
+            Assert.assertEquals(Encoder.encode(text), Encoder.encode(binary));
+        }
+
+        Assert.assertTrue(Decoder.decodeBinary(Encoder.encodeBinary(text)).get("big") instanceof BigInteger);
+        Assert.assertTrue(Decoder.decodeBinary(Encoder.encodeBinary(text)).get("bigFraction") instanceof BigDecimal);
+    }
+
+    @Test
+    public void testTypesPreserved() throws IOException {
+        final Map<String, Object> obj = new HashMap<>();
+
+        obj.put("long", Long.MIN_VALUE);
+        obj.put("int", 7);
+        obj.put("double", 0.1);
+        obj.put("float", 1.5F);
+        obj.put("fixed", new Fixed(314L, 100L));
+        obj.put("longs", new LongList(new long[] {-1L, 0L, Long.MAX_VALUE}));
+        obj.put("fixeds", new FixedList(new long[] {15L, 2L}, new long[] {10L, 1L}));
+
+        final Map<String, Object> out = Decoder.decodeBinary(Encoder.encodeBinary(obj));
+
+        Assert.assertEquals(Long.MIN_VALUE, out.get("long"));
+        Assert.assertEquals(7L, out.get("int"));
+        Assert.assertEquals(0.1, out.get("double"));
+        Assert.assertEquals(1.5F, out.get("float"));
+        Assert.assertEquals(new Fixed(314L, 100L), out.get("fixed"));
+        Assert.assertTrue(out.get("longs") instanceof LongList);
+        Assert.assertEquals(obj.get("longs"), out.get("longs"));
+        Assert.assertTrue(out.get("fixeds") instanceof FixedList);
+        Assert.assertEquals(obj.get("fixeds"), out.get("fixeds"));
+    }
+
+    @Test
+    public void testKeyDictionary() throws IOException {
+        final Map<String, Object> obj = Decoder.decode(DOCUMENT);
+        final byte[] plain = Encoder.encodeBinary(obj);
+        final byte[] dictionary = Encoder.encodeBinary(obj, new EncoderOptions().keyDictionary(true));
+
+        Assert.assertTrue(dictionary.length < plain.length);
+
+        final List<Map<String, Object>> rows = (List<Map<String, Object>>) Decoder.decodeBinary(dictionary).get("rows");
+        final String first = rows.get(0).keySet().iterator().next();
+
+        for (String key : rows.get(1).keySet()) {
+            if (key.equals(first)) {
+                Assert.assertSame(first, key);
+            }
+        }
+    }
+
+    @Test
+    public void testPosition() throws IOException {
+        final byte[] document = Encoder.encodeBinary(Collections.singletonMap("k", "v"));
+        final ByteBuffer data = ByteBuffer.allocate(document.length + 3);
+
+        data.put((byte) 1).put(document).put((byte) 2).put((byte) 3).flip();
+        data.get();
+
+        Assert.assertEquals(Collections.singletonMap("k", "v"), Decoder.decodeBinary(data));
+        Assert.assertEquals(document.length + 1, data.position());
+    }
+
+    @Test
+    public void testMalformed() throws IOException {
+        final byte[] document = Encoder.encodeBinary(Decoder.decode(DOCUMENT), new EncoderOptions().keyDictionary(true));
+
+        for (int length = 0; length < document.length; length++) {
+            try {
+                Decoder.decodeBinary(Arrays.copyOf(document, length));
+                Assert.fail("truncated at " + length);
+            } catch (IOException ex) {
+                // expected
+            }
+        }
+
+        try {
+            Decoder.decodeBinary("{}".getBytes("UTF-8"));
+            Assert.fail();
+        } catch (IOException ex) {
+            // expected
+        }
+
+        // a big number whose digits are not a number
+        for (Number big : new Number[] {new BigInteger("12345678901234567890"), new BigDecimal("1.5e400")}) {
+            final byte[] binary = Encoder.encodeBinary(Collections.singletonMap("n", big));
+            final byte[] digits = big.toString().getBytes("UTF-8");
+
+            Assert.assertEquals(binary.length - digits.length, indexOf(binary, digits));
+            binary[binary.length - 1] = 'x';
+
+            try {
+                Decoder.decodeBinary(binary);
+                Assert.fail(big.toString());
+            } catch (IOException ex) {
+                Assert.assertTrue(ex.getCause() instanceof NumberFormatException);
+            }
+        }
+    }
+
+    // {"x": [[...[null]...]]} with the given number of arrays, written by hand
+    private static byte[] deep(final int arrays) {
+        final byte[] out = new byte[6 + 2 * arrays + 1];
+
+        out[0] = BinaryWriter.MAGIC;
+        out[2] = BinaryWriter.OBJECT;
+        out[3] = 1;
+        out[4] = 1 << 2;
+        out[5] = 'x';
+
+        for (int i = 0; i < arrays; i++) {
+            out[6 + 2 * i] = BinaryWriter.ARRAY;
+            out[7 + 2 * i] = 1;
+        }
+
+        out[out.length - 1] = BinaryWriter.NULL;
+
+        return out;
+    }
+
+    @Test
+    public void testLimits() throws IOException {
+        final Object[][] cases = {
+            {deep(200_000), new DecoderOptions()},
+            {"{\"x\": [[[[]]]]}", new DecoderOptions().maxDepth(4)},
+            {"{\"x\": [[[1, 2]]]}", new DecoderOptions().maxDepth(3)},
+            {"{\"a\": [1, 2, 3, 4]}", new DecoderOptions().maxEntries(3)},
+            {"{\"a\": 1, \"b\": 2, \"c\": 3, \"d\": 4}", new DecoderOptions().maxEntries(3)},
+            {"{\"k\": \"abc\"}", new DecoderOptions().maxStringLength(2)},
+            {"{\"key\": 1}", new DecoderOptions().maxStringLength(2)},
+            {"{\"k\": \"abc\"}", new DecoderOptions().maxLength(8)}
+        };
+
+        for (Object[] test : cases) {
+            final byte[] binary = (test[0] instanceof byte[])
+                    ? (byte[]) test[0]
+                    : Encoder.encodeBinary(Decoder.decode((String) test[0], new DecoderOptions().primitiveArrays(true)));
+
+            try {
+                Decoder.decodeBinary(binary, (DecoderOptions) test[1]);
+                Assert.fail(String.valueOf(test[0]));
+            } catch (IOException ex) {
+                Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("Maximum"));
+            }
+        }
+
+        final Map<String, Object> nested = Decoder.decode("{\"x\": [[[]]]}");
+
+        Assert.assertEquals(nested, Decoder.decodeBinary(Encoder.encodeBinary(nested), new DecoderOptions().maxDepth(4)));
+        Assert.assertNotNull(Decoder.decodeBinary(deep(BinaryReader.DEFAULT_MAX_DEPTH - 1)));
+        Assert.assertNotNull(Decoder.decodeBinary(deep(2000), new DecoderOptions().maxDepth(2001)));
+    }
+
+    private static int indexOf(final byte[] data, final byte[] part) {
+        for (int i = data.length - part.length; i >= 0; i--) {
+            if (Arrays.equals(Arrays.copyOfRange(data, i, i + part.length), part)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Test(expected = IOException.class)
+    public void testEncodeNaN() throws IOException {
+        Encoder.encodeBinary(Collections.singletonMap("x", Double.NaN));
+    }
+}
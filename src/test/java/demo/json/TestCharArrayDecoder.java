@@ -0,0 +1,99 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class TestCharArrayDecoder {
+    private static final String DOCUMENT = " {\"s\": \"plain\", \"e\": \"tab\\t quote\\\" \\u00e9 \\ud83d\\ude00 end\", \"n\": [1, -2.50, 3e2, 7/8,"
+            + " 123456789012345678901234567890, 1.5e400], \"ints\": [1, 2, 3], \"fixed\": [1.5, 2], \"mixed\": [1, \"a\"],"
+            + " \"empty\": [], \"o\": {}, \"lit\": [true, FALSE, null, Null], \"deep\": {\"a\": [{\"b\": [[]]}]},"
+            + " \"esc\\u0061pedKey\": 1 }\n";
+
+    private static final DecoderOptions[] OPTIONS = {
+        new DecoderOptions(),
+        new DecoderOptions().internKeys(true),
+        new DecoderOptions().primitiveArrays(true)
+    };
+
+    private static CharBuffer arrayBacked(final String json) {
+        // offset the backing array so that array and buffer indices differ
+        final char[] chars = ("xx" + json + "yy").toCharArray();
+
+        return CharBuffer.wrap(chars, 2, json.length()).slice();
+    }
+
+    @Test
+    public void testMatchesBufferDecoder() throws IOException {
+        for (DecoderOptions options : OPTIONS) {
+            final CharBuffer array = arrayBacked(DOCUMENT);
+            final CharBuffer buffer = CharBuffer.wrap(DOCUMENT).asReadOnlyBuffer();
+
+            Assert.assertTrue(array.hasArray());
+            Assert.assertFalse(buffer.hasArray());
+
+            final Map<String, Object> expected = Decoder.decode(buffer, options);
+
+            Assert.assertEquals(expected, Decoder.decode(array, options));
+            Assert.assertEquals(buffer.position(), array.position());
+        }
+    }
+
+    @Test
+    public void testMalformed() {
+        final String[] documents = {"{\"a\": [1, 2}", "{\"a\" 1}", "{\"a\": tru}", "{\"a\": \"x}", "{\"a\": 1,,}", "{,\"a\": 1}", "{", ""};
+
+        for (String document : documents) {
+            for (DecoderOptions options : OPTIONS) {
+                try {
+                    Decoder.decode(arrayBacked(document), options);
+                    Assert.fail(document);
+                } catch (IOException ex) {
+                    // expected
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testLenientGrammar() throws IOException {
+        // array commas are optional and may repeat, and objects allow one trailing comma, on every path
+        final String json = "{\"a\": [1, 2,], \"b\": [,\"x\" \"y\",, 3], \"c\": {\"d\": [1 2.5],}, \"e\": [,], \"f\": 1,}";
+        final Map<String, Object> expected = Decoder.decode(CharBuffer.wrap(json).asReadOnlyBuffer());
+        final ByteBuffer direct = ByteBuffer.allocateDirect(json.length() * 2);
+
+        direct.asCharBuffer().put(json);
+
+        final CharBuffer directChars = direct.asCharBuffer();
+
+        directChars.limit(json.length());
+
+        Assert.assertEquals(5, expected.size());
+        Assert.assertEquals(expected, Decoder.decode(json));
+        Assert.assertEquals(expected, Decoder.decode(directChars.duplicate()));
+        Assert.assertEquals(expected, Decoder.decode(directChars.duplicate(), new DecoderOptions().maxDepth(100)));
+        Assert.assertEquals(expected, Decoder.decode(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8))));
+        Assert.assertEquals(expected, new ReusableDecoder(new DecoderOptions()).decode(json));
+
+        final DecoderOptions[] enabled = {
+            new DecoderOptions().iterative(true),
+            new DecoderOptions().iterative(true).primitiveArrays(true),
+            new DecoderOptions().compactObjects(true),
+            new DecoderOptions().metrics(new JsonMetricsRecorder())
+        };
+
+        for (DecoderOptions options : OPTIONS) {
+            Assert.assertEquals(expected, Decoder.decode(arrayBacked(json), options));
+        }
+
+        for (DecoderOptions options : enabled) {
+            Assert.assertEquals(expected, Decoder.decode(json, options));
+            Assert.assertEquals(expected, Decoder.decode(directChars.duplicate(), options));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestCompactObject {
+    private static final DecoderOptions COMPACT = new DecoderOptions().compactObjects(true);
+
+    private static String wide(final int members) {
+        final StringBuilder out = new StringBuilder("{");
+
+        for (int i = 0; i < members; i++) {
+            out.append((i == 0) ? "" : ", ").append("\"k").append(i).append("\": ").append(i);
+        }
+
+        return out.append('}').toString();
+    }
+
+    @Test
+    public void testMatchesHashMap() throws IOException {
+        final String[] documents = {
+            "{}",
+            "{\"a\": 1, \"b\": [1, {\"c\": null}], \"d\": {}, \"e\": \"s\"}",
+            wide(8),
+            wide(9),
+            wide(100),
+            "{\"x\": {\"y\": {\"z\": [" + wide(20) + ", " + wide(3) + "]}}}"
+        };
+
+        for (String document : documents) {
+            final Map<String, Object> expected = Decoder.decode(document);
+            final Map<String, Object> compact = Decoder.decode(document, COMPACT);
+
+            Assert.assertTrue(compact instanceof CompactObject);
+            Assert.assertEquals(expected, compact);
+            Assert.assertEquals(compact, expected);
+            Assert.assertEquals(expected.hashCode(), compact.hashCode());
+            Assert.assertEquals(expected, Decoder.decode(document, new DecoderOptions().compactObjects(true).iterative(true)));
+
+            for (String key : expected.keySet()) {
+                Assert.assertTrue(compact.containsKey(key));
+                Assert.assertEquals(expected.get(key), compact.get(key));
+            }
+
+            Assert.assertNull(compact.get("missing"));
+            Assert.assertNull(compact.get(1));
+            Assert.assertEquals(expected, Decoder.decode(Encoder.encode(compact)));
+        }
+    }
+
+    @Test
+    public void testDocumentOrder() throws IOException {
+        final String document = "{\"z\": 1, \"a\": true, \"m\": {\"q\": null, \"b\": \"s\"}, \"z\": \"last\"}";
+        final Map<String, Object> out = Decoder.decode(document, COMPACT);
+
+        // a duplicated key keeps its first position and its last value
+        Assert.assertEquals(Arrays.asList("z", "a", "m"), new ArrayList<>(out.keySet()));
+        Assert.assertEquals("last", out.get("z"));
+        Assert.assertEquals("{\"z\":\"last\",\"a\":true,\"m\":{\"q\":null,\"b\":\"s\"}}", Encoder.encode(out));
+
+        final List<String> keys = new ArrayList<>();
+
+        Decoder.decode(wide(50), COMPACT).forEach((key, value) -> keys.add(key));
+
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals("k" + i, keys.get(i));
+        }
+    }
+
+    @Test
+    public void testBufferPaths() throws IOException {
+        final String document = wide(12);
+        final CharBuffer direct = ByteBuffer.allocateDirect(document.length() * 2).asCharBuffer();
+
+        direct.put(document).flip();
+        Assert.assertTrue(Decoder.decode(direct, COMPACT) instanceof CompactObject);
+        Assert.assertTrue(new ReusableDecoder(COMPACT).decode(document) instanceof CompactObject);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() throws IOException {
+        Decoder.decode("{\"a\": 1}", COMPACT).put("b", 2);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testEmptyReadOnly() throws IOException {
+        Decoder.decode("{\"a\": {}}", COMPACT).clear();
+    }
+
+    @Test
+    public void testEntriesAreReadOnly() throws IOException {
+        final Map<String, Object> out = Decoder.decode("{\"a\": 1}", COMPACT);
+
+        try {
+            out.entrySet().iterator().next().setValue(2);
+            Assert.fail();
+        } catch (UnsupportedOperationException expected) {
+        }
+
+        Assert.assertEquals(new HashMap<>(out), out);
+    }
+}
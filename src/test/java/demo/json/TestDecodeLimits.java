@@ -0,0 +1,203 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class TestDecodeLimits {
+    private static final String DOCUMENT = "{\"a\": [1, 2, 3], \"b\": [1.5, 2], \"c\": [1, \"x\", [], {}, [[4]]],"
+            + " \"d\": {\"e\\u0073c\": \"t\\tab\", \"n\": null, \"t\": true, \"f\": false}, \"e\": [{\"x\": -1e3}, []],"
+            + " \"big\": [1, 123456789012345678901234567890], \"s\": \"plain\"}";
+
+    private static String nested(final int depth) {
+        final StringBuilder out = new StringBuilder("{\"x\": ");
+
+        for (int i = 0; i < depth; i++) {
+            out.append('[');
+        }
+
+        for (int i = 0; i < depth; i++) {
+            out.append(']');
+        }
+
+        return out.append('}').toString();
+    }
+
+    private static void assertRejected(final String document, final DecoderOptions options) {
+        try {
+            Decoder.decode(document, options);
+            Assert.fail(document);
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("Maximum"));
+        }
+    }
+
+    @Test
+    public void testIterativeMatchesRecursive() throws IOException {
+        Assert.assertEquals(Decoder.decode(DOCUMENT), Decoder.decode(DOCUMENT, new DecoderOptions().iterative(true)));
+        Assert.assertEquals(Decoder.decode(DOCUMENT, new DecoderOptions().primitiveArrays(true)),
+                Decoder.decode(DOCUMENT, new DecoderOptions().primitiveArrays(true).iterative(true)));
+    }
+
+    @Test
+    public void testIterativeDeepNesting() throws IOException {
+        Object value = Decoder.decode(nested(200_000), new DecoderOptions().iterative(true)).get("x");
+        int depth = 0;
+
+        while (!((List) value).isEmpty()) {
+            value = ((List) value).get(0);
+            depth++;
+        }
+
+        Assert.assertEquals(199_999, depth);
+    }
+
+    @Test
+    public void testMaxDepth() throws IOException {
+        Assert.assertNotNull(Decoder.decode(nested(9), new DecoderOptions().maxDepth(10)));
+        assertRejected(nested(10), new DecoderOptions().maxDepth(10));
+        assertRejected(nested(200_000), new DecoderOptions().maxDepth(1000));
+        assertRejected(nested(10), new DecoderOptions().maxDepth(10).iterative(true));
+    }
+
+    @Test
+    public void testMaxStringLength() throws IOException {
+        final DecoderOptions options = new DecoderOptions().maxStringLength(5);
+
+        Assert.assertEquals("abcde", Decoder.decode("{\"k\": \"abcde\"}", options).get("k"));
+        assertRejected("{\"k\": \"abcdef\"}", options);
+        assertRejected("{\"k\": \"abc\\n\\tf\"}", options);
+        assertRejected("{\"abcdef\": 1}", options);
+        assertRejected("{\"abcdef\": 1}", new DecoderOptions().maxStringLength(5).internKeys(true));
+    }
+
+    @Test
+    public void testMaxEntries() throws IOException {
+        final DecoderOptions options = new DecoderOptions().maxEntries(3);
+
+        Assert.assertEquals(3, Decoder.decode("{\"a\": 1, \"b\": 2, \"c\": [1, 2, 3]}", options).size());
+        assertRejected("{\"a\": 1, \"b\": 2, \"c\": 3, \"d\": 4}", options);
+        assertRejected("{\"a\": [1, 2, 3, 4]}", options);
+        assertRejected("{\"a\": [1, 2, 3, 4]}", new DecoderOptions().maxEntries(3).primitiveArrays(true));
+        assertRejected("{\"a\": [\"1\", 2, 3, 4]}", new DecoderOptions().maxEntries(3).iterative(true));
+    }
+
+    @Test
+    public void testMaxLength() throws IOException {
+        assertRejected(DOCUMENT, new DecoderOptions().maxLength(DOCUMENT.length() - 1));
+        Assert.assertNotNull(Decoder.decode(DOCUMENT, new DecoderOptions().maxLength(DOCUMENT.length())));
+    }
+
+    @Test
+    public void testDirectBuffer() throws IOException {
+        final CharBuffer data = ByteBuffer.allocateDirect(DOCUMENT.length() * 2 + 4).asCharBuffer();
+
+        data.put(DOCUMENT).put("  ").flip();
+
+        final Map<String, Object> out = Decoder.decode(data, new DecoderOptions().iterative(true));
+
+        Assert.assertEquals(Decoder.decode(DOCUMENT), out);
+        Assert.assertEquals(DOCUMENT.length(), data.position());
+    }
+
+    @Test
+    public void testOtherInputs() throws IOException {
+        final CharBuffer direct = ByteBuffer.allocateDirect(DOCUMENT.length() * 2).asCharBuffer();
+
+        direct.put(DOCUMENT).flip();
+
+        try {
+            Decoder.decode(direct, new DecoderOptions().maxLength(DOCUMENT.length() - 1));
+            Assert.fail();
+        } catch (IOException ex) {
+            Assert.assertEquals("Maximum length exceeded!", ex.getMessage());
+        }
+
+        final String text = "{\"s\": \"\u00e9\ud83d\ude00\"}";
+        final ByteBuffer utf8 = ByteBuffer.wrap((text + "  ").getBytes(StandardCharsets.UTF_8));
+        final Map<String, Object> out = Decoder.decode(utf8, new DecoderOptions().maxLength(text.length() + 2));
+
+        Assert.assertEquals(Decoder.decode(text), out);
+        Assert.assertEquals(text.getBytes(StandardCharsets.UTF_8).length, utf8.position());
+
+        final ByteBuffer[] rejected = {
+            ByteBuffer.wrap(nested(50).getBytes(StandardCharsets.UTF_8)),
+            ByteBuffer.wrap(DOCUMENT.getBytes(StandardCharsets.UTF_8))
+        };
+        final DecoderOptions[] options = {
+            new DecoderOptions().maxDepth(10),
+            new DecoderOptions().maxLength(DOCUMENT.length() - 1)
+        };
+
+        for (int i = 0; i < rejected.length; i++) {
+            try {
+                Decoder.decode(rejected[i], options[i]);
+                Assert.fail();
+            } catch (IOException ex) {
+                Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("Maximum"));
+            }
+        }
+
+        final Path file = Files.createTempFile("nested", ".json");
+
+        try {
+            Files.write(file, nested(50).getBytes(StandardCharsets.UTF_8));
+            Assert.assertNotNull(Decoder.decode(file, new DecoderOptions().iterative(true)));
+            Decoder.decode(file, new DecoderOptions().maxDepth(10));
+            Assert.fail();
+        } catch (IOException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().startsWith("Maximum"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Iterator<Map<String, Object>> lines(final DecoderOptions options, final String... records) {
+        final String text = "\uFEFF" + String.join("\n", records) + "\n";
+
+        return Decoder.decodeLines(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), options);
+    }
+
+    private static void assertRejectedLine(final String record, final DecoderOptions options) throws IOException {
+        final Iterator<Map<String, Object>> records = lines(options, "{\"ok\": [1]}", record);
+
+        Assert.assertEquals(Decoder.decode("{\"ok\": [1]}"), records.next());
+
+        try {
+            records.next();
+            Assert.fail(record);
+        } catch (UncheckedIOException ex) {
+            Assert.assertTrue(ex.getCause().getMessage(), ex.getCause().getMessage().startsWith("Maximum"));
+        }
+    }
+
+    @Test
+    public void testDecodeLines() throws IOException {
+        assertRejectedLine(nested(50), new DecoderOptions().maxDepth(10));
+        assertRejectedLine("{\"k\": \"\u00e9\u00e9\u00e9\u00e9\u00e9\u00e9\"}", new DecoderOptions().maxStringLength(2));
+        assertRejectedLine("{\"a\": [1, 2, 3, 4]}", new DecoderOptions().maxEntries(3).primitiveArrays(true));
+        assertRejectedLine(nested(100) + "   ", new DecoderOptions().maxLength(DOCUMENT.length()));
+
+        final Iterator<Map<String, Object>> deep = lines(new DecoderOptions().iterative(true), nested(200_000), "{\"s\": \"\u00e9\"}");
+
+        Assert.assertEquals(1, deep.next().size());
+        Assert.assertEquals("\u00e9", deep.next().get("s"));
+        Assert.assertFalse(deep.hasNext());
+
+        final Map<String, Object> compact = lines(new DecoderOptions().compactObjects(true), DOCUMENT).next();
+
+        Assert.assertTrue(compact instanceof CompactObject);
+        Assert.assertEquals(Decoder.decode(DOCUMENT), compact);
+    }
+}
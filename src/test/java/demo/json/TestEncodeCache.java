@@ -0,0 +1,87 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TestEncodeCache {
+    @Test
+    public void testRawJson() throws IOException {
+        final Map<String, Object> obj = new LinkedHashMap<>();
+
+        obj.put("config", RawJson.of(" {\"a\": [1, 2], \"b\": null} "));
+        obj.put("list", Arrays.asList(RawJson.of("\"x\""), 1));
+
+        Assert.assertEquals("{\"config\": {\"a\": [1, 2], \"b\": null} ,\"list\":[\"x\",1]}", Encoder.encode(obj));
+        Assert.assertEquals(RawJson.of("{\"k\":1}"), RawJson.encode(Collections.singletonMap("k", 1)));
+    }
+
+    @Test
+    public void testInvalidRawJson() {
+        for (String json : new String[] {"", "{", "[1 2]", "[1,]", "[,1]", "{\"a\": 1,}", "1 2", "{\"a\": nul}"}) {
+            try {
+                RawJson.of(json);
+                Assert.fail(json);
+            } catch (IOException ex) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        final EncodeCache cache = new EncodeCache(1024);
+        final EncoderOptions options = new EncoderOptions().cache(cache);
+        final Map<String, Object> shared = new HashMap<>();
+
+        shared.put("name", "catalog");
+        shared.put("nested", Collections.singletonMap("x", 1));
+
+        final Map<String, Object> obj = new HashMap<>();
+
+        obj.put("a", shared);
+        obj.put("b", Arrays.asList(shared, shared));
+
+        final String expected = Encoder.encode(obj);
+
+        Assert.assertEquals(expected, Encoder.encode(obj, options));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(2, cache.hits());
+
+        Assert.assertEquals(expected, Encoder.encode(obj, options));
+        Assert.assertEquals(5, cache.hits());
+        Assert.assertEquals(2, cache.misses());
+
+        // an equal but distinct map is a different key; its nested map is still shared
+        Encoder.encode(Collections.singletonMap("a", new HashMap<>(shared)), options);
+        Assert.assertEquals(6, cache.hits());
+        Assert.assertEquals(3, cache.misses());
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        final EncodeCache cache = new EncodeCache(16);
+        final EncoderOptions options = new EncoderOptions().cache(cache);
+        final Map<String, Object> first = Collections.singletonMap("k", "0123");
+        final Map<String, Object> second = Collections.singletonMap("k", "4567");
+
+        Encoder.encode(Collections.singletonMap("v", first), options);
+        Encoder.encode(Collections.singletonMap("v", second), options);
+
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(12, cache.chars());
+        Assert.assertEquals(1, cache.evictions());
+
+        Encoder.encode(Collections.singletonMap("v", Collections.singletonMap("k", "this value is too long")), options);
+
+        Assert.assertEquals(1, cache.size());
+        Encoder.encode(Collections.singletonMap("v", second), options);
+        Assert.assertEquals(1, cache.hits());
+    }
+}
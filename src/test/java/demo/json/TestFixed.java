@@ -4,10 +4,215 @@ package demo.json;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
 public class TestFixed {
     @Test
     public void testParse() {
         Assert.assertEquals(3.14, Fixed.parseFixed("3.14").doubleValue(), 1E-9);
         Assert.assertEquals(1.0, Fixed.parseFixed("1").doubleValue(), 1E-9);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testParseExponent() {
+        Assert.assertEquals(new Fixed(15L, 10_000L), Fixed.parseFixed("1.5e-3"));
+        Assert.assertEquals(10_000L, Fixed.parseFixed("1.5E-3").scale);
+        Assert.assertEquals(new Fixed(-1_200L, 1L), Fixed.parseFixed("-1.2e+3"));
+        Assert.assertEquals(new Fixed(314L, 100L), Fixed.parseFixed("314/100"));
+    }
+
+    @Test
+    public void testParseOverflow() {
+        Assert.assertEquals(new Fixed(Long.MAX_VALUE, 1L), Fixed.parseNumber("9223372036854775807"));
+        Assert.assertEquals(new BigInteger("9223372036854775808"), Fixed.parseNumber("9223372036854775808"));
+        Assert.assertEquals(new Fixed(Long.MIN_VALUE, 1L), Fixed.parseNumber("-9223372036854775808"));
+        Assert.assertEquals(new BigInteger("-9223372036854775809"), Fixed.parseNumber("-9223372036854775809"));
+        Assert.assertEquals(new BigInteger("-92233720368547758080"), Fixed.parseNumber("-92233720368547758080"));
+        Assert.assertEquals(new Fixed(Long.MIN_VALUE, 10L), Fixed.parseNumber("-922337203685477580.8"));
+        Assert.assertEquals(new Fixed(Long.MIN_VALUE, 1L), Fixed.parseNumber("-9223372036854775808/1"));
+        Assert.assertEquals(new Fixed(-9_223_372_036_854_775_800L, 1L), Fixed.parseNumber("-922337203685477580e1"));
+        Assert.assertEquals(new BigDecimal("-922337203685477581e1"), Fixed.parseNumber("-922337203685477581e1"));
+        Assert.assertEquals(new BigDecimal("3.14159265358979323846264"), Fixed.parseNumber("3.14159265358979323846264"));
+        Assert.assertEquals(new BigDecimal("1e400"), Fixed.parseNumber("1e400"));
+        Assert.assertEquals(new BigDecimal("1.5e-30"), Fixed.parseNumber("1.5e-30"));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testParseFixedOverflow() {
+        Fixed.parseFixed("123456789012345678901234567890");
+    }
+
+    @Test
+    public void testDecodeMatchesBigDecimal() {
+        final Random rng = new Random(7L);
+        final StringBuilder text = new StringBuilder();
+
+        for (int i = 0; i < 20_000; i++) {
+            text.setLength(0);
+
+            if (rng.nextBoolean()) {
+                text.append('-');
+            }
+
+            text.append(1 + rng.nextInt(9));
+
+            for (int digits = rng.nextInt(24); digits > 0; digits--) {
+                text.append(rng.nextInt(10));
+            }
+
+            if (rng.nextBoolean()) {
+                text.append('.');
+
+                for (int digits = 1 + rng.nextInt(12); digits > 0; digits--) {
+                    text.append(rng.nextInt(10));
+                }
+            }
+
+            if (rng.nextInt(4) == 0) {
+                text.append('e').append(rng.nextInt(40) - 20);
+            }
+
+            text.append(',');
+
+            final BigDecimal expected = new BigDecimal(text.substring(0, text.length() - 1));
+            final CharBuffer chars = CharBuffer.wrap(text);
+            final ByteBuffer bytes = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.US_ASCII))
+                    .order(rng.nextBoolean() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+
+            Assert.assertEquals(text.toString(), 0, expected.compareTo(toBigDecimal(Fixed.decodeNumber(chars))));
+            Assert.assertEquals(text.toString(), 0, expected.compareTo(toBigDecimal(Fixed.decodeNumber(bytes))));
+            Assert.assertEquals(',', chars.get());
+            Assert.assertEquals(',', bytes.get());
+        }
+    }
+
+    private static BigDecimal toBigDecimal(final Number number) {
+        if (number instanceof Fixed) {
+            final Fixed fixed = (Fixed) number;
+
+            return BigDecimal.valueOf(fixed.value).divide(BigDecimal.valueOf(fixed.scale));
+        } else if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        } else {
+            return (BigDecimal) number;
+        }
+    }
+
+    @Test
+    public void testDecodeOverflowInDocument() throws IOException {
+        final String json = "{\"id\": 12345678901234567890123, \"ids\": [1, 2, 98765432109876543210], \"price\": 0.1234567890123456789012}";
+        final Map<String, Object> expected = Decoder.decode(json);
+
+        Assert.assertEquals(new BigInteger("12345678901234567890123"), expected.get("id"));
+        Assert.assertEquals(new BigInteger("98765432109876543210"), ((List<?>) expected.get("ids")).get(2));
+        Assert.assertEquals(new BigDecimal("0.1234567890123456789012"), expected.get("price"));
+        Assert.assertEquals(expected, Decoder.decode(json, new DecoderOptions().primitiveArrays(true)));
+        Assert.assertEquals(expected, Decoder.decode(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8))));
+        Assert.assertEquals(expected, Decoder.decode(Encoder.encode(expected)));
+    }
+
+    @Test
+    public void testDecodeLongMinValue() throws IOException {
+        final String json = "{\"min\": -9223372036854775808, \"max\": 9223372036854775807, \"ids\": [-9223372036854775808]}";
+        final Fixed min = new Fixed(Long.MIN_VALUE, 1L);
+
+        for (Map<String, Object> out : decodeEverywhere(json)) {
+            Assert.assertEquals(min, out.get("min"));
+            Assert.assertEquals(new Fixed(Long.MAX_VALUE, 1L), out.get("max"));
+            Assert.assertEquals(min, ((List<?>) out.get("ids")).get(0));
+        }
+    }
+
+    @Test
+    public void testDecodeZeroScale() throws IOException {
+        final String json = "{\"a\": 5/0, \"b\": [-7/00, 1/2], \"c\": true}";
+
+        for (Map<String, Object> out : decodeEverywhere(json)) {
+            Assert.assertEquals(new Fixed(5L, 0L), out.get("a"));
+            Assert.assertEquals(new Fixed(-7L, 0L), ((List<?>) out.get("b")).get(0));
+            Assert.assertEquals(new Fixed(1L, 2L), ((List<?>) out.get("b")).get(1));
+            Assert.assertEquals(Boolean.TRUE, out.get("c"));
+        }
+
+        Assert.assertEquals(new Fixed(5L, 0L), Fixed.parseFixed("5/0"));
+        Assert.assertEquals(new Fixed(5L, 0L), Fixed.decodeFixed(ByteBuffer.wrap("5/0".getBytes(StandardCharsets.US_ASCII))));
+    }
+
+    private static Map<String, Object>[] decodeEverywhere(final String json) throws IOException {
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(json.length() * 2);
+
+        direct.asCharBuffer().put(json);
+
+        final CharBuffer directChars = direct.asCharBuffer();
+
+        directChars.limit(json.length());
+
+        return new Map[] {
+            Decoder.decode(json),
+            Decoder.decode(json, new DecoderOptions().primitiveArrays(true)),
+            Decoder.decode(CharBuffer.wrap(json)),
+            Decoder.decode(directChars),
+            Decoder.decode(ByteBuffer.wrap(bytes))
+        };
+    }
+
+    static final class Holder {
+        double a;
+        Object b;
+    }
+
+    @Test
+    public void testHugeExponent() throws IOException {
+        // valid JSON, but beyond what BigDecimal can represent
+        final String json = "{\"a\": 1e99999999999, \"b\": 1e99999999999}";
+        final ByteBuffer direct = ByteBuffer.allocateDirect(json.length() * 2);
+
+        direct.asCharBuffer().put(json);
+
+        final CharBuffer directChars = direct.asCharBuffer();
+
+        directChars.limit(json.length());
+
+        final Decode[] paths = {
+            () -> Decoder.decode(json),
+            () -> Decoder.decode(json, new DecoderOptions().primitiveArrays(true).iterative(true)),
+            () -> Decoder.decode(CharBuffer.wrap(json)),
+            () -> Decoder.decode(directChars),
+            () -> Decoder.decode(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8))),
+            () -> Decoder.extract(CharBuffer.wrap(json), "/a"),
+            () -> Decoder.decode(json, Holder.class),
+            () -> Decoder.decode("{\"b\": [1e99999999999]}", Holder.class)
+        };
+
+        for (Decode path : paths) {
+            try {
+                path.decode();
+                Assert.fail();
+            } catch (IOException ex) {
+                Assert.assertEquals("Malformed Number!", ex.getMessage());
+            }
+        }
+
+        try {
+            Decoder.decodeLazy(json).get("a");
+            Assert.fail();
+        } catch (UncheckedIOException ex) {
+            Assert.assertEquals("Malformed Number!", ex.getCause().getMessage());
+        }
+    }
+
+    private interface Decode {
+        Object decode() throws IOException;
+    }
+}
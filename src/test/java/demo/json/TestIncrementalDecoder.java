@@ -0,0 +1,156 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class TestIncrementalDecoder {
+    private static final String DOCUMENT = "{\"id\": 12345, \"neg\": -1.5e3, \"big\": 123456789012345678901234567890,"
+            + " \"s\": \"tab\\there \\\"q\\\" \\u00e9\\ud83d\\ude00\", \"utf\": \"h\u00e9llo \u20ac \ud83d\ude00\","
+            + " \"flags\": [true, false, null, TRUE], \"empty\": {}, \"none\": [],"
+            + " \"nested\": {\"a\": [1, [2, {\"b\": \"c\"}]], \"d\": 0}}";
+
+    @Test
+    public void testEverySplitChars() throws IOException {
+        final Map<String, Object> expected = Decoder.decode(DOCUMENT);
+        final IncrementalDecoder decoder = new IncrementalDecoder();
+
+        for (int split = 0; split <= DOCUMENT.length(); split++) {
+            Assert.assertEquals(split == DOCUMENT.length(), decoder.feed(CharBuffer.wrap(DOCUMENT.substring(0, split))));
+            Assert.assertTrue(decoder.feed(CharBuffer.wrap(DOCUMENT.substring(split))));
+            Assert.assertEquals(expected, decoder.take());
+        }
+    }
+
+    @Test
+    public void testEverySplitBytes() throws IOException {
+        final Map<String, Object> expected = Decoder.decode(DOCUMENT);
+        final byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        final IncrementalDecoder decoder = new IncrementalDecoder();
+
+        for (int split = 0; split <= bytes.length; split++) {
+            final ByteBuffer head = ByteBuffer.wrap(bytes, 0, split);
+            final ByteBuffer tail = ByteBuffer.wrap(bytes, split, bytes.length - split);
+
+            Assert.assertEquals(split == bytes.length, decoder.feed(head));
+            Assert.assertFalse(head.hasRemaining());
+            Assert.assertTrue(decoder.feed(tail));
+            Assert.assertFalse(tail.hasRemaining());
+            Assert.assertEquals(expected, decoder.take());
+        }
+    }
+
+    @Test
+    public void testByteAtATime() throws IOException {
+        final byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        final IncrementalDecoder decoder = new IncrementalDecoder();
+        final ByteBuffer direct = ByteBuffer.allocateDirect(1);
+
+        for (int i = 0; i < bytes.length; i++) {
+            direct.clear();
+            direct.put(bytes[i]).flip();
+            Assert.assertEquals(i == bytes.length - 1, decoder.feed(direct));
+        }
+
+        Assert.assertEquals(Decoder.decode(DOCUMENT), decoder.take());
+    }
+
+    @Test
+    public void testPipelined() throws IOException {
+        final String input = "{\"a\": 1}\n{\"b\": \"\u00e9\"} {\"c\": [1, 2]}";
+        final IncrementalDecoder decoder = new IncrementalDecoder();
+        final CharBuffer chars = CharBuffer.wrap(input);
+        final ByteBuffer bytes = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+
+        for (String expected : new String[] {"{\"a\": 1}", "{\"b\": \"\u00e9\"}", "{\"c\": [1, 2]}"}) {
+            Assert.assertTrue(decoder.feed(chars));
+            Assert.assertEquals(Decoder.decode(expected), decoder.take());
+        }
+
+        Assert.assertFalse(decoder.feed(chars));
+        Assert.assertFalse(decoder.endOfInput());
+
+        Assert.assertTrue(decoder.feed(bytes));
+        Assert.assertEquals(Decoder.decode("{\"a\": 1}"), decoder.take());
+        Assert.assertTrue(decoder.feed(bytes));
+        Assert.assertEquals(Decoder.decode("{\"b\": \"\u00e9\"}"), decoder.take());
+        Assert.assertEquals(" {\"c\": [1, 2]}".length(), bytes.remaining());
+    }
+
+    @Test
+    public void testOptions() throws IOException {
+        final IncrementalDecoder decoder = new IncrementalDecoder(new DecoderOptions().compactObjects(true).internKeys(true));
+
+        Assert.assertFalse(decoder.feed(CharBuffer.wrap("{\"key\": {\"key\"")));
+        Assert.assertTrue(decoder.feed(CharBuffer.wrap(": 1}}")));
+
+        final Map<String, Object> out = decoder.take();
+
+        Assert.assertTrue(out instanceof CompactObject);
+        Assert.assertSame(out.keySet().iterator().next(), ((Map<String, Object>) out.get("key")).keySet().iterator().next());
+    }
+
+    private static void assertFails(final IncrementalDecoder decoder, final String... chunks) {
+        try {
+            for (String chunk : chunks) {
+                decoder.feed(CharBuffer.wrap(chunk));
+            }
+
+            decoder.endOfInput();
+            Assert.fail();
+        } catch (IOException expected) {
+            decoder.reset();
+        }
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        final IncrementalDecoder decoder = new IncrementalDecoder(new DecoderOptions().maxDepth(2).maxStringLength(4).maxLength(64));
+
+        assertFails(decoder, "[1]");
+        assertFails(decoder, "{\"a\" 1}");
+        assertFails(decoder, "{\"a\": [1,]}");
+        assertFails(decoder, "{\"a\": [1}");
+        assertFails(decoder, "{\"a\": tr", "ue");
+        assertFails(decoder, "{\"a\": tx");
+        assertFails(decoder, "{\"a\": \"\\x\"}");
+        assertFails(decoder, "{\"a\": 1");
+        assertFails(decoder, "{\"a\": [[1]]}");
+        assertFails(decoder, "{\"a\": \"ab", "cde\"}");
+        assertFails(decoder, "{\"a\": [", "1111111111111111111111111111111111111111111111111111111111111111]}");
+
+        try {
+            decoder.feed(ByteBuffer.wrap(new byte[] {'{', '\"', (byte) 0xFF}));
+            Assert.fail();
+        } catch (IOException expected) {
+        }
+
+        try {
+            decoder.feed(CharBuffer.wrap("{}"));
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+            decoder.reset();
+        }
+
+        Assert.assertTrue(decoder.feed(CharBuffer.wrap("{\"a\": [\"abcd\"]}")));
+        Assert.assertEquals(Decoder.decode("{\"a\": [\"abcd\"]}"), decoder.take());
+    }
+
+    @Test
+    public void testTruncatedUtf8() throws IOException {
+        final IncrementalDecoder decoder = new IncrementalDecoder();
+
+        Assert.assertFalse(decoder.feed(ByteBuffer.wrap(new byte[] {(byte) 0xE2, (byte) 0x82})));
+
+        try {
+            decoder.endOfInput();
+            Assert.fail();
+        } catch (IOException expected) {
+        }
+    }
+}
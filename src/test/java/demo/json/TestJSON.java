@@ -4,7 +4,16 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,4 +45,238 @@ public class TestJSON {
 
         Assert.assertEquals("Hello World!", obj.get("greeting"));
     }
+
+    private static final String UTF8_DOCUMENT = "\uFEFF{\"name\": \"Gr\u00FC\u00DFe \u2603\", \"escaped\": \"tab\\there \\u00e9 \\ud83d\\ude00 \\\"q\\\"\","
+            + " \"emoji\": \"\ud83d\ude00\", \"n\": [-12, 0.5, true, false, null]}";
+
+    private static void checkUtf8Document(final Map<String, Object> obj) {
+        Assert.assertEquals("Gr\u00FC\u00DFe \u2603", obj.get("name"));
+        Assert.assertEquals("tab\there \u00e9 \ud83d\ude00 \"q\"", obj.get("escaped"));
+        Assert.assertEquals("\ud83d\ude00", obj.get("emoji"));
+
+        final List<Object> n = (List<Object>) obj.get("n");
+
+        Assert.assertEquals(-12L, ((Number) n.get(0)).longValue());
+        Assert.assertEquals(0.5, ((Number) n.get(1)).doubleValue(), 1E-9);
+        Assert.assertEquals(Arrays.asList(true, false, null), n.subList(2, 5));
+    }
+
+    @Test
+    public void testDecodeBytes() throws IOException {
+        final byte[] bytes = UTF8_DOCUMENT.getBytes(StandardCharsets.UTF_8);
+
+        checkUtf8Document(Decoder.decode(ByteBuffer.wrap(bytes)));
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+
+        direct.put(bytes).flip();
+
+        checkUtf8Document(Decoder.decode(direct));
+        Assert.assertFalse(direct.hasRemaining());
+
+        // every truncation fails with IOException, not a buffer exception
+        final List<String> truncated = new ArrayList<>(Arrays.asList("{\"a\": 1", "{\"a\": tru", "{\"a\"", "{\"a\": ", "[1, ", "{\"a\": nul"));
+
+        for (int length = 1; length < UTF8_DOCUMENT.length(); length++) {
+            truncated.add(UTF8_DOCUMENT.substring(1, length));
+        }
+
+        for (String json : truncated) {
+            try {
+                Decoder.decode(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+                Assert.fail(json);
+            } catch (IOException expected) {
+            }
+
+            try {
+                Decoder.decode(CharBuffer.wrap(json));
+                Assert.fail(json);
+            } catch (IOException expected) {
+            }
+        }
+    }
+
+    @Test
+    public void testDecodePath() throws IOException {
+        final Path file = Files.createTempFile("json", ".json");
+
+        try {
+            Files.write(file, UTF8_DOCUMENT.getBytes(StandardCharsets.UTF_8));
+            checkUtf8Document(Decoder.decode(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testEncodeGrows() throws IOException {
+        final List<Object> rows = new ArrayList<>();
+
+        for (int i = 0; i < 50_000; i++) {
+            rows.add("row-" + i);
+        }
+
+        final Map<String, Object> obj = Collections.singletonMap("rows", rows);
+        final String json = Encoder.encode(obj);
+
+        Assert.assertTrue(json.length() > 128 * 1024);
+        Assert.assertEquals(rows, Decoder.decode(json).get("rows"));
+
+        final StringWriter writer = new StringWriter();
+
+        Encoder.encode(obj, writer);
+        Assert.assertEquals(json, writer.toString());
+
+        final StringBuilder builder = new StringBuilder();
+
+        Encoder.encode(obj, builder);
+        Assert.assertEquals(json, builder.toString());
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void testEncodeOverflow() throws IOException {
+        Encoder.encode(CharBuffer.allocate(4), Collections.singletonMap("greeting", "Hello World!"));
+    }
+
+    @Test
+    public void testDecodeLazy() throws IOException {
+        final String json = "{\"id\": 7, \"name\": \"a\\\"b\", \"tags\": [\"x\", {\"deep\": [1.5, null, true]}],"
+                + " \"e\\/x\": false, \"empty\": {}, \"none\": []}";
+        final Map<String, Object> lazy = Decoder.decodeLazy(json);
+
+        Assert.assertEquals(6, lazy.size());
+        Assert.assertEquals(7L, ((Number) lazy.get("id")).longValue());
+        Assert.assertEquals("a\"b", lazy.get("name"));
+        Assert.assertEquals(Boolean.FALSE, lazy.get("e/x"));
+        Assert.assertFalse(lazy.containsKey("missing"));
+        Assert.assertSame(lazy.get("tags"), lazy.get("tags"));
+        Assert.assertEquals(Decoder.decode(json), lazy);
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeLazyMalformed() throws IOException {
+        Decoder.decodeLazy("{\"a\": [1, 2}");
+    }
+
+    @Test
+    public void testDecodeEscapes() throws IOException {
+        final Map<String, Object> obj = Decoder.decode("{\"s\": \"plain \\\"quoted\\\" \\\\ \\/ \\b\\f\\n\\r\\t \\u00e9\\u00C9 \\ud83d\\ude00 end\","
+                + " \"k\\u0065y\": \"\\u2603\"}");
+
+        Assert.assertEquals("plain \"quoted\" \\ / \b\f\n\r\t \u00e9\u00C9 \ud83d\ude00 end", obj.get("s"));
+        Assert.assertEquals("\u2603", obj.get("key"));
+        Assert.assertEquals(0x1F600, ((String) obj.get("s")).codePointAt(((String) obj.get("s")).indexOf('\ud83d')));
+    }
+
+    @Test(expected = IOException.class)
+    public void testDecodeBadUnicodeEscape() throws IOException {
+        Decoder.decode("{\"s\": \"\\u00zz\"}");
+    }
+
+    @Test
+    public void testInternKeys() throws IOException {
+        final DecoderOptions options = new DecoderOptions().internKeys(true);
+        final Map<String, Object> a = Decoder.decode("{\"schemaKey\": 1, \"esc\\u0061ped\": 2}", options);
+        final Map<String, Object> b = Decoder.decode("{\"escaped\": 3, \"schemaKey\": 4}", options);
+
+        Assert.assertSame(keyOf(a, "schemaKey"), keyOf(b, "schemaKey"));
+        Assert.assertSame(keyOf(a, "escaped"), keyOf(b, "escaped"));
+        Assert.assertEquals(4L, ((Number) b.get("schemaKey")).longValue());
+    }
+
+    @Test
+    public void testInternKeysBounded() throws IOException {
+        // "Aa" and "BB" share a hash code, so every key below collides; the table must stay correct
+        final StringBuilder json = new StringBuilder("{");
+        final int count = 1 << 12;
+
+        for (int i = 0; i < count; i++) {
+            final StringBuilder key = new StringBuilder();
+
+            for (int bit = 0; bit < 12; bit++) {
+                key.append(((i >> bit) & 1) == 0 ? "Aa" : "BB");
+            }
+
+            json.append(i == 0 ? "" : ",").append('\"').append(key).append("\":").append(i);
+        }
+
+        final Map<String, Object> obj = Decoder.decode(json.append('}').toString(), new DecoderOptions().internKeys(true));
+
+        Assert.assertEquals(count, obj.size());
+        Assert.assertEquals(5L, ((Number) obj.get("BBAaBBAaAaAaAaAaAaAaAaAa")).longValue());
+    }
+
+    private static String keyOf(final Map<String, Object> obj, final String key) {
+        for (String candidate : obj.keySet()) {
+            if (candidate.equals(key)) {
+                return candidate;
+            }
+        }
+
+        throw new AssertionError("Missing key: " + key);
+    }
+
+    @Test
+    public void testPrimitiveArrays() throws IOException {
+        final String json = "{\"ints\": [1, -2, 3], \"fixed\": [1.5, 2, -0.25], \"mixed\": [1, \"x\", 2],"
+                + " \"nested\": [[1, 2], [3]], \"empty\": []}";
+        final Map<String, Object> obj = Decoder.decode(json, new DecoderOptions().primitiveArrays(true));
+
+        Assert.assertTrue(obj.get("ints") instanceof LongList);
+        Assert.assertArrayEquals(new long[] {1L, -2L, 3L}, ((LongList) obj.get("ints")).toLongArray());
+        Assert.assertTrue(obj.get("fixed") instanceof FixedList);
+        Assert.assertEquals(-0.25, ((FixedList) obj.get("fixed")).getDouble(2), 1E-9);
+        Assert.assertFalse(obj.get("mixed") instanceof LongList);
+        Assert.assertTrue(((List<?>) obj.get("nested")).get(0) instanceof LongList);
+
+        final Map<String, Object> boxed = Decoder.decode(json);
+
+        Assert.assertEquals(boxed, obj);
+        Assert.assertEquals(boxed, Decoder.decode(Encoder.encode(obj)));
+    }
+
+    @Test
+    public void testEncodePlainDecimals() throws IOException {
+        final Map<String, Object> obj = new HashMap<>();
+
+        obj.put("price", new Fixed(314L, 100L));
+        obj.put("loss", new Fixed(-5L, 1000L));
+        obj.put("count", new Fixed(7L, 1L));
+        obj.put("half", new Fixed(1L, 2L));
+        obj.put("ratio", 0.1);
+        obj.put("small", 1.5f);
+
+        final EncoderOptions options = new EncoderOptions().plainDecimals(true);
+        final Map<String, Object> decoded = Decoder.decode(Encoder.encode(obj, options));
+
+        Assert.assertEquals(new Fixed(314L, 100L), decoded.get("price"));
+        Assert.assertEquals(new Fixed(-5L, 1000L), decoded.get("loss"));
+        Assert.assertEquals(new Fixed(7L, 1L), decoded.get("count"));
+        Assert.assertEquals(0.5, ((Fixed) decoded.get("half")).doubleValue(), 1E-9);
+        Assert.assertEquals(0.1, ((Fixed) decoded.get("ratio")).doubleValue(), 1E-9);
+        Assert.assertEquals(1.5, ((Fixed) decoded.get("small")).doubleValue(), 1E-9);
+
+        Assert.assertTrue(Encoder.encode(Collections.singletonMap("x", new Fixed(314L, 100L))).contains("314/100"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testEncodeNaN() throws IOException {
+        Encoder.encode(Collections.singletonMap("x", Double.NaN));
+    }
+
+    @Test
+    public void testEncodeEscapes() throws IOException {
+        final String value = "q\"b\\n\nr\rt\tb\bf\f\u0000\u001f\u007f\u00e9\ud83d\ude00";
+
+        Assert.assertEquals("{\"k\\n\":\"q\\\"b\\\\n\\nr\\rt\\tb\\bf\\f\\u0000\\u001f\u007f\u00e9\ud83d\ude00\"}",
+                Encoder.encode(Collections.singletonMap("k\n", value)));
+        Assert.assertEquals("{\"k\":\"\\u00e9x\\ud83d\\ude00\"}",
+                Encoder.encode(Collections.singletonMap("k", "\u00e9x\ud83d\ude00"), new EncoderOptions().asciiOnly(true)));
+        Assert.assertEquals("{\"plain\":\"text\"}", Encoder.encode(Collections.singletonMap("plain", "text")));
+
+        final Map<String, Object> obj = Collections.singletonMap("s", value);
+
+        Assert.assertEquals(obj, Decoder.decode(Encoder.encode(obj)));
+        Assert.assertEquals(obj, Decoder.decode(Encoder.encode(obj, new EncoderOptions().asciiOnly(true))));
+    }
 }
@@ -0,0 +1,162 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class TestJsonMetrics {
+    private static final String DOCUMENT = "{\"a\": \"x\\ty\\u0041\", \"b\": [1, 2.5, 123456789012345678901234567890],"
+            + " \"c\": {\"d\": [[]]}, \"e\": \"plain\"}";
+
+    private static final class Captured implements JsonMetrics {
+        final List<JsonStats> decoded = new ArrayList<>();
+        final List<JsonStats> encoded = new ArrayList<>();
+
+        @Override
+        public void decoded(final JsonStats stats) {
+            this.decoded.add(stats);
+        }
+
+        @Override
+        public void encoded(final JsonStats stats) {
+            this.encoded.add(stats);
+        }
+    }
+
+    private static void assertDecodeStats(final JsonStats stats) {
+        Assert.assertEquals(DOCUMENT.length(), stats.getLength());
+        Assert.assertEquals(4, stats.getMaxDepth());
+        Assert.assertEquals(7, stats.getStrings());
+        Assert.assertEquals(3, stats.getNumbers());
+        Assert.assertEquals(2, stats.getEscapes());
+        Assert.assertEquals(1, stats.getEscapedStrings());
+        Assert.assertEquals(1, stats.getNumberFallbacks());
+        Assert.assertTrue(stats.getNanos() >= 0L);
+    }
+
+    @Test
+    public void testDecode() throws IOException {
+        final Captured metrics = new Captured();
+
+        Decoder.decode(DOCUMENT, new DecoderOptions().metrics(metrics));
+        Decoder.decode(DOCUMENT, new DecoderOptions().metrics(metrics).iterative(true));
+        Decoder.decode(DOCUMENT, new DecoderOptions().metrics(metrics).internKeys(true).primitiveArrays(true));
+        new ReusableDecoder(new DecoderOptions().metrics(metrics)).decode(DOCUMENT);
+
+        final IncrementalDecoder incremental = new IncrementalDecoder(new DecoderOptions().metrics(metrics));
+        final byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+
+        for (int i = 0; i < bytes.length; i++) {
+            incremental.feed(ByteBuffer.wrap(bytes, i, 1));
+        }
+
+        Assert.assertEquals(5, metrics.decoded.size());
+
+        for (JsonStats stats : metrics.decoded) {
+            assertDecodeStats(stats);
+        }
+
+        // without options nothing is reported
+        Decoder.decode(DOCUMENT);
+        Assert.assertEquals(5, metrics.decoded.size());
+    }
+
+    @Test
+    public void testEncode() throws IOException {
+        final Captured metrics = new Captured();
+        final Map<String, Object> data = Decoder.decode(DOCUMENT);
+        final EncoderOptions options = new EncoderOptions().metrics(metrics).plainDecimals(true);
+        final String json = Encoder.encode(data, options);
+
+        Assert.assertEquals(1, metrics.encoded.size());
+
+        final JsonStats stats = metrics.encoded.get(0);
+
+        Assert.assertEquals(json.length(), stats.getLength());
+        Assert.assertEquals(4, stats.getMaxDepth());
+        Assert.assertEquals(7, stats.getStrings());
+        Assert.assertEquals(3, stats.getNumbers());
+        Assert.assertEquals(1, stats.getEscapes());
+        Assert.assertEquals(1, stats.getEscapedStrings());
+        Assert.assertEquals(0, stats.getNumberFallbacks());
+
+        final Map<String, Object> thirds = Decoder.decode("{\"third\": 1/3}");
+
+        Encoder.encode(thirds, options);
+        Assert.assertEquals(1, metrics.encoded.get(1).getNumbers());
+        Assert.assertEquals(1, metrics.encoded.get(1).getNumberFallbacks());
+
+        // reusing a caller's buffer starts from fresh counts
+        final EncodeBuffer buffer = new EncodeBuffer();
+
+        Encoder.encode(buffer, thirds, options);
+        Encoder.encode(buffer, thirds, options);
+        Assert.assertEquals(1, metrics.encoded.get(3).getNumbers());
+        Assert.assertEquals(buffer.length() / 2, metrics.encoded.get(3).getLength());
+    }
+
+    @Test
+    public void testRecorder() throws IOException {
+        final JsonMetricsRecorder recorder = new JsonMetricsRecorder();
+        final DecoderOptions options = new DecoderOptions().metrics(recorder);
+
+        for (int i = 0; i < 10; i++) {
+            Encoder.encode(Decoder.decode(CharBuffer.wrap(DOCUMENT), options), new EncoderOptions().metrics(recorder));
+        }
+
+        final JsonMetricsRecorder.Totals decoding = recorder.getDecoding();
+
+        Assert.assertEquals(10, decoding.getNanos().getCount());
+        Assert.assertEquals(10, decoding.getLengths().getCount());
+        Assert.assertEquals(DOCUMENT.length(), decoding.getLengths().getMax());
+        Assert.assertEquals(70, decoding.getStrings());
+        Assert.assertEquals(30, decoding.getNumbers());
+        Assert.assertEquals(20, decoding.getEscapes());
+        Assert.assertEquals(10, decoding.getEscapedStrings());
+        Assert.assertEquals(10, decoding.getNumberFallbacks());
+        Assert.assertEquals(4, decoding.getMaxDepth());
+        Assert.assertEquals(10, recorder.getEncoding().getNanos().getCount());
+
+        decoding.reset();
+        Assert.assertEquals(0, decoding.getNanos().getCount());
+        Assert.assertEquals(0, decoding.getStrings());
+    }
+
+    @Test
+    public void testHistogram() {
+        final Histogram histogram = new Histogram();
+
+        Assert.assertEquals(0L, histogram.getPercentile(50.0));
+
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+
+        Assert.assertEquals(1000L, histogram.getCount());
+        Assert.assertEquals(1000L, histogram.getMax());
+        Assert.assertEquals(500.5, histogram.getMean(), 1e-9);
+        Assert.assertEquals(1000L, histogram.getPercentile(100.0));
+
+        // buckets are four per power of two, so percentiles are within 25% above the true value
+        for (double percentile : new double[] {1.0, 10.0, 50.0, 90.0, 99.0}) {
+            final long value = histogram.getPercentile(percentile);
+            final double exact = percentile * 10.0;
+
+            Assert.assertTrue(percentile + ": " + value, value >= exact && value <= exact * 1.25);
+        }
+
+        for (int bucket = 0; bucket < 247; bucket++) {
+            Assert.assertEquals(bucket, Histogram.bucket(Histogram.highest(bucket)));
+            Assert.assertEquals(bucket + 1, Histogram.bucket(Histogram.highest(bucket) + 1));
+        }
+
+        Assert.assertEquals(247, Histogram.bucket(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,64 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class TestJsonReader {
+    @Test
+    public void testTokens() throws IOException {
+        final JsonReader reader = new JsonReader("{\"a\": [1, -2.5, \"x\\ty\"], \"b\": {\"c\": true, \"d\": null}, \"e\": false}");
+
+        Assert.assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+        Assert.assertEquals(JsonToken.NAME, reader.nextToken());
+        Assert.assertEquals("a", reader.getString());
+        Assert.assertEquals(JsonToken.BEGIN_ARRAY, reader.nextToken());
+        Assert.assertEquals(JsonToken.NUMBER, reader.nextToken());
+        Assert.assertEquals(1L, reader.getFixed().longValue());
+        Assert.assertEquals(JsonToken.NUMBER, reader.nextToken());
+        Assert.assertEquals(-2.5, reader.getFixed().doubleValue(), 1E-9);
+        Assert.assertEquals(JsonToken.STRING, reader.nextToken());
+        Assert.assertEquals("x\ty", reader.getString());
+        Assert.assertEquals(JsonToken.END_ARRAY, reader.nextToken());
+        Assert.assertEquals(JsonToken.NAME, reader.nextToken());
+        Assert.assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+        Assert.assertEquals(JsonToken.NAME, reader.nextToken());
+        Assert.assertEquals(JsonToken.TRUE, reader.nextToken());
+        Assert.assertTrue(reader.getBoolean());
+        Assert.assertEquals(JsonToken.NAME, reader.nextToken());
+        Assert.assertEquals(JsonToken.NULL, reader.nextToken());
+        Assert.assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+        Assert.assertEquals(JsonToken.NAME, reader.nextToken());
+        Assert.assertEquals("e", reader.getString());
+        Assert.assertEquals(JsonToken.FALSE, reader.nextToken());
+        Assert.assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+        Assert.assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+    }
+
+    @Test
+    public void testSkipValue() throws IOException {
+        final JsonReader reader = new JsonReader("{\"skip\":{\"x\":[1,{\"y\":\"}]\"}],\"z\":\"\\\"\"},\"keep\":42}");
+
+        Assert.assertEquals(JsonToken.BEGIN_OBJECT, reader.nextToken());
+        Assert.assertEquals(JsonToken.NAME, reader.nextToken());
+        reader.skipValue();
+        Assert.assertEquals(JsonToken.END_OBJECT, reader.currentToken());
+        Assert.assertEquals(1, reader.getDepth());
+        Assert.assertEquals(JsonToken.NAME, reader.nextToken());
+        Assert.assertEquals("keep", reader.getString());
+        Assert.assertEquals(JsonToken.NUMBER, reader.nextToken());
+        Assert.assertEquals(42L, reader.getFixed().longValue());
+        Assert.assertEquals(JsonToken.END_OBJECT, reader.nextToken());
+        Assert.assertEquals(JsonToken.END_DOCUMENT, reader.nextToken());
+    }
+
+    @Test(expected = IOException.class)
+    public void testMissingSeparator() throws IOException {
+        final JsonReader reader = new JsonReader("[1 2]");
+
+        while (reader.nextToken() != JsonToken.END_DOCUMENT) {
+            // drain
+        }
+    }
+}
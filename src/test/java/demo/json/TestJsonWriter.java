@@ -0,0 +1,104 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestJsonWriter {
+    private static void writeDocument(final JsonWriter writer) throws IOException {
+        writer.beginObject()
+                .name("id").value(Long.MIN_VALUE)
+                .name("price").value(new Fixed(314, 100))
+                .name("ratio").value(0.25)
+                .name("text").value("tab\there \"quoted\" \u00e9\u2603\ud83d\ude00\u0001")
+                .name("flags").beginArray().value(true).value(false).nullValue().endArray()
+                .name("nested").value(Collections.singletonMap("list", Arrays.asList(1, 2L, "x")))
+                .endObject();
+    }
+
+    private static void checkDocument(final byte[] json) throws IOException {
+        final Map<String, Object> obj = Decoder.decode(ByteBuffer.wrap(json));
+
+        Assert.assertEquals(Long.MIN_VALUE, ((Number) obj.get("id")).longValue());
+        Assert.assertEquals(3.14, ((Number) obj.get("price")).doubleValue(), 1E-9);
+        Assert.assertEquals(0.25, ((Number) obj.get("ratio")).doubleValue(), 1E-9);
+        Assert.assertEquals("tab\there \"quoted\" \u00e9\u2603\ud83d\ude00\u0001", obj.get("text"));
+        Assert.assertEquals(Arrays.asList(true, false, null), obj.get("flags"));
+
+        final List<Object> list = (List<Object>) ((Map<String, Object>) obj.get("nested")).get("list");
+
+        Assert.assertEquals(2L, ((Number) list.get(1)).longValue());
+        Assert.assertEquals("x", list.get(2));
+    }
+
+    @Test
+    public void testOutputStream() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // a tiny chunk forces many intermediate flushes
+        try (JsonWriter writer = new JsonWriter(out, 16)) {
+            writeDocument(writer);
+        }
+
+        checkDocument(out.toByteArray());
+    }
+
+    @Test
+    public void testChannel() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (JsonWriter writer = new JsonWriter(Channels.newChannel(out))) {
+            writeDocument(writer);
+        }
+
+        checkDocument(out.toByteArray());
+    }
+
+    @Test
+    public void testByteBuffer() throws IOException {
+        final ByteBuffer target = ByteBuffer.allocate(1024);
+        final JsonWriter writer = new JsonWriter(target);
+
+        writeDocument(writer);
+        writer.flush();
+        target.flip();
+
+        final byte[] json = new byte[target.remaining()];
+
+        target.get(json);
+        checkDocument(json);
+        Assert.assertTrue(new String(json, StandardCharsets.UTF_8).startsWith("{\"id\":-9223372036854775808,\"price\":314/100,"));
+    }
+
+    @Test
+    public void testRawJson() throws IOException {
+        final Map<String, Object> document = new LinkedHashMap<>();
+
+        document.put("config", RawJson.of("{\"name\": \"h\u00e9llo \u20ac\", \"list\": [1, 2, 3, 4, 5, 6, 7, 8, 9, 10]}"));
+        document.put("list", Arrays.asList(RawJson.of("\"x\""), 1));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // the raw text is longer than a chunk
+        try (JsonWriter writer = new JsonWriter(out, 32)) {
+            writer.value(document);
+        }
+
+        Assert.assertEquals(Encoder.encode(document), new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testValueWithoutName() throws IOException {
+        new JsonWriter(new ByteArrayOutputStream()).beginObject().value(1L);
+    }
+}
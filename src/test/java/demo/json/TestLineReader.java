@@ -0,0 +1,83 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class TestLineReader {
+    private static ReadableByteChannel channel(final String text) {
+        return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<Map<String, Object>> readAll(final String text, final int bufferSize) {
+        final Iterator<Map<String, Object>> records = new LineReader(channel(text), new DecodeContext(), bufferSize);
+        final List<Map<String, Object>> out = new ArrayList<>();
+
+        while (records.hasNext()) {
+            out.add(records.next());
+        }
+
+        return out;
+    }
+
+    @Test
+    public void testStraddlingRecords() throws IOException {
+        final StringBuilder text = new StringBuilder("\uFEFF");
+        final List<Map<String, Object>> expected = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            // multi-byte characters and records longer than the buffer cross refill boundaries
+            final String record = "{\"id\": " + i + ", \"text\": \"\u00E9\u4E2D\uD83D\uDE00 " + i + "\", \"n\": [1.5, " + i + "]}";
+
+            expected.add(Decoder.decode(record));
+            text.append(record).append((i % 3 == 0) ? "\r\n\n" : "\n");
+        }
+
+        Assert.assertEquals(expected, readAll(text.toString(), 16));
+        Assert.assertEquals(expected, readAll(text.toString(), LineReader.DEFAULT_BUFFER_SIZE));
+    }
+
+    @Test
+    public void testLastLineWithoutNewline() {
+        final List<Map<String, Object>> records = readAll("{\"a\": 1}\n\n{\"a\": 2}", 8);
+
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals(2, ((Number) records.get(1).get("a")).intValue());
+        Assert.assertTrue(readAll(" \n\n", 8).isEmpty());
+    }
+
+    @Test
+    public void testStream() {
+        final List<Object> ids = Decoder.streamLines(new ByteArrayInputStream("{\"id\": 1}\n{\"id\": 2}\n".getBytes(StandardCharsets.UTF_8)))
+                .map(record -> ((Number) record.get("id")).intValue())
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(2, ids.size());
+        Assert.assertEquals(2, ids.get(1));
+    }
+
+    @Test
+    public void testMalformedLine() {
+        final Iterator<Map<String, Object>> records = Decoder.decodeLines(channel("{\"a\": 1}\n{\"a\": 2} {\"a\": 3}\n"));
+
+        records.next();
+
+        try {
+            records.next();
+            Assert.fail();
+        } catch (UncheckedIOException ex) {
+            Assert.assertEquals("Malformed JSON!", ex.getCause().getMessage());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class TestNumberWriter {
+    private static String writeDouble(final double value) {
+        final char[] buf = new char[NumberWriter.MAX_CHARS];
+
+        return new String(buf, 0, NumberWriter.writeDouble(buf, 0, value));
+    }
+
+    private static String writeFloat(final float value) {
+        final char[] buf = new char[NumberWriter.MAX_CHARS];
+
+        return new String(buf, 0, NumberWriter.writeFloat(buf, 0, value));
+    }
+
+    private static String writeLong(final long value) {
+        final char[] buf = new char[NumberWriter.MAX_CHARS];
+
+        return new String(buf, 0, NumberWriter.writeLong(buf, 0, value));
+    }
+
+    private static String writeDecimal(final long value, final int fractionDigits) {
+        final char[] buf = new char[NumberWriter.MAX_CHARS];
+
+        return new String(buf, 0, NumberWriter.writeDecimal(buf, 0, value, fractionDigits));
+    }
+
+    @Test
+    public void testLong() {
+        for (long value : new long[] {0L, 7L, -7L, 10L, 99L, 100L, -1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Assert.assertEquals(Long.toString(value), writeLong(value));
+        }
+    }
+
+    @Test
+    public void testDecimal() {
+        Assert.assertEquals("3.14", writeDecimal(314L, 2));
+        Assert.assertEquals("3.00", writeDecimal(300L, 2));
+        Assert.assertEquals("-0.5", writeDecimal(-5L, 1));
+        Assert.assertEquals("-1.005", writeDecimal(-1005L, 3));
+        Assert.assertEquals("42", writeDecimal(42L, 0));
+        Assert.assertEquals(2, NumberWriter.powerOfTen(100L));
+        Assert.assertEquals(-1, NumberWriter.powerOfTen(2048L));
+    }
+
+    @Test
+    public void testDoubleLayout() {
+        Assert.assertEquals("0.0", writeDouble(0.0));
+        Assert.assertEquals("-0.0", writeDouble(-0.0));
+        Assert.assertEquals("1.0", writeDouble(1.0));
+        Assert.assertEquals("0.1", writeDouble(0.1));
+        Assert.assertEquals("0.001", writeDouble(0.001));
+        Assert.assertEquals("9999999.0", writeDouble(9999999.0));
+        Assert.assertEquals("1.0E7", writeDouble(1E7));
+        Assert.assertEquals("1.0E23", writeDouble(1E23));
+        Assert.assertEquals("4.9E-324", writeDouble(Double.MIN_VALUE));
+        Assert.assertEquals("1.7976931348623157E308", writeDouble(Double.MAX_VALUE));
+        Assert.assertEquals("1.1754944E-38", writeFloat(Float.MIN_NORMAL));
+        Assert.assertEquals("3.14", writeFloat(3.14f));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        final Random rng = new Random(42L);
+
+        for (int i = 0; i < 200_000; i++) {
+            final double value = Double.longBitsToDouble(rng.nextLong());
+
+            if (!Double.isNaN(value) && !Double.isInfinite(value)) {
+                final String text = writeDouble(value);
+
+                Assert.assertEquals(text, value, Double.parseDouble(text), 0.0);
+                Assert.assertTrue(text, text.length() <= Double.toString(value).length());
+            }
+
+            final float single = Float.intBitsToFloat(rng.nextInt());
+
+            if (!Float.isNaN(single) && !Float.isInfinite(single)) {
+                final String text = writeFloat(single);
+
+                Assert.assertEquals(text, single, Float.parseFloat(text), 0.0f);
+                Assert.assertTrue(text, text.length() <= Float.toString(single).length());
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class TestObjectCodec {
+    enum Level {
+        INFO, WARN
+    }
+
+    static class Base {
+        long id;
+    }
+
+    static final class Event extends Base {
+        private int count;
+        private double ratio;
+        private float weight;
+        private boolean enabled;
+        private short port;
+        private String name;
+        private Integer optional;
+        private Level level;
+        private Fixed price;
+        private List<Event> children;
+        private Map<String, Double> scores;
+        private Object extra;
+        private transient String ignored;
+    }
+
+    private static final String EVENT = "{\"id\": 9007199254740993, \"count\": -12, \"ratio\": 1.25e2, \"weight\": 0.5,"
+            + " \"enabled\": true, \"port\": 8080, \"name\": \"a\\\"b\", \"optional\": null, \"level\": \"WARN\","
+            + " \"unknown\": {\"deep\": [1, {\"x\": null}]}, \"price\": 19.99,"
+            + " \"children\": [{\"id\": 1, \"count\": 2e1}, null], \"scores\": {\"x\": 1}, \"extra\": [true, \"s\"]}";
+
+    @Test
+    public void testDecode() throws IOException {
+        final Event event = Decoder.decode(EVENT, Event.class);
+
+        Assert.assertEquals(9007199254740993L, event.id);
+        Assert.assertEquals(-12, event.count);
+        Assert.assertEquals(125.0, event.ratio, 0.0);
+        Assert.assertEquals(0.5F, event.weight, 0.0F);
+        Assert.assertTrue(event.enabled);
+        Assert.assertEquals(8080, event.port);
+        Assert.assertEquals("a\"b", event.name);
+        Assert.assertNull(event.optional);
+        Assert.assertEquals(Level.WARN, event.level);
+        Assert.assertEquals(new Fixed(1999L, 100L), event.price);
+        Assert.assertEquals(2, event.children.size());
+        Assert.assertEquals(1L, event.children.get(0).id);
+        Assert.assertEquals(20, event.children.get(0).count);
+        Assert.assertNull(event.children.get(1));
+        Assert.assertEquals(1.0, event.scores.get("x"), 0.0);
+        Assert.assertEquals(Arrays.asList(true, "s"), event.extra);
+        Assert.assertNull(Decoder.decode(" null", Event.class));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final Event event = new Event();
+
+        event.id = -1L;
+        event.count = 3;
+        event.ratio = 0.1;
+        event.name = "x";
+        event.level = Level.INFO;
+        event.children = new ArrayList<>();
+        event.children.add(new Event());
+        event.ignored = "y";
+
+        final String json = Encoder.encode(event);
+
+        Assert.assertFalse(json.contains("ignored"));
+        Assert.assertTrue(json.startsWith("{\"id\":-1,\"count\":3,\"ratio\":0.1,"));
+
+        final Event copy = Decoder.decode(json, Event.class);
+
+        Assert.assertEquals(json, Encoder.encode(copy));
+    }
+
+    @Test
+    public void testRoundTripLimits() throws IOException {
+        for (long id : new long[] {Long.MIN_VALUE, Long.MAX_VALUE}) {
+            final Event event = new Event();
+
+            event.id = id;
+            event.count = (int) (id >> 32);
+            event.port = (short) (id >> 48);
+
+            final Event copy = Decoder.decode(Encoder.encode(event), Event.class);
+
+            Assert.assertEquals(id, copy.id);
+            Assert.assertEquals(event.count, copy.count);
+            Assert.assertEquals(event.port, copy.port);
+        }
+    }
+
+    @Test
+    public void testInvalid() {
+        final String[] documents = {
+            "{\"count\": 1.5}",
+            "{\"count\": 3000000000}",
+            "{\"count\": null}",
+            "{\"count\": \"1\"}",
+            "{\"name\": 1}",
+            "{\"level\": \"DEBUG\"}",
+            "{\"enabled\": 1}",
+            "[]"
+        };
+
+        for (String document : documents) {
+            try {
+                Decoder.decode(document, Event.class);
+                Assert.fail(document);
+            } catch (IOException ex) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testTruncated() {
+        for (int i = 1; i < EVENT.length(); i++) {
+            try {
+                Decoder.decode(EVENT.substring(0, i), Event.class);
+                Assert.fail(EVENT.substring(0, i));
+            } catch (IOException ex) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testIntegerMessages() {
+        final String[][] cases = {
+            {"{\"count\": 2.5}", "Not an integer: 2.5"},
+            {"{\"count\": 1/3}", "Not an integer: 1/3"},
+            {"{\"count\": 3000000000}", "Integer out of range: 3000000000"},
+            {"{\"id\": 99999999999999999999}", "Integer out of range: 99999999999999999999"}
+        };
+
+        for (String[] test : cases) {
+            try {
+                Decoder.decode(test[0], Event.class);
+                Assert.fail(test[0]);
+            } catch (IOException ex) {
+                Assert.assertEquals(test[1], ex.getMessage());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedType() throws IOException {
+        Decoder.decode("{}", Runnable.class);
+    }
+}
@@ -0,0 +1,121 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TestParallelDecoder {
+    private static String record(final int i) {
+        // separators and brackets inside strings must not split records
+        return "{\"id\": " + i + ", \"text\": \"a,b]}[{ \\\"q\\\" \\\\\", \"tags\": [" + i + ", {\"x\": [1, 2]}]}";
+    }
+
+    private static List<Map<String, Object>> expected(final int count) throws IOException {
+        final List<Map<String, Object>> out = new ArrayList<>();
+
+        for (int i = 0; i < count; i++) {
+            out.add(Decoder.decode(record(i)));
+        }
+
+        return out;
+    }
+
+    private static ByteBuffer utf8(final String json) {
+        return ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testArray() throws IOException {
+        final StringBuilder json = new StringBuilder("\uFEFF [\n");
+
+        for (int i = 0; i < 500; i++) {
+            json.append(i == 0 ? "" : ",\n").append(record(i));
+        }
+
+        json.append("\n]\n");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final ParallelDecoder.Input input = new ParallelDecoder.BufferInput(utf8(json.toString()));
+
+            Assert.assertEquals(expected(500), ParallelDecoder.decode(input, executor, 256L));
+            Assert.assertEquals(expected(500), Decoder.decodeParallel(utf8(json.toString())));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSegmentBoundaries() throws IOException {
+        // every segment size puts a boundary inside strings, escapes and nested records somewhere
+        final String json = "[" + record(0) + ", " + record(1) + ",\n" + record(2) + "]";
+
+        for (long chunkSize = 1L; chunkSize <= json.length(); chunkSize++) {
+            final ParallelDecoder.Input input = new ParallelDecoder.BufferInput(utf8(json));
+
+            Assert.assertEquals(expected(3), ParallelDecoder.decode(input, Runnable::run, chunkSize));
+        }
+
+        for (long chunkSize = 1L; chunkSize <= 16L; chunkSize++) {
+            final ParallelDecoder.Input input = new ParallelDecoder.BufferInput(utf8("[" + record(0) + "] ,"));
+
+            try {
+                ParallelDecoder.decode(input, Runnable::run, chunkSize);
+                Assert.fail("chunk size " + chunkSize);
+            } catch (IOException expected) {
+                // trailing content after the array
+            }
+        }
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        final StringBuilder json = new StringBuilder();
+
+        for (int i = 0; i < 500; i++) {
+            json.append(record(i)).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+
+        final ParallelDecoder.Input input = new ParallelDecoder.BufferInput(utf8(json.toString()));
+
+        Assert.assertEquals(expected(500), ParallelDecoder.decode(input, Runnable::run, 200L));
+
+        final Path file = Files.createTempFile("records", ".ndjson");
+
+        try {
+            Files.write(file, json.toString().getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals(expected(500), Decoder.decodeParallel(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        Assert.assertTrue(Decoder.decodeParallel(utf8(" [ ] ")).isEmpty());
+        Assert.assertTrue(Decoder.decodeParallel(utf8("\n\n")).isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testTrailingComma() throws IOException {
+        final ParallelDecoder.Input input = new ParallelDecoder.BufferInput(utf8("[" + record(0) + "," + record(1) + ", ]"));
+
+        ParallelDecoder.decode(input, Runnable::run, 8L);
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnclosedArray() throws IOException {
+        Decoder.decodeParallel(utf8("[" + record(0)));
+    }
+}
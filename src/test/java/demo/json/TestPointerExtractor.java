@@ -0,0 +1,72 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Map;
+
+public class TestPointerExtractor {
+    private static final String DOCUMENT = "{\"skip\": {\"a\": [1, \"]}\\\"\", {\"b\": null}], \"c\": \"{\"},"
+            + " \"a/b\": 1, \"m~n\": 2, \"e\\u0073c\": true, \"meta\": {\"requestId\": \"r-1\", \"list\": [10, [20, 21], {\"x\": 3.5}]},"
+            + " \"nothing\": null, \"flag\": false}";
+
+    private static Object extract(final String pointer) throws IOException {
+        return Decoder.extract(CharBuffer.wrap(DOCUMENT), pointer);
+    }
+
+    @Test
+    public void testExtract() throws IOException {
+        Assert.assertEquals("r-1", extract("/meta/requestId"));
+        Assert.assertEquals(new Fixed(35L, 10L), extract("/meta/list/2/x"));
+        Assert.assertEquals(new Fixed(21L, 1L), extract("/meta/list/1/1"));
+        Assert.assertEquals(new Fixed(1L, 1L), extract("/a~1b"));
+        Assert.assertEquals(new Fixed(2L, 1L), extract("/m~0n"));
+        Assert.assertEquals(true, extract("/esc"));
+        Assert.assertEquals(false, extract("/flag"));
+        Assert.assertEquals(Decoder.decode(DOCUMENT), extract(""));
+        Assert.assertNull(extract("/missing"));
+        Assert.assertNull(extract("/meta/list/3"));
+        Assert.assertNull(extract("/meta/list/-"));
+        Assert.assertNull(extract("/meta/list/01"));
+    }
+
+    @Test
+    public void testExtractMany() throws IOException {
+        final Map<String, Object> out = Decoder.extract(CharBuffer.wrap(DOCUMENT),
+                Arrays.asList("/meta", "/meta/requestId", "/nothing", "/missing", "/skip/a/2/b"));
+
+        Assert.assertEquals(4, out.size());
+        Assert.assertEquals("r-1", out.get("/meta/requestId"));
+        Assert.assertEquals(Decoder.decode(DOCUMENT).get("meta"), out.get("/meta"));
+        Assert.assertTrue(out.containsKey("/nothing"));
+        Assert.assertNull(out.get("/nothing"));
+        Assert.assertTrue(out.containsKey("/skip/a/2/b"));
+        Assert.assertFalse(out.containsKey("/missing"));
+    }
+
+    @Test
+    public void testStopsAfterLastMatch() throws IOException {
+        // the input after the resolved value is never read
+        Assert.assertEquals("x", Decoder.extract(CharBuffer.wrap("{\"id\": \"x\", \"rest\": [1, 2"), "/id"));
+    }
+
+    @Test
+    public void testInvalid() {
+        try {
+            Decoder.extract(CharBuffer.wrap(DOCUMENT), "meta");
+            Assert.fail();
+        } catch (IllegalArgumentException | IOException ex) {
+            // expected
+        }
+
+        try {
+            Decoder.extract(CharBuffer.wrap("{\"a\": [1, 2}"), "/b");
+            Assert.fail();
+        } catch (IOException ex) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TestReusableDecoder {
+    private static final String[] DOCUMENTS = {
+        "{\"id\": 1, \"tags\": [\"a\", \"b\", \"c\"], \"meta\": {\"x\": 1, \"y\": [], \"z\": {}}}",
+        "{\"id\": 2, \"tags\": [], \"meta\": {\"x\": 2, \"y\": [1, 2.5, \"s\"], \"z\": {\"k\": null}}}",
+        "{\"big\": 123456789012345678901234567890, \"s\": \"e\\u0073c\", \"n\": [[1], [2, 3], [true, false]]}",
+        "{}"
+    };
+
+    private static final class OrderedFactory implements ContainerFactory {
+        final List<Integer> hints = new ArrayList<>();
+
+        @Override
+        public Map<String, Object> newObject(final int expectedSize) {
+            this.hints.add(expectedSize);
+            return new LinkedHashMap<>();
+        }
+
+        @Override
+        public List<Object> newArray(final int expectedSize) {
+            return new ArrayList<>();
+        }
+    }
+
+    @Test
+    public void testMatchesStatic() throws IOException {
+        final ReusableDecoder decoder = new ReusableDecoder();
+        final ReusableDecoder primitive = new ReusableDecoder(new DecoderOptions().primitiveArrays(true).iterative(true));
+
+        for (int i = 0; i < 3; i++) {
+            for (String document : DOCUMENTS) {
+                Assert.assertEquals(Decoder.decode(document), decoder.decode(document));
+                Assert.assertEquals(Decoder.decode(document), decoder.decode(CharBuffer.wrap(document.toCharArray())));
+                Assert.assertEquals(Decoder.decode(document, new DecoderOptions().primitiveArrays(true)), primitive.decode(document));
+            }
+        }
+    }
+
+    @Test
+    public void testContainerFactory() throws IOException {
+        final OrderedFactory factory = new OrderedFactory();
+        final DecoderOptions options = new DecoderOptions().containerFactory(factory);
+        final String document = "{\"z\": 1, \"a\": {\"q\": 1, \"b\": 2, \"m\": 3}, \"k\": [{}, {\"y\": 1}]}";
+
+        final Map<String, Object> out = Decoder.decode(document, options);
+
+        Assert.assertTrue(out instanceof LinkedHashMap);
+        Assert.assertEquals(Arrays.asList("z", "a", "k"), new ArrayList<>(out.keySet()));
+        Assert.assertEquals(Arrays.asList("q", "b", "m"), new ArrayList<>(((Map<String, Object>) out.get("a")).keySet()));
+
+        // char buffers without a backing array take the same path
+        final CharBuffer direct = ByteBuffer.allocateDirect(document.length() * 2).asCharBuffer();
+
+        direct.put(document).flip();
+        Assert.assertTrue(Decoder.decode(direct, options).get("a") instanceof LinkedHashMap);
+    }
+
+    @Test
+    public void testLearnsSizes() throws IOException {
+        final OrderedFactory factory = new OrderedFactory();
+        final ReusableDecoder decoder = new ReusableDecoder(new DecoderOptions().containerFactory(factory));
+        final String document = "{\"a\": 1, \"b\": 2, \"c\": 3, \"d\": {\"x\": 1, \"y\": 2}}";
+
+        decoder.decode(document);
+        Assert.assertEquals(Arrays.asList(0, 0), factory.hints);
+
+        factory.hints.clear();
+        decoder.decode(document);
+        Assert.assertEquals(Arrays.asList(4, 2), factory.hints);
+
+        // the static decoder does not learn
+        factory.hints.clear();
+        Decoder.decode(document, new DecoderOptions().containerFactory(factory));
+        Assert.assertEquals(Arrays.asList(0, 0), factory.hints);
+    }
+}
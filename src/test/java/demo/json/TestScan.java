@@ -0,0 +1,54 @@
+package demo.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.util.Random;
+
+public class TestScan {
+    // 0xA2 and 0xDC differ from a quote and a backslash only in the high bit
+    private static final char[] ALPHABET = {'a', ' ', '\"', '\\', '\u00E9', '\n', '\u0080', '\u00A2', '\u00DC'};
+
+    @Test
+    public void testIndexOfQuoteOrBackslash() {
+        final Random rng = new Random(7);
+
+        for (int n = 0; n < 20_000; n++) {
+            final char[] chars = new char[rng.nextInt(40)];
+
+            for (int i = 0; i < chars.length; i++) {
+                // mostly plain text so that matches land at every offset within a word
+                chars[i] = (rng.nextInt(12) == 0) ? ALPHABET[rng.nextInt(ALPHABET.length)] : 'x';
+            }
+
+            final byte[] bytes = new byte[chars.length];
+
+            for (int i = 0; i < chars.length; i++) {
+                bytes[i] = (byte) chars[i];
+            }
+
+            final int start = (chars.length == 0) ? 0 : rng.nextInt(chars.length);
+            int expected = start;
+
+            while (expected < chars.length && chars[expected] != '\"' && chars[expected] != '\\') {
+                expected++;
+            }
+
+            Assert.assertEquals(expected, Scan.indexOfQuoteOrBackslash(ByteBuffer.wrap(bytes), start, bytes.length));
+            Assert.assertEquals(expected, Scan.indexOfQuoteOrBackslash(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN), start, bytes.length));
+            Assert.assertEquals(expected, Scan.indexOfQuoteOrBackslash(CharBuffer.wrap(chars), start, chars.length));
+        }
+    }
+
+    @Test
+    public void testSkipWhitespace() {
+        final byte[] bytes = "               \t\r\n  x".getBytes();
+
+        Assert.assertEquals(bytes.length - 1, Scan.skipWhitespace(ByteBuffer.wrap(bytes), 0, bytes.length));
+        Assert.assertEquals(bytes.length - 1, Scan.skipWhitespace(CharBuffer.wrap(new String(bytes)), 0, bytes.length));
+        Assert.assertEquals(4, Scan.skipWhitespace(ByteBuffer.wrap(bytes), 0, 4));
+    }
+}